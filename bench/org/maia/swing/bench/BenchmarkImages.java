@@ -0,0 +1,36 @@
+package org.maia.swing.bench;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+public class BenchmarkImages {
+
+	private BenchmarkImages() {
+	}
+
+	/**
+	 * Creates a reproducible image with a mixture of smooth gradients and detailed areas, resembling a photograph
+	 */
+	public static BufferedImage createPhotographicImage(int width, int height) {
+		Random random = new Random(width * 31L + height);
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = image.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		for (int y = 0; y < height; y++) {
+			float r = y / (float) height;
+			g.setColor(new Color(0.2f + 0.5f * r, 0.4f, 0.8f - 0.6f * r));
+			g.drawLine(0, y, width - 1, y);
+		}
+		for (int i = 0; i < 400; i++) {
+			g.setColor(new Color(random.nextInt(0xffffff)));
+			int d = 4 + random.nextInt(Math.max(width, height) / 8);
+			g.fillOval(random.nextInt(width), random.nextInt(height), d, d);
+		}
+		g.dispose();
+		return image;
+	}
+
+}
@@ -0,0 +1,53 @@
+package org.maia.swing.bench;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+
+/**
+ * Paints a component into an offscreen image, bypassing the on-screen repaint mechanism. Works in headless mode.
+ */
+public class OffscreenCanvas {
+
+	private JComponent component;
+
+	private BufferedImage image;
+
+	private Graphics2D graphics;
+
+	static {
+		System.setProperty("java.awt.headless", "true");
+	}
+
+	public OffscreenCanvas(JComponent component) {
+		Dimension size = component.getPreferredSize();
+		component.setSize(size);
+		this.component = component;
+		this.image = new BufferedImage(size.width, size.height, BufferedImage.TYPE_INT_RGB);
+		this.graphics = getImage().createGraphics();
+	}
+
+	public void paint() {
+		getComponent().paint(getGraphics());
+	}
+
+	public void dispose() {
+		getGraphics().dispose();
+		getImage().flush();
+	}
+
+	public JComponent getComponent() {
+		return component;
+	}
+
+	public BufferedImage getImage() {
+		return image;
+	}
+
+	private Graphics2D getGraphics() {
+		return graphics;
+	}
+
+}
@@ -0,0 +1,60 @@
+package org.maia.swing.bench;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.maia.swing.animate.imageslide.path.PathEntropyEvaluator;
+import org.maia.swing.animate.imageslide.path.RandomPathGenerator;
+import org.maia.swing.animate.imageslide.path.SlidingImagePath;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the entropy score of a random path over a photographic image
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PathEntropyEvaluatorBenchmark {
+
+	private PathEntropyEvaluator evaluator;
+
+	private List<SlidingImagePath> paths;
+
+	private int pathIndex;
+
+	private static final int PATH_COUNT = 64;
+
+	@Setup
+	public void setup() {
+		BufferedImage image = BenchmarkImages.createPhotographicImage(1920, 1080);
+		Dimension viewportSize = new Dimension(800, 450);
+		evaluator = new PathEntropyEvaluator(image, viewportSize);
+		RandomPathGenerator generator = new RandomPathGenerator(new Dimension(1920, 1080), viewportSize);
+		paths = new Vector<SlidingImagePath>(PATH_COUNT);
+		for (int i = 0; i < PATH_COUNT; i++) {
+			paths.add(generator.generatePath());
+		}
+	}
+
+	@Benchmark
+	public double evaluatePath() {
+		pathIndex = (pathIndex + 1) % PATH_COUNT;
+		return evaluator.evaluatePath(paths.get(pathIndex));
+	}
+
+}
@@ -0,0 +1,74 @@
+package org.maia.swing.bench;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.maia.swing.SwingUtils;
+import org.maia.swing.animate.imageslide.SlidingImageComponent;
+import org.maia.swing.animate.imageslide.SlidingImageState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a paint of a sliding image that keeps moving at a given rotation and zoom
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SlidingImageBenchmark {
+
+	@Param({ "0", "15" })
+	private double angleInDegrees;
+
+	@Param({ "1.0", "1.5" })
+	private double zoomFactor;
+
+	private SlidingImageComponent component;
+
+	private OffscreenCanvas canvas;
+
+	private SlidingImageState leftState;
+
+	private SlidingImageState rightState;
+
+	@Setup
+	public void setup() {
+		BufferedImage image = BenchmarkImages.createPhotographicImage(1920, 1080);
+		component = new SlidingImageComponent(new Dimension(800, 450), Color.BLACK);
+		SlidingImageState state = component.createInitialState(image)
+				.createRotation(SwingUtils.degreesToRadians(angleInDegrees)).createZoom(zoomFactor);
+		leftState = state.createTranslation(-100, 0);
+		rightState = state.createTranslation(100, 0);
+		component.changeImage(image, leftState);
+		canvas = new OffscreenCanvas(component.getUI());
+	}
+
+	@TearDown
+	public void tearDown() {
+		canvas.dispose();
+	}
+
+	@Benchmark
+	public void paintSliding() {
+		if (!component.isAnimating()) {
+			component.animateTo(component.getState().equals(leftState) ? rightState : leftState, 2000L);
+		}
+		canvas.paint();
+	}
+
+}
@@ -0,0 +1,118 @@
+package org.maia.swing.bench;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+import org.maia.swing.animate.itemslide.SlidingItem;
+import org.maia.swing.animate.itemslide.SlidingItemListComponent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a paint of a sliding item list that keeps sliding between items, with either the full or the optimized
+ * (back buffer) paint strategy
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SlidingItemListBenchmark {
+
+	@Param({ "10", "1000", "100000" })
+	private int itemCount;
+
+	@Param({ "false", "true" })
+	private boolean optimizedRendering;
+
+	private SlidingItemListComponent component;
+
+	private OffscreenCanvas canvas;
+
+	private int slideStep;
+
+	@Setup
+	public void setup() {
+		component = new SlidingItemListComponent(new Dimension(1200, 300), Color.BLACK);
+		component.setOptimizedRenderingEnabled(optimizedRendering);
+		List<SlidingItem> items = new Vector<SlidingItem>(itemCount);
+		for (int i = 0; i < itemCount; i++) {
+			items.add(new BenchmarkItem(i, 120 + (i % 5) * 20, 200));
+		}
+		component.addItems(items);
+		canvas = new OffscreenCanvas(component.getUI());
+		canvas.paint(); // layout
+		slideStep = Math.max(1, Math.min(itemCount / 3, 7));
+	}
+
+	@TearDown
+	public void tearDown() {
+		canvas.dispose();
+	}
+
+	@Benchmark
+	public void paintSliding() {
+		if (component.isStationary()) {
+			component.slideToItemIndex((component.getSelectedItemIndex() + slideStep) % itemCount);
+		}
+		canvas.paint();
+	}
+
+	private static class BenchmarkItem implements SlidingItem {
+
+		private String label;
+
+		private int width;
+
+		private int height;
+
+		private static Insets margin = new Insets(10, 10, 10, 10);
+
+		public BenchmarkItem(int index, int width, int height) {
+			this.label = String.valueOf(index);
+			this.width = width;
+			this.height = height;
+		}
+
+		@Override
+		public void render(Graphics2D g, SlidingItemListComponent component) {
+			g.setColor(Color.DARK_GRAY);
+			g.fillRect(0, 0, width, height);
+			g.setColor(Color.WHITE);
+			g.drawString(label, 10, height / 2);
+		}
+
+		@Override
+		public int getWidth(Graphics2D g) {
+			return width;
+		}
+
+		@Override
+		public int getHeight(Graphics2D g) {
+			return height;
+		}
+
+		@Override
+		public Insets getMargin() {
+			return margin;
+		}
+
+	}
+
+}
@@ -0,0 +1,62 @@
+package org.maia.swing.bench;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.util.concurrent.TimeUnit;
+
+import org.maia.swing.text.TextLabel;
+import org.maia.swing.text.TextLabel.TextOverflowMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a paint of a text label whose text overflows its width
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TextLabelBenchmark {
+
+	@Param({ "FADE", "ABBREVIATE_TRAILING" })
+	private TextOverflowMode overflowMode;
+
+	private TextLabel label;
+
+	private OffscreenCanvas canvas;
+
+	@Setup
+	public void setup() {
+		Font font = new Font(Font.DIALOG, Font.PLAIN, 32);
+		label = TextLabel.createSizedLabel("The quick brown fox jumps over the lazy dog, twice", font,
+				new Dimension(400, 60));
+		label.setBackground(Color.BLACK);
+		label.setForeground(Color.WHITE);
+		label.setTextOverflowMode(overflowMode);
+		canvas = new OffscreenCanvas(label);
+	}
+
+	@TearDown
+	public void tearDown() {
+		canvas.dispose();
+	}
+
+	@Benchmark
+	public void paintOverflowingText() {
+		canvas.paint();
+	}
+
+}
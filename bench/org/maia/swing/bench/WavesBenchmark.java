@@ -0,0 +1,70 @@
+package org.maia.swing.bench;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.util.concurrent.TimeUnit;
+
+import org.maia.swing.animate.wave.PixelatedWavesComponent;
+import org.maia.swing.animate.wave.Wave;
+import org.maia.swing.animate.wave.WavesComponent;
+import org.maia.swing.animate.wave.impl.AgitatedWaveDynamics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a paint of an agitated waves component, either plain or pixelated
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class WavesBenchmark {
+
+	@Param({ "false", "true" })
+	private boolean pixelated;
+
+	@Param({ "5" })
+	private int waveCount;
+
+	private WavesComponent component;
+
+	private OffscreenCanvas canvas;
+
+	@Setup
+	public void setup() {
+		Dimension size = new Dimension(800, 400);
+		Color background = new Color(10, 10, 10);
+		component = pixelated ? new PixelatedWavesComponent(size, background) : new WavesComponent(size, background);
+		for (int i = 0; i < waveCount; i++) {
+			component.addWave(new Wave(0f, 0.5f, 1.0f, 0.2f, new Color(14, 31 + i * 15, 44 + i * 20, 160)));
+		}
+		AgitatedWaveDynamics dynamics = new AgitatedWaveDynamics(component, 0.7f);
+		dynamics.setPerspectiveLiftMaximum(0.1f);
+		dynamics.getWavelengthRange().setRange(3f, 6f);
+		component.setWaveDynamics(dynamics);
+		canvas = new OffscreenCanvas(component.getUI());
+	}
+
+	@TearDown
+	public void tearDown() {
+		canvas.dispose();
+	}
+
+	@Benchmark
+	public void paintWaves() {
+		canvas.paint();
+	}
+
+}
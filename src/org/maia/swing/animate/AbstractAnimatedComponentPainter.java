@@ -0,0 +1,277 @@
+package org.maia.swing.animate;
+
+import java.awt.Rectangle;
+import java.awt.Toolkit;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+import javax.swing.JComponent;
+import javax.swing.RepaintManager;
+import javax.swing.SwingUtilities;
+
+import org.maia.swing.animate.metrics.AnimatedComponentMetrics;
+import org.maia.swing.animate.metrics.AnimatedComponentMetricsRegistry;
+
+public abstract class AbstractAnimatedComponentPainter extends Thread {
+
+	private List<AnimatedComponent> components;
+
+	private Set<AnimatedComponent> parkedComponents; // at rest, not painted until woken up
+
+	private List<AnimatedComponent> paintBatch;
+
+	private PaintBatchTask paintBatchTask;
+
+	private boolean stop;
+
+	protected AbstractAnimatedComponentPainter(String name) {
+		super(name);
+		this.components = new Vector<AnimatedComponent>();
+		this.parkedComponents = new HashSet<AnimatedComponent>();
+		this.paintBatch = new Vector<AnimatedComponent>();
+		this.paintBatchTask = new PaintBatchTask();
+		setDaemon(true);
+		setPriority(Thread.NORM_PRIORITY + 1);
+	}
+
+	/**
+	 * Tells whether this painter is able to paint a component at the given refresh rate
+	 *
+	 * @param refreshRate
+	 *            The refresh rate, in paints per second
+	 * @return <code>true</code> if this painter can paint at <code>refreshRate</code>, <code>false</code> if the
+	 *         component should be registered with a different painter
+	 */
+	public abstract boolean isCompatibleRefreshRate(int refreshRate);
+
+	public void addComponent(AnimatedComponent component) {
+		synchronized (getComponents()) {
+			if (!getComponents().contains(component)) {
+				getComponents().add(component);
+				componentAdded(component);
+				if (!isAlive()) {
+					start();
+				}
+			}
+		}
+	}
+
+	public void removeComponent(AnimatedComponent component) {
+		synchronized (getComponents()) {
+			if (getComponents().remove(component)) {
+				getParkedComponents().remove(component);
+				componentRemoved(component);
+			}
+			if (!hasComponents()) {
+				stopPainting();
+				disposePainter();
+			}
+		}
+	}
+
+	public void removeAllComponents() {
+		synchronized (getComponents()) {
+			List<AnimatedComponent> components = new Vector<AnimatedComponent>(getComponents());
+			getComponents().clear();
+			getParkedComponents().clear();
+			for (AnimatedComponent component : components) {
+				componentRemoved(component);
+			}
+			stopPainting();
+			disposePainter();
+		}
+	}
+
+	/**
+	 * Stops painting a component that is at rest, until it is woken up
+	 * 
+	 * @param component
+	 *            The component to park. Has no effect when it is not registered with this painter
+	 * @see #unparkComponent(AnimatedComponent)
+	 */
+	public void parkComponent(AnimatedComponent component) {
+		synchronized (getComponents()) {
+			if (getComponents().contains(component)) {
+				getParkedComponents().add(component);
+			}
+		}
+	}
+
+	/**
+	 * Resumes painting a parked component
+	 * 
+	 * @param component
+	 *            The component to wake up
+	 * @return <code>true</code> if the component was parked
+	 * @see #parkComponent(AnimatedComponent)
+	 */
+	public boolean unparkComponent(AnimatedComponent component) {
+		synchronized (getComponents()) {
+			boolean parked = getParkedComponents().remove(component);
+			if (parked) {
+				getComponents().notifyAll();
+			}
+			return parked;
+		}
+	}
+
+	public boolean isParked(AnimatedComponent component) {
+		synchronized (getComponents()) {
+			return getParkedComponents().contains(component);
+		}
+	}
+
+	/**
+	 * Blocks the calling painter thread for as long as all registered components are parked
+	 */
+	protected void awaitUnparkedComponents() {
+		synchronized (getComponents()) {
+			while (!isStopped() && hasComponents() && getParkedComponents().size() >= getComponents().size()) {
+				try {
+					getComponents().wait();
+				} catch (InterruptedException e) {
+				}
+			}
+		}
+	}
+
+	protected void componentAdded(AnimatedComponent component) {
+		// Subclasses may override
+	}
+
+	protected void componentRemoved(AnimatedComponent component) {
+		// Subclasses may override
+	}
+
+	/**
+	 * Invoked when this painter has no more components and stops painting. Subclasses may release any shared
+	 * reference to this painter, so that a new painter gets created for future components
+	 */
+	protected abstract void disposePainter();
+
+	/**
+	 * Paints the given components in a single hop to the event dispatch thread, followed by a single
+	 * synchronization of the graphics state. Parked components are skipped
+	 *
+	 * @param batch
+	 *            The components to paint. The list is owned by the calling painter thread and should not be
+	 *            modified during this call
+	 */
+	protected void paintComponents(List<AnimatedComponent> batch) {
+		boolean anyToPaint = false;
+		synchronized (getPaintBatch()) {
+			getPaintBatch().clear();
+			synchronized (getComponents()) {
+				for (int i = 0; i < batch.size(); i++) {
+					AnimatedComponent component = batch.get(i);
+					if (!getParkedComponents().contains(component)) {
+						getPaintBatch().add(component);
+					}
+				}
+			}
+			anyToPaint = !getPaintBatch().isEmpty();
+		}
+		if (anyToPaint) {
+			try {
+				getPaintBatchTask().setSubmissionTime(System.nanoTime());
+				SwingUtilities.invokeAndWait(getPaintBatchTask());
+			} catch (InvocationTargetException | InterruptedException e) {
+			}
+		}
+	}
+
+	public boolean hasComponents() {
+		return !getComponents().isEmpty();
+	}
+
+	public void stopPainting() {
+		stop = true;
+		synchronized (getComponents()) {
+			getComponents().notifyAll();
+		}
+	}
+
+	public boolean isStopped() {
+		return stop;
+	}
+
+	protected List<AnimatedComponent> getComponents() {
+		return components;
+	}
+
+	private Set<AnimatedComponent> getParkedComponents() {
+		return parkedComponents;
+	}
+
+	private List<AnimatedComponent> getPaintBatch() {
+		return paintBatch;
+	}
+
+	private PaintBatchTask getPaintBatchTask() {
+		return paintBatchTask;
+	}
+
+	private class PaintBatchTask implements Runnable {
+
+		private volatile long submissionTime; // in nanos
+
+		public PaintBatchTask() {
+		}
+
+		@Override
+		public void run() {
+			RepaintManager repaintManager = null;
+			synchronized (getPaintBatch()) {
+				recordEventQueueLatency(System.nanoTime() - getSubmissionTime());
+				for (int i = 0; i < getPaintBatch().size(); i++) {
+					AnimatedComponent component = getPaintBatch().get(i);
+					JComponent ui = component.getUI();
+					if (ui.isShowing()) {
+						if (component instanceof PartiallyRepaintableComponent) {
+							Rectangle region = ((PartiallyRepaintableComponent) component).getDirtyRegion();
+							if (region == null) {
+								region = new Rectangle(0, 0, ui.getWidth(), ui.getHeight());
+							}
+							if (!region.isEmpty()) {
+								repaintManager = RepaintManager.currentManager(ui);
+								repaintManager.addDirtyRegion(ui, region.x, region.y, region.width, region.height);
+							}
+						} else {
+							ui.paintImmediately(0, 0, ui.getWidth(), ui.getHeight());
+						}
+					}
+				}
+				getPaintBatch().clear();
+			}
+			if (repaintManager != null) {
+				repaintManager.paintDirtyRegions(); // coalesced, one repaint per window
+			}
+			Toolkit.getDefaultToolkit().sync();
+		}
+
+		private void recordEventQueueLatency(long latencyNanos) {
+			AnimatedComponentMetricsRegistry registry = AnimatedComponentMetricsRegistry.getInstance();
+			if (registry.isEnabled()) {
+				for (int i = 0; i < getPaintBatch().size(); i++) {
+					AnimatedComponentMetrics metrics = registry.getMetrics(getPaintBatch().get(i));
+					if (metrics != null) {
+						metrics.recordEventQueueLatency(latencyNanos);
+					}
+				}
+			}
+		}
+
+		private long getSubmissionTime() {
+			return submissionTime;
+		}
+
+		public void setSubmissionTime(long time) {
+			this.submissionTime = time;
+		}
+
+	}
+
+}
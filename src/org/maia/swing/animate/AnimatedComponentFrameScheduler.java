@@ -0,0 +1,153 @@
+package org.maia.swing.animate;
+
+import java.util.List;
+import java.util.Vector;
+
+import org.maia.util.SystemUtils;
+
+/**
+ * Paints all registered components from a single master clock, as opposed to {@link AnimatedComponentPainter} which
+ * runs one thread per refresh rate.
+ * <p>
+ * The master clock ticks at the highest refresh rate among the registered components. Every component keeps its own
+ * schedule derived from its {@link AnimatedComponent#getRefreshRate()} and is painted on the master tick nearest to
+ * when it is due, so that a component at a lower rate is painted every <em>n</em>-th tick on average. All components
+ * due at the same tick are painted in one hop to the event dispatch thread followed by one graphics synchronization.
+ * </p>
+ */
+public class AnimatedComponentFrameScheduler extends AbstractAnimatedComponentPainter {
+
+	private List<ScheduledComponent> schedule;
+
+	private List<AnimatedComponent> dueComponents;
+
+	private static AnimatedComponentFrameScheduler sharedScheduler;
+
+	private static final long NANOS_PER_SECOND = 1000000000L;
+
+	private AnimatedComponentFrameScheduler() {
+		super("Animated Component Frame Scheduler");
+		this.schedule = new Vector<ScheduledComponent>();
+		this.dueComponents = new Vector<AnimatedComponent>();
+	}
+
+	public static synchronized AnimatedComponentFrameScheduler getScheduler() {
+		if (sharedScheduler == null || sharedScheduler.isStopped()) {
+			sharedScheduler = new AnimatedComponentFrameScheduler();
+		}
+		return sharedScheduler;
+	}
+
+	private static synchronized void releaseScheduler(AnimatedComponentFrameScheduler scheduler) {
+		if (sharedScheduler == scheduler) {
+			sharedScheduler = null;
+		}
+	}
+
+	@Override
+	public boolean isCompatibleRefreshRate(int refreshRate) {
+		return refreshRate > 0;
+	}
+
+	@Override
+	protected void componentAdded(AnimatedComponent component) {
+		getSchedule().add(new ScheduledComponent(component));
+	}
+
+	@Override
+	protected void componentRemoved(AnimatedComponent component) {
+		for (int i = 0; i < getSchedule().size(); i++) {
+			if (getSchedule().get(i).getComponent() == component) {
+				getSchedule().remove(i);
+				break;
+			}
+		}
+	}
+
+	@Override
+	protected void disposePainter() {
+		releaseScheduler(this);
+	}
+
+	@Override
+	public void run() {
+		while (!isStopped()) {
+			awaitUnparkedComponents();
+			long t0 = System.nanoTime();
+			long tickNanos = NANOS_PER_SECOND / getMasterRate();
+			collectDueComponents(t0, tickNanos / 2);
+			paintComponents(getDueComponents());
+			SystemUtils.sleepNanos(tickNanos - (System.nanoTime() - t0));
+		}
+	}
+
+	private int getMasterRate() {
+		int rate = 0;
+		synchronized (getComponents()) {
+			for (int i = 0; i < getSchedule().size(); i++) {
+				rate = Math.max(rate, getSchedule().get(i).getComponent().getRefreshRate());
+			}
+		}
+		return rate > 0 ? rate : AnimatedComponentPainter.defaultPaintsPerSecond;
+	}
+
+	private void collectDueComponents(long now, long toleranceNanos) {
+		getDueComponents().clear();
+		synchronized (getComponents()) {
+			for (int i = 0; i < getSchedule().size(); i++) {
+				ScheduledComponent sc = getSchedule().get(i);
+				if (sc.isDue(now, toleranceNanos)) {
+					getDueComponents().add(sc.getComponent());
+					sc.scheduleNext(now);
+				}
+			}
+		}
+	}
+
+	private List<ScheduledComponent> getSchedule() {
+		return schedule;
+	}
+
+	private List<AnimatedComponent> getDueComponents() {
+		return dueComponents;
+	}
+
+	private static class ScheduledComponent {
+
+		private AnimatedComponent component;
+
+		private long nextDueTime; // in nanos
+
+		public ScheduledComponent(AnimatedComponent component) {
+			this.component = component;
+			this.nextDueTime = Long.MIN_VALUE;
+		}
+
+		public boolean isDue(long now, long toleranceNanos) {
+			return getComponent().getRefreshRate() > 0 && getNextDueTime() <= now + toleranceNanos;
+		}
+
+		public void scheduleNext(long now) {
+			long intervalNanos = NANOS_PER_SECOND / Math.max(getComponent().getRefreshRate(), 1);
+			long next = getNextDueTime() + intervalNanos;
+			if (getNextDueTime() == Long.MIN_VALUE || next < now) {
+				next = now + intervalNanos; // first time or fallen behind, no catching up
+			}
+			setNextDueTime(next);
+		}
+
+		public AnimatedComponent getComponent() {
+			return component;
+		}
+
+		private long getNextDueTime() {
+			return nextDueTime;
+		}
+
+		private void setNextDueTime(long time) {
+			this.nextDueTime = time;
+		}
+
+	}
+
+}
@@ -5,6 +5,7 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.geom.AffineTransform;
 
@@ -14,6 +15,9 @@ import javax.swing.event.AncestorEvent;
 import javax.swing.event.AncestorListener;
 
 import org.maia.swing.SwingUtils;
+import org.maia.swing.animate.metrics.AnimatedComponentMetrics;
+import org.maia.swing.animate.metrics.AnimatedComponentMetricsLogger;
+import org.maia.swing.animate.metrics.AnimatedComponentMetricsRegistry;
 
 public abstract class BaseAnimatedComponent implements AnimatedComponent {
 
@@ -35,12 +39,37 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 
 	private int refreshRate;
 
-	private AnimatedComponentPainter animatedPainter;
+	private AbstractAnimatedComponentPainter animatedPainter;
 
+	private AnimatedComponentMetrics metrics;
+
+	/**
+	 * When <code>true</code>, paint metrics are printed to the standard output every second
+	 * 
+	 * @see AnimatedComponentMetricsRegistry
+	 */
 	public static boolean logMetrics = false;
 
+	private static AnimatedComponentMetricsLogger metricsLogger;
+
+	/**
+	 * When <code>true</code>, components get painted by the shared {@link AnimatedComponentFrameScheduler}, otherwise
+	 * by an {@link AnimatedComponentPainter} dedicated to their refresh rate
+	 */
+	public static boolean sharedFrameScheduling = false;
+
+	/**
+	 * When <code>true</code>, components that are at rest are no longer painted by their painter until they are woken
+	 * up by a change of state
+	 * 
+	 * @see #isIdle()
+	 * @see #wakeUp()
+	 */
+	public static boolean idleParking = true;
+
 	protected BaseAnimatedComponent(Dimension size, Color background) {
 		this.panel = createAnimatedPanel(size, background);
+		this.metrics = new AnimatedComponentMetrics(getPanel().getName());
 		setRepaintFully(true);
 		setRefreshRate(AnimatedComponentPainter.defaultPaintsPerSecond);
 	}
@@ -50,6 +79,7 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 	@Override
 	public void refreshUI() {
 		setRepaintFully(true);
+		wakeUp();
 		if (getUI().isShowing() && !isObscured()) {
 			getUI().repaint();
 		}
@@ -60,6 +90,39 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 		setObscured(obscured);
 	}
 
+	/**
+	 * Tells whether this component is at rest, in which case it need not be painted periodically.
+	 * <p>
+	 * The default implementation returns <code>true</code> when this component is not animating. Subclasses should
+	 * override this method when their appearance can also change over time while not animating.
+	 * </p>
+	 * 
+	 * @see #isAnimating()
+	 */
+	public boolean isIdle() {
+		return !isAnimating();
+	}
+
+	/**
+	 * Resumes periodic painting after this component was parked for being idle. Subclasses should invoke this method
+	 * after every change of state that starts an animation
+	 * 
+	 * @see #isIdle()
+	 */
+	protected synchronized void wakeUp() {
+		AbstractAnimatedComponentPainter painter = getAnimatedPainter();
+		if (painter != null && painter.unparkComponent(this)) {
+			getPanel().setResumingFromIdle(true);
+		}
+	}
+
+	private synchronized void parkIfIdle() {
+		AbstractAnimatedComponentPainter painter = getAnimatedPainter();
+		if (painter != null && isIdleParking() && isIdle()) {
+			painter.parkComponent(this);
+		}
+	}
+
 	private synchronized void updateRepaintMechanism() {
 		if (isRepaintClientDriven() || getUI() == null || !getUI().isShowing() || getRefreshRate() <= 0) {
 			unregisterWithAnimatedPainter();
@@ -69,27 +132,57 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 	}
 
 	private synchronized void unregisterWithAnimatedPainter() {
-		AnimatedComponentPainter painter = getAnimatedPainter();
+		AbstractAnimatedComponentPainter painter = getAnimatedPainter();
 		if (painter != null) {
 			painter.removeComponent(this);
 			setAnimatedPainter(null);
+			getMetricsRegistry().unregister(this);
 		}
 	}
 
 	private synchronized void registerWithAnimatedPainter() {
-		AnimatedComponentPainter painter = getAnimatedPainter();
+		AbstractAnimatedComponentPainter painter = getAnimatedPainter();
 		int refreshRate = getRefreshRate();
-		if (painter != null && painter.getPaintsPerSecond() != refreshRate) {
+		if (painter != null && !isCompatibleAnimatedPainter(painter, refreshRate)) {
 			unregisterWithAnimatedPainter();
 			painter = null;
 		}
 		if (painter == null) {
-			painter = AnimatedComponentPainter.getPainter(refreshRate);
+			painter = selectAnimatedPainter(refreshRate);
 			painter.addComponent(this);
 			setAnimatedPainter(painter);
+			getMetricsRegistry().register(this, getMetrics());
 		}
 	}
 
+	private AbstractAnimatedComponentPainter selectAnimatedPainter(int refreshRate) {
+		if (isSharedFrameScheduling()) {
+			return AnimatedComponentFrameScheduler.getScheduler();
+		} else {
+			return AnimatedComponentPainter.getPainter(refreshRate);
+		}
+	}
+
+	private boolean isCompatibleAnimatedPainter(AbstractAnimatedComponentPainter painter, int refreshRate) {
+		return painter.isCompatibleRefreshRate(refreshRate)
+				&& (painter instanceof AnimatedComponentFrameScheduler) == isSharedFrameScheduling();
+	}
+
+	/**
+	 * Updates the state and renders the next frame ahead of painting it, when supported by the panel.
+	 * <p>
+	 * Subclasses implementing {@link PartiallyRepaintableComponent} can delegate to this method to obtain their dirty
+	 * region. The prepared frame is then presented at the next paint of the panel.
+	 * </p>
+	 * 
+	 * @return The region that changed in the prepared frame, or <code>null</code> when no frame could be prepared and
+	 *         the panel should be repainted entirely
+	 * @see AnimatedPanel#prepareFrame()
+	 */
+	protected Rectangle prepareNextFrame() {
+		return getPanel().prepareFrame();
+	}
+
 	public int getWidth() {
 		return getPanel().getWidth();
 	}
@@ -171,18 +264,46 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 		updateRepaintMechanism();
 	}
 
-	private AnimatedComponentPainter getAnimatedPainter() {
+	private AbstractAnimatedComponentPainter getAnimatedPainter() {
 		return animatedPainter;
 	}
 
-	private void setAnimatedPainter(AnimatedComponentPainter painter) {
+	private void setAnimatedPainter(AbstractAnimatedComponentPainter painter) {
 		animatedPainter = painter;
 	}
 
+	/**
+	 * Returns the frame pacing metrics of this component. Metrics are only recorded while the registry is enabled
+	 * 
+	 * @see AnimatedComponentMetricsRegistry#setEnabled(boolean)
+	 */
+	public AnimatedComponentMetrics getMetrics() {
+		return metrics;
+	}
+
+	private static AnimatedComponentMetricsRegistry getMetricsRegistry() {
+		return AnimatedComponentMetricsRegistry.getInstance();
+	}
+
+	private static synchronized AnimatedComponentMetricsLogger getMetricsLogger() {
+		if (metricsLogger == null) {
+			metricsLogger = new AnimatedComponentMetricsLogger();
+		}
+		return metricsLogger;
+	}
+
 	private static boolean isLogMetrics() {
 		return logMetrics;
 	}
 
+	private static boolean isSharedFrameScheduling() {
+		return sharedFrameScheduling;
+	}
+
+	private static boolean isIdleParking() {
+		return idleParking;
+	}
+
 	@SuppressWarnings("serial")
 	protected abstract class AnimatedPanel extends JPanel {
 
@@ -190,6 +311,14 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 
 		private long paintMetricsStartTime = -1L;
 
+		private boolean framePrepared;
+
+		private Rectangle preparedFrameRegion;
+
+		private long framePreparationNanos;
+
+		private volatile boolean resumingFromIdle;
+
 		private PaintMetrics paintMetrics;
 
 		private AffineTransform previousPaintTransform;
@@ -215,16 +344,114 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 		@Override
 		protected final void paintComponent(Graphics g) {
 			Graphics2D g2 = (Graphics2D) g;
+			long t0 = System.nanoTime();
+			long preparationNanos = 0L;
 			initializePaint(g2);
 			long t = System.currentTimeMillis();
-			if (!isFirstTimePainted()) {
-				updateStateBetweenPaints(g2, t - getLastTimePainted());
+			resumeFromIdle(t);
+			if (isFramePrepared()) {
+				paintPreparedFrame(g2);
+				setFramePrepared(false);
+				preparationNanos = getFramePreparationNanos();
+			} else {
+				if (!isFirstTimePainted()) {
+					updateStateBetweenPaints(g2, t - getLastTimePainted());
+				}
+				doPaintComponent(g2);
+				setRepaintFully(!isOptimizedRenderingEnabled());
+				setPreviousPaintTransform(g2.getTransform());
+				setLastTimePainted(t);
 			}
-			doPaintComponent(g2);
-			setRepaintFully(!isOptimizedRenderingEnabled());
-			setPreviousPaintTransform(g2.getTransform());
-			setLastTimePainted(t);
 			updateMetricsAfterPainting(getPaintMetrics(), t);
+			recordComponentMetrics(t0, System.nanoTime() - t0 + preparationNanos);
+			parkIfIdle();
+		}
+
+		private void recordComponentMetrics(long startNanos, long durationNanos) {
+			if (getMetricsRegistry().isEnabled()) {
+				int refreshRate = isRepaintClientDriven() ? 0 : getRefreshRate();
+				getMetrics().recordPaint(startNanos, durationNanos, refreshRate);
+			}
+		}
+
+		/**
+		 * Records that a back buffer had to be created or recreated, for instance after a resize
+		 */
+		protected void recordBackBufferRecreation() {
+			if (getMetricsRegistry().isEnabled()) {
+				getMetrics().recordBackBufferRecreation();
+			}
+		}
+
+		private void resumeFromIdle(long time) {
+			if (isResumingFromIdle()) {
+				setResumingFromIdle(false);
+				getMetrics().interruptFrameSequence();
+				if (!isFirstTimePainted()) {
+					setLastTimePainted(time); // no elapsed time while idle
+				}
+			}
+		}
+
+		/**
+		 * Updates the state and renders the next frame off-screen, ahead of painting. The prepared frame is presented
+		 * by the next invocation of {@link #paintComponent(Graphics)}, unless nothing changed
+		 * 
+		 * @return The region that changed in the prepared frame, or <code>null</code> when no frame could be
+		 *         prepared. When a prepared frame is still to be presented, its region is returned again
+		 * @see #canPrepareFrame(Graphics2D)
+		 */
+		protected Rectangle prepareFrame() {
+			Rectangle region = null;
+			if (isFramePrepared()) {
+				region = new Rectangle(getPreparedFrameRegion());
+			} else if (!isFirstTimePainted()) {
+				Graphics2D g2 = (Graphics2D) getGraphics();
+				if (g2 != null) {
+					initializePaint(g2);
+					if (canPrepareFrame(g2)) {
+						long t0 = System.nanoTime();
+						long t = System.currentTimeMillis();
+						resumeFromIdle(t);
+						updateStateBetweenPaints(g2, t - getLastTimePainted());
+						region = doPrepareFrame(g2);
+						setRepaintFully(!isOptimizedRenderingEnabled());
+						setPreviousPaintTransform(g2.getTransform());
+						setLastTimePainted(t);
+						setFramePreparationNanos(System.nanoTime() - t0);
+						if (region.isEmpty()) {
+							parkIfIdle(); // nothing to present, the panel will not be painted
+						} else {
+							setPreparedFrameRegion(new Rectangle(region));
+							setFramePrepared(true);
+						}
+					}
+					g2.dispose();
+				}
+			}
+			return region;
+		}
+
+		/**
+		 * Tells whether the next frame can be rendered off-screen ahead of painting. Subclasses that return
+		 * <code>true</code> must implement {@link #doPrepareFrame(Graphics2D)} and
+		 * {@link #paintPreparedFrame(Graphics2D)}
+		 */
+		protected boolean canPrepareFrame(Graphics2D g) {
+			return false;
+		}
+
+		/**
+		 * Renders the next frame off-screen. Invoked after the state has been updated
+		 * 
+		 * @return The region that changed compared to the previous frame, never <code>null</code>
+		 */
+		protected Rectangle doPrepareFrame(Graphics2D g) {
+			return new Rectangle(0, 0, getWidth(), getHeight());
+		}
+
+		protected void paintPreparedFrame(Graphics2D g) {
+			doPaintComponent(g);
 		}
 
 		protected void initializePaint(Graphics2D g) {
@@ -259,7 +486,7 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 			if (getPaintMetricsStartTime() >= 0) {
 				long timePassed = System.currentTimeMillis() - getPaintMetricsStartTime();
 				if (timePassed >= 1000L) {
-					logMetrics(metrics, timePassed);
+					reportMetrics(metrics, timePassed);
 					setPaintMetricsStartTime(paintStartTime);
 					metrics.reset();
 				}
@@ -268,9 +495,14 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 			}
 		}
 
-		private void logMetrics(PaintMetrics metrics, long timePassed) {
-			if (isLogMetrics()) {
-				System.out.println("[" + timePassed + "ms] [" + getName() + "] " + metrics);
+		private void reportMetrics(PaintMetrics metrics, long timePassed) {
+			AnimatedComponentMetricsRegistry registry = getMetricsRegistry();
+			if (registry.hasListeners() || isLogMetrics()) {
+				String summary = metrics.toString();
+				registry.fireMetricsReported(getMetrics(), timePassed, summary);
+				if (isLogMetrics()) {
+					getMetricsLogger().notifyMetricsReported(getMetrics(), timePassed, summary);
+				}
 			}
 		}
 
@@ -286,6 +518,38 @@ public abstract class BaseAnimatedComponent implements AnimatedComponent {
 			this.lastTimePainted = time;
 		}
 
+		private boolean isFramePrepared() {
+			return framePrepared;
+		}
+
+		private void setFramePrepared(boolean prepared) {
+			this.framePrepared = prepared;
+		}
+
+		private Rectangle getPreparedFrameRegion() {
+			return preparedFrameRegion;
+		}
+
+		private void setPreparedFrameRegion(Rectangle region) {
+			this.preparedFrameRegion = region;
+		}
+
+		private long getFramePreparationNanos() {
+			return framePreparationNanos;
+		}
+
+		private void setFramePreparationNanos(long nanos) {
+			this.framePreparationNanos = nanos;
+		}
+
+		private boolean isResumingFromIdle() {
+			return resumingFromIdle;
+		}
+
+		private void setResumingFromIdle(boolean resuming) {
+			this.resumingFromIdle = resuming;
+		}
+
 		private long getPaintMetricsStartTime() {
 			return paintMetricsStartTime;
 		}
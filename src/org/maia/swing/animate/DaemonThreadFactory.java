@@ -0,0 +1,75 @@
+package org.maia.swing.animate;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creates numbered daemon threads for the background work of animated components, so that they never keep the
+ * application from exiting
+ */
+public class DaemonThreadFactory implements ThreadFactory {
+
+	private String threadNamePrefix;
+
+	private int threadPriority;
+
+	private int threadCount;
+
+	/**
+	 * The time idle threads of an executor created by {@link #createExecutor(int, String)} are kept alive, in seconds
+	 */
+	public static long executorKeepAliveSeconds = 30L;
+
+	public DaemonThreadFactory(String threadNamePrefix) {
+		this(threadNamePrefix, Thread.NORM_PRIORITY);
+	}
+
+	public DaemonThreadFactory(String threadNamePrefix, int threadPriority) {
+		if (threadNamePrefix == null)
+			throw new NullPointerException("thread name prefix is null");
+		if (threadPriority < Thread.MIN_PRIORITY || threadPriority > Thread.MAX_PRIORITY)
+			throw new IllegalArgumentException("thread priority is out of range: " + threadPriority);
+		this.threadNamePrefix = threadNamePrefix;
+		this.threadPriority = threadPriority;
+	}
+
+	public static ThreadPoolExecutor createExecutor(int threads, String threadNamePrefix) {
+		return createExecutor(threads, new DaemonThreadFactory(threadNamePrefix));
+	}
+
+	/**
+	 * Creates an executor with up to a fixed number of threads and an unbounded queue, whose threads stop when idle
+	 *
+	 * @param threads
+	 *            The maximum number of threads, at least 1 is used
+	 * @param threadFactory
+	 *            The factory of the threads
+	 * @return The executor
+	 */
+	public static ThreadPoolExecutor createExecutor(int threads, DaemonThreadFactory threadFactory) {
+		int n = Math.max(threads, 1);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(n, n, executorKeepAliveSeconds, TimeUnit.SECONDS,
+				new LinkedBlockingQueue<Runnable>(), threadFactory);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	@Override
+	public synchronized Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, getThreadNamePrefix() + (++threadCount));
+		thread.setDaemon(true);
+		thread.setPriority(getThreadPriority());
+		return thread;
+	}
+
+	public String getThreadNamePrefix() {
+		return threadNamePrefix;
+	}
+
+	public int getThreadPriority() {
+		return threadPriority;
+	}
+
+}
@@ -0,0 +1,23 @@
+package org.maia.swing.animate;
+
+import java.awt.Rectangle;
+
+/**
+ * An <code>AnimatedComponent</code> that is able to tell which part of its UI changes at the next paint.
+ * <p>
+ * Painters collect the dirty regions of all such components and have them repainted via the Swing
+ * <code>RepaintManager</code>, which coalesces the regions of components sharing a window into a single repaint.
+ * </p>
+ */
+public interface PartiallyRepaintableComponent extends AnimatedComponent {
+
+	/**
+	 * Returns the region of this component that changes at the next paint. Invoked by the painter on the event
+	 * dispatch thread, right before painting
+	 * 
+	 * @return The dirty region, in the coordinate space of {@link #getUI()}. An empty rectangle when nothing changes,
+	 *         or <code>null</code> when the entire component needs to be repainted
+	 */
+	Rectangle getDirtyRegion();
+
+}
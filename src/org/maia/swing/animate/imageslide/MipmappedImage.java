@@ -0,0 +1,155 @@
+package org.maia.swing.animate.imageslide;
+
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * An image along with a pyramid of downscaled levels, each half the size of the previous one.
+ * <p>
+ * Drawing picks the smallest level that still has at least the resolution of the destination, and only the part of
+ * that level that intersects the clip. This bounds the pixel work per draw by the size of the destination rather than
+ * the size of the image, and avoids the aliasing of sampling a large image at a small scale.
+ * </p>
+ */
+public class MipmappedImage {
+
+	private Image image;
+
+	private int width;
+
+	private int height;
+
+	private int levelCount;
+
+	private List<BufferedImage> levels; // from level 1 onwards, created on demand
+
+	private static final int MINIMUM_LEVEL_SIZE = 16;
+
+	private static final int CLIP_MARGIN = 2; // in level pixels, to keep interpolation seamless at the clip edges
+
+	public MipmappedImage(Image image) {
+		this.image = image;
+		this.width = image.getWidth(null);
+		this.height = image.getHeight(null);
+		this.levelCount = computeLevelCount(width, height);
+		this.levels = new Vector<BufferedImage>();
+	}
+
+	private static int computeLevelCount(int width, int height) {
+		int count = 1;
+		while (Math.min(width, height) >> count >= MINIMUM_LEVEL_SIZE) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Draws the image at the origin of the graphics context, taking the current transform and clip into account
+	 *
+	 * @param g
+	 *            The graphics context, in image coordinates
+	 */
+	public void draw(Graphics2D g) {
+		if (getWidth() <= 0 || getHeight() <= 0) {
+			g.drawImage(getImage(), 0, 0, null); // size not known yet
+			return;
+		}
+		double scale = Math.sqrt(Math.abs(g.getTransform().getDeterminant()));
+		int level = getLevelForScale(scale);
+		Image levelImage = getLevel(level);
+		int lw = level == 0 ? getWidth() : ((BufferedImage) levelImage).getWidth();
+		int lh = level == 0 ? getHeight() : ((BufferedImage) levelImage).getHeight();
+		double sx = lw / (double) getWidth();
+		double sy = lh / (double) getHeight();
+		int x1 = 0, y1 = 0, x2 = lw, y2 = lh;
+		Rectangle clip = g.getClipBounds(); // in image coordinates
+		if (clip != null) {
+			x1 = Math.max((int) Math.floor(clip.x * sx) - CLIP_MARGIN, 0);
+			y1 = Math.max((int) Math.floor(clip.y * sy) - CLIP_MARGIN, 0);
+			x2 = Math.min((int) Math.ceil((clip.x + clip.width) * sx) + CLIP_MARGIN, lw);
+			y2 = Math.min((int) Math.ceil((clip.y + clip.height) * sy) + CLIP_MARGIN, lh);
+		}
+		if (x2 > x1 && y2 > y1) {
+			Graphics2D g2 = (Graphics2D) g.create();
+			g2.scale(1.0 / sx, 1.0 / sy);
+			g2.drawImage(levelImage, x1, y1, x2, y2, x1, y1, x2, y2, null);
+			g2.dispose();
+		}
+	}
+
+	/**
+	 * Returns the smallest level that has at least the resolution needed to draw the image at the given scale
+	 */
+	public int getLevelForScale(double scale) {
+		if (scale >= 1.0 || scale <= 0)
+			return 0;
+		int level = (int) Math.floor(Math.log(1.0 / scale) / Math.log(2.0));
+		return Math.min(level, getLevelCount() - 1);
+	}
+
+	/**
+	 * Returns the image at the given level, creating it when needed
+	 *
+	 * @param level
+	 *            The level, where 0 is the original image and every next level is half the size of the previous
+	 * @return The image at <code>level</code>
+	 */
+	public synchronized Image getLevel(int level) {
+		if (level <= 0)
+			return getImage();
+		level = Math.min(level, getLevelCount() - 1);
+		while (getLevels().size() < level) {
+			Image previous = getLevels().isEmpty() ? getImage() : getLevels().get(getLevels().size() - 1);
+			getLevels().add(createHalfSizeImage(previous));
+		}
+		return getLevels().get(level - 1);
+	}
+
+	/**
+	 * Creates all levels up front, typically off the event dispatch thread ahead of drawing
+	 */
+	public void createLevels() {
+		getLevel(getLevelCount() - 1);
+	}
+
+	private BufferedImage createHalfSizeImage(Image source) {
+		int w = Math.max(source.getWidth(null) / 2, 1);
+		int h = Math.max(source.getHeight(null) / 2, 1);
+		boolean opaque = source instanceof BufferedImage
+				&& ((BufferedImage) source).getTransparency() == Transparency.OPAQUE;
+		BufferedImage half = new BufferedImage(w, h, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g = half.createGraphics();
+		// bilinear at exactly half the size averages every 2x2 block
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		g.drawImage(source, 0, 0, w, h, null);
+		g.dispose();
+		return half;
+	}
+
+	public Image getImage() {
+		return image;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getLevelCount() {
+		return levelCount;
+	}
+
+	private List<BufferedImage> getLevels() {
+		return levels;
+	}
+
+}
@@ -19,6 +19,10 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 
 	private Image image;
 
+	private MipmappedImage mipmappedImage;
+
+	private boolean mipmappingEnabled;
+
 	private Image imageOverlay;
 
 	private Composite imageOverlayComposite;
@@ -41,15 +45,28 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 
 	private float imageOpacity;
 
+	private boolean fadeInSuppressed; // when the image came in by a transition
+
+	private SlidingImageTransition transition;
+
+	private long transitionDurationMillis;
+
+	private OutgoingImage outgoingImage; // nullable, for as long as a transition lasts
+
 	private boolean lastAnimating;
 
 	private boolean imageAlwaysCoveringUi; // rendering hint, only set to true when guaranteed
 
 	private GenericListenerList<SlidingImageListener> listeners;
 
+	public static boolean defaultMipmappingEnabled = true;
+
 	public SlidingImageComponent(Dimension size, Color background) {
 		super(size, background);
 		this.listeners = new GenericListenerList<SlidingImageListener>();
+		this.mipmappingEnabled = defaultMipmappingEnabled;
+		this.transition = SlidingImageTransition.NONE;
+		this.transitionDurationMillis = 2000L;
 		resetImage();
 	}
 
@@ -127,6 +144,7 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 			setTargetTimeNanos(now + Math.max(durationMillis, 0L) * 1000000);
 			setTargetState(state);
 		}
+		wakeUp();
 	}
 
 	public void stopAnimating() {
@@ -142,6 +160,46 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 		refreshUI();
 	}
 
+	private synchronized void startTransition(Image nextImage) {
+		OutgoingImage outgoing = null;
+		if (!SlidingImageTransition.NONE.equals(getTransition()) && getTransitionDurationMillis() > 0L && hasImage()
+				&& nextImage != null && getImageOpacity() > 0f) {
+			long now = System.nanoTime();
+			outgoing = new OutgoingImage(getImage(), getMipmappedImage(), getTransition(), getImageOpacity(),
+					isImageAlwaysCoveringUI());
+			if (getStartState() != null && getTargetTimeNanos() > now) {
+				outgoing.setTimeline(getStartState(), getTargetState(), getStartTimeNanos(), getTargetTimeNanos());
+			} else {
+				outgoing.setTimeline(getState(), getState(), now, now);
+			}
+			outgoing.setTransitionTimeline(now, now + getTransitionDurationMillis() * 1000000L);
+			outgoing.updateOverTime(now);
+		}
+		setOutgoingImage(outgoing);
+		setFadeInSuppressed(outgoing != null);
+	}
+
+	private void updateTransitionOverTime() {
+		OutgoingImage outgoing = getOutgoingImage();
+		if (outgoing != null) {
+			long now = System.nanoTime();
+			if (outgoing.isEndedAt(now)) {
+				setOutgoingImage(null);
+			} else {
+				outgoing.updateOverTime(now);
+			}
+		}
+	}
+
+	/**
+	 * Tells whether a transition from the previous image is ongoing
+	 *
+	 * @see #setTransition(SlidingImageTransition)
+	 */
+	public boolean isTransitioning() {
+		return getOutgoingImage() != null;
+	}
+
 	private void updateImageOpacityOverTime() {
 		float opacity = 1f;
 		long now = System.nanoTime();
@@ -156,7 +214,7 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 			fin = (long) Math.floor(fin * s);
 			fout = (long) Math.floor(fout * s);
 		}
-		if (fin > 0L && now < st + fin) {
+		if (fin > 0L && now < st + fin && !isFadeInSuppressed()) {
 			opacity = (now - st) / (float) fin;
 		} else if (fout > 0L && now > tt - fout) {
 			opacity = -(now - tt) / (float) fout;
@@ -226,6 +284,11 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 		return !getState().equals(getTargetState());
 	}
 
+	@Override
+	public boolean isIdle() {
+		return super.isIdle() && !isTransitioning();
+	}
+
 	public void resetImage() {
 		changeImage(null, new SlidingImageState());
 	}
@@ -235,6 +298,12 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 	}
 
 	public void changeImage(Image image, SlidingImageState initialState) {
+		MipmappedImage mipmap = image != null ? new MipmappedImage(image) : null;
+		if (mipmap != null && isMipmappingEnabled()) {
+			mipmap.createLevels(); // on the calling thread, rather than while painting
+		}
+		startTransition(image);
+		setMipmappedImage(mipmap);
 		setImage(image);
 		moveTo(initialState);
 		fireImageChanged();
@@ -259,6 +328,33 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 		this.image = image;
 	}
 
+	/**
+	 * Returns the image along with its downscaled levels
+	 *
+	 * @return The mipmapped image, or <code>null</code> when there is no image
+	 * @see #isMipmappingEnabled()
+	 */
+	public MipmappedImage getMipmappedImage() {
+		return mipmappedImage;
+	}
+
+	private void setMipmappedImage(MipmappedImage mipmappedImage) {
+		this.mipmappedImage = mipmappedImage;
+	}
+
+	/**
+	 * Tells whether the image is painted from the downscaled level that best matches the zoom factor, and only as far
+	 * as it intersects the viewport. When disabled, the full image is painted every frame
+	 */
+	public boolean isMipmappingEnabled() {
+		return mipmappingEnabled;
+	}
+
+	public void setMipmappingEnabled(boolean enabled) {
+		this.mipmappingEnabled = enabled;
+		refreshUI();
+	}
+
 	public Image getImageOverlay() {
 		return imageOverlay;
 	}
@@ -359,6 +455,48 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 		this.imageOpacity = opacity;
 	}
 
+	private boolean isFadeInSuppressed() {
+		return fadeInSuppressed;
+	}
+
+	private void setFadeInSuppressed(boolean suppressed) {
+		this.fadeInSuppressed = suppressed;
+	}
+
+	public SlidingImageTransition getTransition() {
+		return transition;
+	}
+
+	/**
+	 * Sets the transition to the next image. For any transition other than {@link SlidingImageTransition#NONE}, the
+	 * previous image keeps moving along its path while the next image comes in, and the next image does not fade in
+	 * against the background
+	 *
+	 * @see #changeImage(Image, SlidingImageState)
+	 * @see #setTransitionDurationMillis(long)
+	 */
+	public void setTransition(SlidingImageTransition transition) {
+		if (transition == null)
+			throw new NullPointerException("transition is null");
+		this.transition = transition;
+	}
+
+	public long getTransitionDurationMillis() {
+		return transitionDurationMillis;
+	}
+
+	public void setTransitionDurationMillis(long durationMillis) {
+		this.transitionDurationMillis = durationMillis;
+	}
+
+	private OutgoingImage getOutgoingImage() {
+		return outgoingImage;
+	}
+
+	private void setOutgoingImage(OutgoingImage outgoingImage) {
+		this.outgoingImage = outgoingImage;
+	}
+
 	private boolean isLastAnimating() {
 		return lastAnimating;
 	}
@@ -390,17 +528,23 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 		protected void updateStateBetweenPaints(Graphics2D g, long elapsedTimeMillis) {
 			updateImageOpacityOverTime();
 			updateStateOverTime();
+			updateTransitionOverTime();
 		}
 
 		@Override
 		protected void doPaintComponent(Graphics2D g) {
 			float opacity = getImageOpacity();
-			if (opacity == 0f || (isOpaque() && (!isImageAlwaysCoveringUI() || opacity < 1f))) {
-				paintBackground(g);
-			}
 			Image image = getImage();
-			if (image != null && opacity > 0f) {
-				paintImage(g, image, getState(), opacity);
+			OutgoingImage outgoing = getOutgoingImage();
+			if (outgoing != null && image != null) {
+				paintTransition(g, outgoing, image, getMipmappedImage(), getState(), opacity);
+			} else {
+				if (opacity == 0f || (isOpaque() && (!isImageAlwaysCoveringUI() || opacity < 1f))) {
+					paintBackground(g);
+				}
+				if (image != null && opacity > 0f) {
+					paintImage(g, image, getMipmappedImage(), getState(), opacity);
+				}
 			}
 			Image overlay = getImageOverlay();
 			if (overlay != null) {
@@ -408,14 +552,61 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 			}
 		}
 
-		protected void paintImage(Graphics2D g, Image image, SlidingImageState state, float opacity) {
+		protected void paintTransition(Graphics2D g, OutgoingImage outgoing, Image image, MipmappedImage mipmap,
+				SlidingImageState state, float opacity) {
+			float p = outgoing.getProgress();
+			float outgoingOpacity = outgoing.getOpacity();
+			boolean outgoingCovering = outgoing.isImageAlwaysCoveringUI() && outgoingOpacity == 1f;
+			boolean covering = isImageAlwaysCoveringUI() && opacity == 1f;
+			SlidingImageTransition transition = outgoing.getTransition();
+			if (SlidingImageTransition.CROSS_DISSOLVE.equals(transition)) {
+				if (isOpaque() && !outgoingCovering) {
+					paintBackground(g);
+				}
+				paintImage(g, outgoing.getImage(), outgoing.getMipmappedImage(), outgoing.getState(),
+						outgoingOpacity);
+				if (p > 0f) {
+					paintImage(g, image, mipmap, state, opacity * p);
+				}
+			} else if (SlidingImageTransition.WIPE.equals(transition)) {
+				if (isOpaque() && !(outgoingCovering && covering)) {
+					paintBackground(g);
+				}
+				int x = Math.round(getWidth() * p);
+				Graphics2D gout = (Graphics2D) g.create();
+				gout.clipRect(x, 0, getWidth() - x, getHeight());
+				paintImage(gout, outgoing.getImage(), outgoing.getMipmappedImage(), outgoing.getState(),
+						outgoingOpacity);
+				gout.dispose();
+				Graphics2D gin = (Graphics2D) g.create();
+				gin.clipRect(0, 0, x, getHeight());
+				paintImage(gin, image, mipmap, state, opacity);
+				gin.dispose();
+			} else if (SlidingImageTransition.ZOOM_THROUGH.equals(transition)) {
+				if (isOpaque()) {
+					paintBackground(g);
+				}
+				if (p > 0f) {
+					paintImage(g, image, mipmap, state.createZoom(0.5 + 0.5 * p), opacity * p);
+				}
+				paintImage(g, outgoing.getImage(), outgoing.getMipmappedImage(), outgoing.getState().createZoom(1.0 + p),
+						outgoingOpacity * (1f - p));
+			}
+		}
+
+		protected void paintImage(Graphics2D g, Image image, MipmappedImage mipmap, SlidingImageState state,
+				float opacity) {
 			Graphics2D gimg = (Graphics2D) g.create();
 			gimg.translate(getWidth() / 2, getHeight() / 2);
 			gimg.transform(state.getTransform());
 			if (opacity < 1f) {
 				gimg.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, opacity));
 			}
-			gimg.drawImage(image, 0, 0, null);
+			if (isMipmappingEnabled() && mipmap != null && mipmap.getImage() == image) {
+				mipmap.draw(gimg);
+			} else {
+				gimg.drawImage(image, 0, 0, null);
+			}
 			gimg.dispose();
 		}
 
@@ -441,4 +632,102 @@ public class SlidingImageComponent extends BaseAnimatedComponent {
 
 	}
 
+	private static class OutgoingImage {
+
+		private Image image;
+
+		private MipmappedImage mipmappedImage; // nullable
+
+		private SlidingImageTransition transition;
+
+		private float opacity;
+
+		private boolean imageAlwaysCoveringUi;
+
+		private SlidingImageState startState;
+
+		private SlidingImageState targetState;
+
+		private long startTimeNanos;
+
+		private long targetTimeNanos;
+
+		private long transitionStartTimeNanos;
+
+		private long transitionEndTimeNanos;
+
+		private SlidingImageState state;
+
+		private float progress;
+
+		public OutgoingImage(Image image, MipmappedImage mipmappedImage, SlidingImageTransition transition,
+				float opacity, boolean imageAlwaysCoveringUi) {
+			this.image = image;
+			this.mipmappedImage = mipmappedImage;
+			this.transition = transition;
+			this.opacity = opacity;
+			this.imageAlwaysCoveringUi = imageAlwaysCoveringUi;
+		}
+
+		public void setTimeline(SlidingImageState startState, SlidingImageState targetState, long startTimeNanos,
+				long targetTimeNanos) {
+			this.startState = startState;
+			this.targetState = targetState;
+			this.startTimeNanos = startTimeNanos;
+			this.targetTimeNanos = targetTimeNanos;
+		}
+
+		public void setTransitionTimeline(long startTimeNanos, long endTimeNanos) {
+			this.transitionStartTimeNanos = startTimeNanos;
+			this.transitionEndTimeNanos = endTimeNanos;
+		}
+
+		public void updateOverTime(long timeNanos) {
+			// The image keeps moving along its path
+			if (timeNanos >= targetTimeNanos) {
+				state = targetState;
+			} else {
+				double r = (timeNanos - startTimeNanos) / (double) (targetTimeNanos - startTimeNanos);
+				state = startState.createInterpolation(targetState, r);
+			}
+			double t = (timeNanos - transitionStartTimeNanos)
+					/ (double) (transitionEndTimeNanos - transitionStartTimeNanos);
+			t = Math.max(Math.min(t, 1.0), 0);
+			progress = (float) (t * t * (3.0 - 2.0 * t)); // ease in and out
+		}
+
+		public boolean isEndedAt(long timeNanos) {
+			return timeNanos >= transitionEndTimeNanos;
+		}
+
+		public Image getImage() {
+			return image;
+		}
+
+		public MipmappedImage getMipmappedImage() {
+			return mipmappedImage;
+		}
+
+		public SlidingImageTransition getTransition() {
+			return transition;
+		}
+
+		public float getOpacity() {
+			return opacity;
+		}
+
+		public boolean isImageAlwaysCoveringUI() {
+			return imageAlwaysCoveringUi;
+		}
+
+		public SlidingImageState getState() {
+			return state;
+		}
+
+		public float getProgress() {
+			return progress;
+		}
+
+	}
+
 }
\ No newline at end of file
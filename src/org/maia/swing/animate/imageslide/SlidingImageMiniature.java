@@ -23,6 +23,8 @@ public class SlidingImageMiniature extends JPanel {
 
 	private Image image;
 
+	private MipmappedImage mipmappedImage; // nullable
+
 	private Dimension viewportSize;
 
 	private Color viewportColor;
@@ -31,6 +33,10 @@ public class SlidingImageMiniature extends JPanel {
 
 	public SlidingImageMiniature(Dimension size, SlidingImageComponent component) {
 		this(size, component.getImage(), component.getUI().getSize());
+		MipmappedImage mipmap = component.getMipmappedImage();
+		if (mipmap != null && mipmap.getImage() == getImage()) {
+			setMipmappedImage(mipmap); // share the levels
+		}
 	}
 
 	public SlidingImageMiniature(Dimension size, Image image, Dimension viewportSize) {
@@ -52,6 +58,7 @@ public class SlidingImageMiniature extends JPanel {
 		setBackground(background);
 		this.padding = padding;
 		this.image = image;
+		this.mipmappedImage = image != null ? new MipmappedImage(image) : null;
 		this.viewportSize = viewportSize;
 		this.viewportColor = viewportColor;
 	}
@@ -103,7 +110,12 @@ public class SlidingImageMiniature extends JPanel {
 		g2.translate(getWidth() / 2, getHeight() / 2);
 		g2.scale(s, s);
 		g2.translate(-cx, -cy);
-		g2.drawImage(image, 0, 0, null);
+		MipmappedImage mipmap = getMipmappedImage();
+		if (mipmap != null && mipmap.getImage() == image) {
+			mipmap.draw(g2);
+		} else {
+			g2.drawImage(image, 0, 0, null);
+		}
 		g2.dispose();
 	}
 
@@ -162,6 +174,14 @@ public class SlidingImageMiniature extends JPanel {
 		return image;
 	}
 
+	private MipmappedImage getMipmappedImage() {
+		return mipmappedImage;
+	}
+
+	private void setMipmappedImage(MipmappedImage mipmappedImage) {
+		this.mipmappedImage = mipmappedImage;
+	}
+
 	public Dimension getViewportSize() {
 		return viewportSize;
 	}
@@ -0,0 +1,30 @@
+package org.maia.swing.animate.imageslide;
+
+/**
+ * The way a {@link SlidingImageComponent} changes from one image to the next
+ *
+ * @see SlidingImageComponent#setTransition(SlidingImageTransition)
+ */
+public enum SlidingImageTransition {
+
+	/**
+	 * The images change at once, each fading in and out against the background by itself
+	 */
+	NONE,
+
+	/**
+	 * The next image gradually shows through the previous image
+	 */
+	CROSS_DISSOLVE,
+
+	/**
+	 * The next image is revealed from left to right over the previous image
+	 */
+	WIPE,
+
+	/**
+	 * The previous image zooms in and fades out while the next image zooms in from afar
+	 */
+	ZOOM_THROUGH;
+
+}
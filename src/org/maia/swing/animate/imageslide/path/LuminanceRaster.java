@@ -0,0 +1,52 @@
+package org.maia.swing.animate.imageslide.path;
+
+/**
+ * A scaled-down luminance image as a raster of unsigned <code>byte</code> samples, row by row
+ *
+ * @see PathEntropyEvaluator
+ */
+public class LuminanceRaster {
+
+	private byte[] samples;
+
+	private int width;
+
+	private int height;
+
+	private double scale; // relative to the original image
+
+	public LuminanceRaster(byte[] samples, int width, int height, double scale) {
+		if (samples.length != width * height)
+			throw new IllegalArgumentException("Sample count does not match size " + width + "x" + height);
+		this.samples = samples;
+		this.width = width;
+		this.height = height;
+		this.scale = scale;
+	}
+
+	/**
+	 * Returns the sample at the given coordinates, or 0 when outside of the raster
+	 */
+	public int getSample(int x, int y) {
+		if (x < 0 || y < 0 || x >= getWidth() || y >= getHeight())
+			return 0;
+		return getSamples()[y * getWidth() + x] & 0xff;
+	}
+
+	public byte[] getSamples() {
+		return samples;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public double getScale() {
+		return scale;
+	}
+
+}
@@ -3,20 +3,29 @@ package org.maia.swing.animate.imageslide.path;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Image;
-import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
 import java.util.Arrays;
-import java.util.List;
-import java.util.Vector;
 
 import org.maia.graphics2d.image.ImageUtils;
 import org.maia.swing.animate.imageslide.SlidingImageState;
 
+/**
+ * Scores a path by the entropy of the luminance along the path, as seen through small thumbnails of the viewport.
+ * <p>
+ * The luminance of the image is kept as a scaled-down <code>byte</code> raster. Thumbnails are sampled from it by
+ * mapping every thumbnail pixel back onto the raster and interpolating bilinearly. Sampling and histogram buffers are
+ * reused per thread, so that evaluating a path does not allocate and paths can be evaluated concurrently.
+ * </p>
+ */
 public class PathEntropyEvaluator extends AbstractPathEvaluator {
 
 	private Dimension thumbnailImageSize;
 
-	private BufferedImage scaledLuminanceImage;
+	private LuminanceRaster luminance;
+
+	private double[] entropyTerms; // -p.log(p) by histogram count
+
+	private ThreadLocal<Workspace> workspace;
 
 	private static final double ASSUMED_MAX_ZOOM_FACTOR = 4.0;
 
@@ -24,31 +33,69 @@ public class PathEntropyEvaluator extends AbstractPathEvaluator {
 
 	private static final int THUMBNAIL_BITS_PER_SAMPLE = 4;
 
+	private static final int HISTOGRAM_SIZE = 1 << THUMBNAIL_BITS_PER_SAMPLE;
+
+	private static final double MAXIMUM_ENTROPY = Math.log(HISTOGRAM_SIZE);
+
 	private static final int PATH_INTERPOLATIONS = 7;
 
+	private static final int FRACTION_BITS = 8; // fixed-point precision of the bilinear weights
+
+	private static final int FRACTION_ONE = 1 << FRACTION_BITS;
+
+	private static final int FRACTION_MASK = FRACTION_ONE - 1;
+
+	private static final int FRACTION_ROUNDING = 1 << (2 * FRACTION_BITS - 1);
+
 	public PathEntropyEvaluator(Image image, Dimension viewportSize) {
+		this(image, viewportSize, null);
+	}
+
+	/**
+	 * Creates an evaluator from a previously derived luminance raster
+	 *
+	 * @param image
+	 *            The image
+	 * @param viewportSize
+	 *            The viewport size
+	 * @param luminance
+	 *            The luminance raster of an evaluator for the same image and viewport size, as obtained from
+	 *            {@link #getLuminance()}. When <code>null</code>, the raster is derived from <code>image</code>
+	 */
+	public PathEntropyEvaluator(Image image, Dimension viewportSize, LuminanceRaster luminance) {
 		super(image, viewportSize);
 		this.thumbnailImageSize = createThumbnailImageSize();
-		this.scaledLuminanceImage = createScaledLuminanceImage(computeScaleOfLuminanceImage());
+		this.entropyTerms = createEntropyTerms(getThumbnailSampleCount());
+		this.workspace = new ThreadLocal<Workspace>() {
+
+			@Override
+			protected Workspace initialValue() {
+				return new Workspace(PATH_INTERPOLATIONS, getThumbnailSampleCount());
+			}
+		};
+		this.luminance = luminance != null ? luminance
+				: createLuminanceRaster(createScaledLuminanceImage(computeScaleOfLuminanceImage()));
 	}
 
 	@Override
 	public double evaluatePath(SlidingImagePath path) {
 		double score = 0;
 		int n = 0;
-		int[] histogram = new int[1 << THUMBNAIL_BITS_PER_SAMPLE];
-		List<BufferedImage> thumbs = createThumbnailImages(path, PATH_INTERPOLATIONS);
-		for (int i = 0; i < thumbs.size(); i++) {
+		Workspace ws = getWorkspace().get();
+		int[] histogram = ws.getHistogram();
+		byte[][] thumbs = ws.getThumbnails();
+		sampleThumbnails(path, thumbs);
+		for (int i = 0; i < thumbs.length; i++) {
 			// Intra image entropy
-			if (i > 0 && i < thumbs.size() - 1) {
+			if (i > 0 && i < thumbs.length - 1) {
 				// omit the ends to allow soft start and end
-				createThumbnailSamplesHistogram(thumbs.get(i), histogram);
+				createThumbnailSamplesHistogram(thumbs[i], histogram);
 				score += computeEntropyScore(histogram);
 				n++;
 			}
 			// Inter image entropy
 			if (i > 0) {
-				createThumbnailDiffSamplesHistogram(thumbs.get(i - 1), thumbs.get(i), histogram);
+				createThumbnailDiffSamplesHistogram(thumbs[i - 1], thumbs[i], histogram);
 				double e = computeEntropyScore(histogram);
 				score += e * e;
 				n++;
@@ -57,34 +104,80 @@ public class PathEntropyEvaluator extends AbstractPathEvaluator {
 		return score / n;
 	}
 
-	private List<BufferedImage> createThumbnailImages(SlidingImagePath path, int count) {
-		List<BufferedImage> thumbs = new Vector<BufferedImage>(count);
+	private void sampleThumbnails(SlidingImagePath path, byte[][] thumbs) {
 		SlidingImageState startState = path.getStartState();
 		SlidingImageState endState = path.getEndState();
+		int count = thumbs.length;
 		for (int i = 0; i < count; i++) {
 			double r = count == 1 ? 0 : i / (double) (count - 1);
-			SlidingImageState state = startState.createInterpolation(endState, r);
-			thumbs.add(createThumbnailImage(state));
+			sampleThumbnail(startState, endState, r, thumbs[i]);
 		}
-		return thumbs;
 	}
 
-	private BufferedImage createThumbnailImage(SlidingImageState state) {
-		double iscale = getScaledLuminanceImage().getWidth() / getImageSize().getWidth();
+	/**
+	 * Samples the quantized luminance of the viewport at the interpolation of two states
+	 *
+	 * @param startState
+	 *            The state at <code>r</code> = 0
+	 * @param endState
+	 *            The state at <code>r</code> = 1
+	 * @param r
+	 *            The interpolation ratio between 0 and 1
+	 * @param thumb
+	 *            The thumbnail samples, row by row, in the range [0, {@link #HISTOGRAM_SIZE})
+	 */
+	private void sampleThumbnail(SlidingImageState startState, SlidingImageState endState, double r, byte[] thumb) {
+		double r1 = 1.0 - r;
+		LuminanceRaster luminance = getLuminance();
+		double iscale = luminance.getScale();
 		double vscale = getThumbnailImageSize().getWidth() / getViewportSize().getWidth();
-		SlidingImageState thumbState = state.clone();
-		thumbState.setCenterX(thumbState.getCenterX() * iscale);
-		thumbState.setCenterY(thumbState.getCenterY() * iscale);
-		thumbState.setZoomFactor(thumbState.getZoomFactor() / iscale * vscale);
-		Dimension thumbSize = getThumbnailImageSize();
-		BufferedImage thumb = ImageUtils.createImage(thumbSize);
-		Graphics2D g = thumb.createGraphics();
-		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
-		g.translate(thumbSize.width / 2, thumbSize.height / 2);
-		g.transform(thumbState.getTransform());
-		g.drawImage(getScaledLuminanceImage(), 0, 0, null);
-		g.dispose();
-		return thumb;
+		double cx = (r1 * startState.getCenterX() + r * endState.getCenterX()) * iscale;
+		double cy = (r1 * startState.getCenterY() + r * endState.getCenterY()) * iscale;
+		double angle = r1 * startState.getAngleInRadians() + r * endState.getAngleInRadians();
+		double zoom = (r1 * startState.getZoomFactor() + r * endState.getZoomFactor()) / iscale * vscale;
+		// Inverse mapping from thumbnail pixel centers to luminance pixel centers
+		double cos = Math.cos(angle) / zoom;
+		double sin = Math.sin(angle) / zoom;
+		int tw = getThumbnailImageSize().width;
+		int th = getThumbnailImageSize().height;
+		double dx0 = 0.5 - tw / 2;
+		byte[] lum = luminance.getSamples();
+		int lw = luminance.getWidth();
+		int lh = luminance.getHeight();
+		int shift = 8 - THUMBNAIL_BITS_PER_SAMPLE + 2 * FRACTION_BITS;
+		int k = 0;
+		for (int y = 0; y < th; y++) {
+			double dy = y + 0.5 - th / 2;
+			double u = cos * dx0 + sin * dy + cx - 0.5;
+			double v = -sin * dx0 + cos * dy + cy - 0.5;
+			for (int x = 0; x < tw; x++) {
+				int fu = (int) Math.floor(u * FRACTION_ONE);
+				int fv = (int) Math.floor(v * FRACTION_ONE);
+				int x0 = fu >> FRACTION_BITS;
+				int y0 = fv >> FRACTION_BITS;
+				int wx = fu & FRACTION_MASK;
+				int wy = fv & FRACTION_MASK;
+				int p00, p10, p01, p11;
+				if (x0 >= 0 && y0 >= 0 && x0 < lw - 1 && y0 < lh - 1) {
+					int i = y0 * lw + x0;
+					p00 = lum[i] & 0xff;
+					p10 = lum[i + 1] & 0xff;
+					p01 = lum[i + lw] & 0xff;
+					p11 = lum[i + lw + 1] & 0xff;
+				} else {
+					p00 = luminance.getSample(x0, y0);
+					p10 = luminance.getSample(x0 + 1, y0);
+					p01 = luminance.getSample(x0, y0 + 1);
+					p11 = luminance.getSample(x0 + 1, y0 + 1);
+				}
+				int top = (FRACTION_ONE - wx) * p00 + wx * p10;
+				int bottom = (FRACTION_ONE - wx) * p01 + wx * p11;
+				int gray = (FRACTION_ONE - wy) * top + wy * bottom + FRACTION_ROUNDING;
+				thumb[k++] = (byte) (gray >> shift);
+				u += cos;
+				v -= sin;
+			}
+		}
 	}
 
 	private Dimension createThumbnailImageSize() {
@@ -96,63 +189,40 @@ public class PathEntropyEvaluator extends AbstractPathEvaluator {
 		return new Dimension(tw, th);
 	}
 
-	private void createThumbnailSamplesHistogram(BufferedImage thumbnail, int[] histogram) {
+	private void createThumbnailSamplesHistogram(byte[] thumbnail, int[] histogram) {
 		Arrays.fill(histogram, 0);
-		Dimension size = getThumbnailImageSize();
-		int bps = THUMBNAIL_BITS_PER_SAMPLE;
-		int bitMask = ((1 << bps) - 1) << (8 - bps);
-		for (int y = 0; y < size.height; y++) {
-			for (int x = 0; x < size.width; x++) {
-				int gray = thumbnail.getRGB(x, y) & 0xff;
-				int value = (gray & bitMask) >> (8 - bps);
-				histogram[value]++;
-			}
+		for (int i = 0; i < thumbnail.length; i++) {
+			histogram[thumbnail[i]]++;
 		}
 	}
 
-	private void createThumbnailDiffSamplesHistogram(BufferedImage firstThumbnail, BufferedImage secondThumbnail,
+	private void createThumbnailDiffSamplesHistogram(byte[] firstThumbnail, byte[] secondThumbnail,
 			int[] histogram) {
 		Arrays.fill(histogram, 0);
-		Dimension size = getThumbnailImageSize();
-		int bps = THUMBNAIL_BITS_PER_SAMPLE;
-		int bitMask = ((1 << bps) - 1) << (8 - bps);
-		for (int y = 0; y < size.height; y++) {
-			for (int x = 0; x < size.width; x++) {
-				int gray1 = firstThumbnail.getRGB(x, y) & 0xff;
-				int gray2 = secondThumbnail.getRGB(x, y) & 0xff;
-				int value1 = (gray1 & bitMask) >> (8 - bps);
-				int value2 = (gray2 & bitMask) >> (8 - bps);
-				int value = Math.abs(value2 - value1);
-				histogram[value]++;
-			}
+		for (int i = 0; i < firstThumbnail.length; i++) {
+			histogram[Math.abs(secondThumbnail[i] - firstThumbnail[i])]++;
 		}
 	}
 
 	private double computeEntropyScore(int[] histogram) {
-		double entropy = computeEntropy(histogram);
-		double maxEntropy = Math.log(histogram.length);
-		return entropy / maxEntropy;
+		return computeEntropy(histogram) / MAXIMUM_ENTROPY;
 	}
 
 	private double computeEntropy(int[] histogram) {
 		double entropy = 0;
-		int sum = computeSumOfValues(histogram);
-		if (sum > 0) {
-			for (int i = 0; i < histogram.length; i++) {
-				double p = histogram[i] / (double) sum;
-				if (p > 0) {
-					entropy += -p * Math.log(p);
-				}
-			}
+		for (int i = 0; i < histogram.length; i++) {
+			entropy += getEntropyTerms()[histogram[i]];
 		}
 		return entropy;
 	}
 
-	private int computeSumOfValues(int[] histogram) {
-		int sum = 0;
-		for (int i = 0; i < histogram.length; i++)
-			sum += histogram[i];
-		return sum;
+	private double[] createEntropyTerms(int sampleCount) {
+		double[] terms = new double[sampleCount + 1];
+		for (int count = 1; count <= sampleCount; count++) {
+			double p = count / (double) sampleCount;
+			terms[count] = -p * Math.log(p);
+		}
+		return terms;
 	}
 
 	private double computeScaleOfLuminanceImage() {
@@ -165,12 +235,61 @@ public class PathEntropyEvaluator extends AbstractPathEvaluator {
 		return ImageUtils.convertToGrayscale(scaledImage);
 	}
 
+	private LuminanceRaster createLuminanceRaster(BufferedImage luminanceImage) {
+		int w = luminanceImage.getWidth();
+		int h = luminanceImage.getHeight();
+		// Read back as rendered, since reading a gray image directly applies a gamma conversion
+		BufferedImage rgbImage = ImageUtils.createImage(w, h);
+		Graphics2D g = rgbImage.createGraphics();
+		g.drawImage(luminanceImage, 0, 0, null);
+		g.dispose();
+		int[] rgb = rgbImage.getRGB(0, 0, w, h, null, 0, w);
+		byte[] lum = new byte[w * h];
+		for (int i = 0; i < lum.length; i++) {
+			lum[i] = (byte) rgb[i]; // gray, so any channel will do
+		}
+		return new LuminanceRaster(lum, w, h, w / getImageSize().getWidth());
+	}
+
+	private int getThumbnailSampleCount() {
+		return getThumbnailImageSize().width * getThumbnailImageSize().height;
+	}
+
 	private Dimension getThumbnailImageSize() {
 		return thumbnailImageSize;
 	}
 
-	private BufferedImage getScaledLuminanceImage() {
-		return scaledLuminanceImage;
+	public LuminanceRaster getLuminance() {
+		return luminance;
+	}
+
+	private double[] getEntropyTerms() {
+		return entropyTerms;
+	}
+
+	private ThreadLocal<Workspace> getWorkspace() {
+		return workspace;
+	}
+
+	private static class Workspace {
+
+		private byte[][] thumbnails;
+
+		private int[] histogram;
+
+		public Workspace(int thumbnailCount, int samplesPerThumbnail) {
+			this.thumbnails = new byte[thumbnailCount][samplesPerThumbnail];
+			this.histogram = new int[HISTOGRAM_SIZE];
+		}
+
+		public byte[][] getThumbnails() {
+			return thumbnails;
+		}
+
+		public int[] getHistogram() {
+			return histogram;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
@@ -22,12 +22,17 @@ public class RandomPathGenerator extends AbstractPathGenerator {
 
 	private double unityZoomBias; // probability between 0 and 1
 
+	/**
+	 * The default minimum zoom factor, relative to the smallest zoom factor at which the image covers the viewport
+	 */
+	public static final double DEFAULT_MINIMUM_ZOOM_MARGIN = 1.1;
+
 	public RandomPathGenerator(Dimension imageSize, Dimension viewportSize) {
 		super(imageSize, viewportSize);
 		setMinimumAngleInDegrees(-40.0);
 		setMaximumAngleInDegrees(Math.abs(getMinimumAngleInDegrees()));
 		setStepAngleInDegrees(10.0);
-		setMinimumZoomFactor(computeAbsoluteMinimumZoomFactor() * 1.1);
+		setMinimumZoomFactor(computeAbsoluteMinimumZoomFactor() * DEFAULT_MINIMUM_ZOOM_MARGIN);
 		setMaximumZoomFactor(getMinimumZoomFactor() * 2.0);
 	}
 
@@ -0,0 +1,563 @@
+package org.maia.swing.animate.imageslide.path;
+
+import java.awt.Dimension;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import java.util.WeakHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.maia.graphics2d.image.ImageUtils;
+import org.maia.swing.animate.DaemonThreadFactory;
+import org.maia.swing.animate.imageslide.SlidingImageState;
+
+/**
+ * Cache of the best scoring paths and the luminance raster of images, keyed by image content and viewport size.
+ * <p>
+ * When created with a directory, every entry is also persisted there as a compact binary file, which is memory-mapped
+ * when read back. Entries thereby survive restarts. Changed entries are written behind on a background thread, so
+ * lookups never wait for the disk, and successive changes to an entry are coalesced into a single write. Only the most
+ * recently used entries are kept in memory, the others are read back from their file when needed. Failing reads and
+ * writes are ignored, and merely make the cache miss.
+ * </p>
+ * <p>
+ * Cached paths depend on the settings of the path generators and evaluators that scored them, so a cache should be
+ * shared only among sliding image shows with the same settings.
+ * </p>
+ */
+public class SlidingImagePathCache {
+
+	private File directory; // nullable
+
+	private int maximumPathsPerImage;
+
+	private Map<String, Entry> entries; // most recently used last
+
+	private Map<String, Entry> unwrittenEntries; // changed, but not yet persisted
+
+	private boolean writeScheduled;
+
+	private Object writeLock; // serializes the writes to the files, separately from the lookups
+
+	private Map<Image, String> imageHashes;
+
+	public static int defaultMaximumPathsPerImage = 8;
+
+	/**
+	 * The maximum number of entries kept in memory by a cache, each holding a luminance raster. Without a directory,
+	 * the least recently used entries beyond this number are lost
+	 */
+	public static int maximumEntriesInMemory = 64;
+
+	private static ThreadPoolExecutor writeExecutor;
+
+	private static final int FILE_MAGIC = 0x4d535043;
+
+	private static final int FILE_VERSION = 1;
+
+	private static final String FILE_EXTENSION = ".paths";
+
+	private static final int PATH_RECORD_BYTES = 2 * 4 * 8 + 1 + 8; // two states, inside flag and score
+
+	/**
+	 * Creates a cache in memory only
+	 */
+	public SlidingImagePathCache() {
+		this(null);
+	}
+
+	/**
+	 * Creates a cache that is persisted in the given directory
+	 *
+	 * @param directory
+	 *            The directory of the cache files, which is created when needed. When <code>null</code>, the cache is
+	 *            kept in memory only
+	 */
+	@SuppressWarnings("serial")
+	public SlidingImagePathCache(File directory) {
+		this.directory = directory;
+		this.maximumPathsPerImage = defaultMaximumPathsPerImage;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > Math.max(maximumEntriesInMemory, 1);
+			}
+		};
+		this.unwrittenEntries = new LinkedHashMap<String, Entry>();
+		this.writeLock = new Object();
+		this.imageHashes = new WeakHashMap<Image, String>();
+	}
+
+	/**
+	 * Returns the cached paths of an image, best scoring first
+	 *
+	 * @return The cached paths, which may be empty
+	 */
+	public List<SlidingImagePath> getPaths(Image image, Dimension viewportSize) {
+		List<SlidingImagePath> paths = new Vector<SlidingImagePath>();
+		String key = getKey(image, viewportSize);
+		loadEntry(key);
+		synchronized (this) {
+			Entry entry = getEntry(key);
+			if (entry != null) {
+				paths.addAll(entry.getPaths());
+			}
+		}
+		return paths;
+	}
+
+	/**
+	 * Picks one of the cached paths of an image at random, with a probability proportional to its score
+	 *
+	 * @return The picked path, or <code>null</code> when no paths are cached
+	 */
+	public SlidingImagePath pickPath(Image image, Dimension viewportSize) {
+		String key = getKey(image, viewportSize);
+		loadEntry(key);
+		synchronized (this) {
+			Entry entry = getEntry(key);
+			return entry != null ? entry.pickPath() : null;
+		}
+	}
+
+	/**
+	 * Adds scored paths of an image to the cache, retaining only the best scoring ones
+	 *
+	 * @param paths
+	 *            The paths
+	 * @param scores
+	 *            The score of each path. Paths scoring 0 or less are not retained
+	 */
+	public void addPaths(Image image, Dimension viewportSize, List<SlidingImagePath> paths, double[] scores) {
+		String key = getKey(image, viewportSize);
+		loadEntry(key);
+		synchronized (this) {
+			Entry entry = getOrCreateEntry(key, viewportSize);
+			boolean changed = false;
+			for (int i = 0; i < paths.size(); i++) {
+				if (scores[i] > 0) {
+					changed |= entry.addPath(paths.get(i), scores[i], getMaximumPathsPerImage());
+				}
+			}
+			if (changed) {
+				entryChanged(key, entry);
+			}
+		}
+	}
+
+	/**
+	 * Returns the cached luminance raster of an image
+	 *
+	 * @return The luminance raster, or <code>null</code> when not cached
+	 * @see PathEntropyEvaluator#PathEntropyEvaluator(Image, Dimension, LuminanceRaster)
+	 */
+	public LuminanceRaster getLuminance(Image image, Dimension viewportSize) {
+		String key = getKey(image, viewportSize);
+		loadEntry(key);
+		synchronized (this) {
+			Entry entry = getEntry(key);
+			return entry != null ? entry.getLuminance() : null;
+		}
+	}
+
+	public void putLuminance(Image image, Dimension viewportSize, LuminanceRaster luminance) {
+		String key = getKey(image, viewportSize);
+		loadEntry(key);
+		synchronized (this) {
+			Entry entry = getOrCreateEntry(key, viewportSize);
+			entry.setLuminance(luminance);
+			entryChanged(key, entry);
+		}
+	}
+
+	/**
+	 * Clears the cache in memory. Persisted entries are kept, and changed entries are still persisted
+	 */
+	public synchronized void clear() {
+		getEntries().clear();
+		getImageHashes().clear();
+	}
+
+	/**
+	 * Persists all changed entries that have not been written yet, waiting for the writes to complete
+	 * <p>
+	 * Writes otherwise happen in the background on a daemon thread, which does not keep the application from exiting.
+	 * Sliding image shows flush their path cache when disposed.
+	 * </p>
+	 */
+	public void flush() {
+		writeUnwrittenEntries();
+	}
+
+	/**
+	 * Reads an entry from its file when not in memory, outside of the lock so that other lookups need not wait
+	 */
+	private void loadEntry(String key) {
+		synchronized (this) {
+			if (getEntry(key) != null || getFile(key) == null)
+				return;
+		}
+		Entry entry = readEntry(key);
+		if (entry != null) {
+			synchronized (this) {
+				if (getEntry(key) == null) {
+					getEntries().put(key, entry);
+				}
+			}
+		}
+	}
+
+	private Entry getEntry(String key) {
+		Entry entry = getEntries().get(key);
+		if (entry == null) {
+			entry = getUnwrittenEntries().get(key); // evicted from memory before it was persisted
+			if (entry != null) {
+				getEntries().put(key, entry);
+			}
+		}
+		return entry;
+	}
+
+	private Entry getOrCreateEntry(String key, Dimension viewportSize) {
+		Entry entry = getEntry(key);
+		if (entry == null) {
+			entry = new Entry(viewportSize);
+			getEntries().put(key, entry);
+		}
+		return entry;
+	}
+
+	private String getKey(Image image, Dimension viewportSize) {
+		return getImageHash(image) + "-" + viewportSize.width + "x" + viewportSize.height;
+	}
+
+	private String getImageHash(Image image) {
+		String hash = null;
+		synchronized (this) {
+			hash = getImageHashes().get(image);
+		}
+		if (hash == null) {
+			hash = computeImageHash(image);
+			synchronized (this) {
+				getImageHashes().put(image, hash);
+			}
+		}
+		return hash;
+	}
+
+	private String computeImageHash(Image image) {
+		// 64-bit FNV-1a over the pixels
+		BufferedImage bi = ImageUtils.convertToBufferedImage(image);
+		int w = bi.getWidth();
+		int h = bi.getHeight();
+		long hash = 0xcbf29ce484222325L;
+		hash = (hash ^ w) * 0x100000001b3L;
+		hash = (hash ^ h) * 0x100000001b3L;
+		int[] row = new int[w];
+		for (int y = 0; y < h; y++) {
+			bi.getRGB(0, y, w, 1, row, 0, w);
+			for (int x = 0; x < w; x++) {
+				hash = (hash ^ row[x]) * 0x100000001b3L;
+			}
+		}
+		return Long.toHexString(hash);
+	}
+
+	private synchronized void entryChanged(String key, Entry entry) {
+		if (getDirectory() == null)
+			return;
+		entry.incrementModificationCount();
+		getUnwrittenEntries().put(key, entry);
+		if (!isWriteScheduled()) {
+			setWriteScheduled(true);
+			getWriteExecutor().execute(new Runnable() {
+
+				@Override
+				public void run() {
+					writeUnwrittenEntries();
+				}
+			});
+		}
+	}
+
+	private void writeUnwrittenEntries() {
+		synchronized (getWriteLock()) {
+			writeUnwrittenEntriesInTurn();
+		}
+	}
+
+	private void writeUnwrittenEntriesInTurn() {
+		while (true) {
+			String key = null;
+			Entry snapshot = null;
+			int modificationCount = 0;
+			synchronized (this) {
+				if (getUnwrittenEntries().isEmpty()) {
+					setWriteScheduled(false);
+					return;
+				}
+				key = getUnwrittenEntries().keySet().iterator().next();
+				Entry entry = getUnwrittenEntries().get(key);
+				snapshot = entry.copy();
+				modificationCount = entry.getModificationCount();
+			}
+			writeEntry(key, snapshot);
+			synchronized (this) {
+				Entry entry = getUnwrittenEntries().get(key);
+				if (entry != null && entry.getModificationCount() == modificationCount) {
+					getUnwrittenEntries().remove(key);
+				} else if (entry != null) {
+					// changed while writing, write again after the others
+					getUnwrittenEntries().remove(key);
+					getUnwrittenEntries().put(key, entry);
+				}
+			}
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getWriteExecutor() {
+		if (writeExecutor == null) {
+			writeExecutor = DaemonThreadFactory.createExecutor(1, "Sliding Image Path Cache Writer ");
+		}
+		return writeExecutor;
+	}
+
+	private Entry readEntry(String key) {
+		File file = getFile(key);
+		if (file == null || !file.isFile())
+			return null;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != FILE_MAGIC || buffer.getInt() != FILE_VERSION)
+				return null;
+			Entry entry = new Entry(new Dimension(buffer.getInt(), buffer.getInt()));
+			int lw = buffer.getInt();
+			int lh = buffer.getInt();
+			double lscale = buffer.getDouble();
+			if (lw < 0 || lh < 0 || (long) lw * lh > buffer.remaining())
+				return null; // corrupt
+			if (lw > 0 && lh > 0) {
+				byte[] samples = new byte[lw * lh];
+				buffer.get(samples);
+				entry.setLuminance(new LuminanceRaster(samples, lw, lh, lscale));
+			}
+			int n = buffer.getInt();
+			if (n < 0 || (long) n * PATH_RECORD_BYTES > buffer.remaining())
+				return null; // corrupt
+			for (int i = 0; i < n; i++) {
+				SlidingImageState start = readState(buffer);
+				SlidingImageState end = readState(buffer);
+				boolean inside = buffer.get() != 0;
+				double score = buffer.getDouble();
+				entry.addPath(new SlidingImagePath(start, end, inside), score, getMaximumPathsPerImage());
+			}
+			return entry;
+		} catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private SlidingImageState readState(MappedByteBuffer buffer) {
+		SlidingImageState state = new SlidingImageState();
+		state.setCenter(buffer.getDouble(), buffer.getDouble());
+		state.setAngleInRadians(buffer.getDouble());
+		state.setZoomFactor(buffer.getDouble());
+		return state;
+	}
+
+	private void writeEntry(String key, Entry entry) {
+		File file = getFile(key);
+		if (file == null)
+			return;
+		File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+		try {
+			Files.createDirectories(getDirectory().toPath());
+			try (DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+				out.writeInt(FILE_MAGIC);
+				out.writeInt(FILE_VERSION);
+				out.writeInt(entry.getViewportSize().width);
+				out.writeInt(entry.getViewportSize().height);
+				LuminanceRaster luminance = entry.getLuminance();
+				out.writeInt(luminance != null ? luminance.getWidth() : 0);
+				out.writeInt(luminance != null ? luminance.getHeight() : 0);
+				out.writeDouble(luminance != null ? luminance.getScale() : 0);
+				if (luminance != null) {
+					out.write(luminance.getSamples());
+				}
+				out.writeInt(entry.getPaths().size());
+				for (int i = 0; i < entry.getPaths().size(); i++) {
+					SlidingImagePath path = entry.getPaths().get(i);
+					writeState(out, path.getStartState());
+					writeState(out, path.getEndState());
+					out.writeBoolean(path.isInsideImage());
+					out.writeDouble(entry.getScores().get(i));
+				}
+			}
+			moveFile(tempFile, file);
+		} catch (IOException e) {
+			tempFile.delete();
+		}
+	}
+
+	private void writeState(DataOutputStream out, SlidingImageState state) throws IOException {
+		out.writeDouble(state.getCenterX());
+		out.writeDouble(state.getCenterY());
+		out.writeDouble(state.getAngleInRadians());
+		out.writeDouble(state.getZoomFactor());
+	}
+
+	private void moveFile(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	private File getFile(String key) {
+		return getDirectory() != null ? new File(getDirectory(), key + FILE_EXTENSION) : null;
+	}
+
+	public File getDirectory() {
+		return directory;
+	}
+
+	public int getMaximumPathsPerImage() {
+		return maximumPathsPerImage;
+	}
+
+	public void setMaximumPathsPerImage(int maximumPathsPerImage) {
+		this.maximumPathsPerImage = Math.max(maximumPathsPerImage, 1);
+	}
+
+	private Map<String, Entry> getEntries() {
+		return entries;
+	}
+
+	private Map<String, Entry> getUnwrittenEntries() {
+		return unwrittenEntries;
+	}
+
+	private Object getWriteLock() {
+		return writeLock;
+	}
+
+	private boolean isWriteScheduled() {
+		return writeScheduled;
+	}
+
+	private void setWriteScheduled(boolean scheduled) {
+		this.writeScheduled = scheduled;
+	}
+
+	private Map<Image, String> getImageHashes() {
+		return imageHashes;
+	}
+
+	private static class Entry {
+
+		private Dimension viewportSize;
+
+		private LuminanceRaster luminance; // nullable
+
+		private List<SlidingImagePath> paths; // best scoring first
+
+		private List<Double> scores;
+
+		private int modificationCount;
+
+		public Entry(Dimension viewportSize) {
+			this.viewportSize = viewportSize;
+			this.paths = new Vector<SlidingImagePath>();
+			this.scores = new Vector<Double>();
+		}
+
+		public Entry copy() {
+			Entry copy = new Entry(getViewportSize());
+			copy.setLuminance(getLuminance()); // not modified
+			copy.getPaths().addAll(getPaths());
+			copy.getScores().addAll(getScores());
+			return copy;
+		}
+
+		public boolean addPath(SlidingImagePath path, double score, int maximumPaths) {
+			int i = 0;
+			while (i < getScores().size() && getScores().get(i) >= score) {
+				i++;
+			}
+			if (i >= maximumPaths)
+				return false;
+			getPaths().add(i, path);
+			getScores().add(i, score);
+			while (getPaths().size() > maximumPaths) {
+				getPaths().remove(getPaths().size() - 1);
+				getScores().remove(getScores().size() - 1);
+			}
+			return true;
+		}
+
+		public SlidingImagePath pickPath() {
+			if (getPaths().isEmpty())
+				return null;
+			double total = 0;
+			for (int i = 0; i < getScores().size(); i++) {
+				total += Math.max(getScores().get(i), 0);
+			}
+			double r = Math.random() * total;
+			for (int i = 0; i < getScores().size(); i++) {
+				r -= Math.max(getScores().get(i), 0);
+				if (r < 0)
+					return getPaths().get(i);
+			}
+			return getPaths().get(0);
+		}
+
+		public Dimension getViewportSize() {
+			return viewportSize;
+		}
+
+		public LuminanceRaster getLuminance() {
+			return luminance;
+		}
+
+		public void setLuminance(LuminanceRaster luminance) {
+			this.luminance = luminance;
+		}
+
+		public List<SlidingImagePath> getPaths() {
+			return paths;
+		}
+
+		public List<Double> getScores() {
+			return scores;
+		}
+
+		public int getModificationCount() {
+			return modificationCount;
+		}
+
+		public void incrementModificationCount() {
+			modificationCount++;
+		}
+
+	}
+
+}
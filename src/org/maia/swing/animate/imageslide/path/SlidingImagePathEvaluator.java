@@ -4,6 +4,9 @@ public interface SlidingImagePathEvaluator {
 
 	/**
 	 * Evaluates the given path and assigns a score between 0 to 1
+	 * <p>
+	 * A sliding image show may evaluate several paths concurrently, so implementations should be thread-safe.
+	 * </p>
 	 * 
 	 * @param path
 	 *            The path
@@ -15,10 +15,10 @@ public class WeightedScorePathEvaluator implements SlidingImagePathEvaluator {
 	}
 
 	@Override
-	public synchronized double evaluatePath(SlidingImagePath path) {
+	public double evaluatePath(SlidingImagePath path) {
 		double score = 0;
 		double weightSum = 0;
-		int n = getEvaluators().size();
+		int n = getEvaluatorCount(); // not holding the lock, so paths can be evaluated concurrently
 		for (int i = 0; i < n; i++) {
 			SlidingImagePathEvaluator evaluator = getEvaluators().get(i);
 			double s = evaluator.evaluatePath(path);
@@ -40,6 +40,10 @@ public class WeightedScorePathEvaluator implements SlidingImagePathEvaluator {
 		getWeights().add(weight);
 	}
 
+	private synchronized int getEvaluatorCount() {
+		return getEvaluators().size();
+	}
+
 	private List<SlidingImagePathEvaluator> getEvaluators() {
 		return evaluators;
 	}
@@ -1,11 +1,39 @@
 package org.maia.swing.animate.imageslide.show;
 
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
 import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Vector;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.maia.swing.SwingUtils;
+import org.maia.swing.animate.DaemonThreadFactory;
+
+/**
+ * Iterates over a collection of images in a given sequence.
+ * <p>
+ * Lazily loaded images are prefetched: the next few images in the sequence are loaded in the background, converted to
+ * images compatible with the screen and, when a minimum cover size is set, downscaled to just cover that size. The
+ * prefetched images are bounded by a size in bytes and released once they are iterated over.
+ * </p>
+ *
+ * @see #addImageLazyLoaded(ImageElement)
+ * @see #setPrefetchImageCount(int)
+ * @see #setMinimumCoverSize(Dimension)
+ */
 public class SlidingImageCollectionIterator implements SlidingImageIterator {
 
 	private ImageSequencer imageSequencer;
@@ -20,10 +48,30 @@ public class SlidingImageCollectionIterator implements SlidingImageIterator {
 
 	private ImageElement previousImageElement;
 
+	private int prefetchImageCount = defaultPrefetchImageCount;
+
+	private long prefetchMaximumSizeInBytes = defaultPrefetchMaximumSizeInBytes;
+
+	private Dimension minimumCoverSize; // nullable
+
+	private Map<ImageElement, PrefetchedImage> prefetchedImages;
+
+	public static int defaultPrefetchImageCount = 2;
+
+	public static long defaultPrefetchMaximumSizeInBytes = 256L * 1024L * 1024L;
+
+	/**
+	 * The maximum number of threads, shared by all iterators, to prefetch images
+	 */
+	public static int maximumPrefetchThreads = 2;
+
+	private static ThreadPoolExecutor prefetchExecutor;
+
 	private SlidingImageCollectionIterator(ImageSequencer imageSequencer) {
 		this.imageSequencer = imageSequencer;
 		this.imageElements = new Vector<ImageElement>();
 		this.forwardBuffer = new Vector<ImageElement>();
+		this.prefetchedImages = new HashMap<ImageElement, PrefetchedImage>();
 	}
 
 	public static SlidingImageCollectionIterator createLinearRepeatingIterator() {
@@ -57,39 +105,180 @@ public class SlidingImageCollectionIterator implements SlidingImageIterator {
 	@Override
 	public synchronized boolean hasNext() {
 		feedForwardBuffer();
+		prefetchAhead();
 		return !getForwardBuffer().isEmpty();
 	}
 
+	/**
+	 * Returns the next image, awaiting it when it is still being prefetched
+	 *
+	 * @return The next image, or <code>null</code> when the calling thread was interrupted while awaiting it. The
+	 *         interrupt status of the thread is then set
+	 */
 	@Override
-	public synchronized Image next() {
-		if (hasNext()) {
-			ImageElement element = getForwardBuffer().remove(0);
+	public Image next() {
+		ImageElement element = null;
+		PrefetchedImage prefetched = null;
+		synchronized (this) {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			element = getForwardBuffer().remove(0);
 			setPreviousImageElement(element);
-			return element.getImage();
-		} else {
-			throw new NoSuchElementException();
+			prefetched = getPrefetchedImages().get(element);
+			if (prefetched != null && !isWithinPrefetchWindow(element)) {
+				getPrefetchedImages().remove(element); // release once shown
+			}
+			feedForwardBuffer();
+			prefetchAhead();
+		}
+		Image image = null;
+		if (prefetched != null) {
+			try {
+				image = prefetched.getImage(); // awaits loading, not holding the lock
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null; // aborts rather than loading the image here
+			}
 		}
+		if (image == null) {
+			image = element.getImage();
+		}
+		return image;
 	}
 
 	private void feedForwardBuffer() {
 		List<ImageElement> forwardBuffer = getForwardBuffer();
-		while (forwardBuffer.isEmpty() && getUniqueImageCount() > 0) {
+		int minimumSize = Math.max(getPrefetchImageCount(), 1); // to prefetch across sequences
+		while (forwardBuffer.size() < minimumSize && getUniqueImageCount() > 0) {
 			if (getImageSequencer().isRepeating() || !isSequenced()) {
-				forwardBuffer.addAll(nextSequence()); // contains at least one element
-				if (isAvoidSuccessiveRepeats() && forwardBuffer.get(0).equals(getPreviousImageElement())
-						&& getUniqueImageCount() > 1) {
-					ImageElement first = forwardBuffer.remove(0);
-					if (!forwardBuffer.isEmpty()) {
-						int i = 1 + (int) Math.floor(Math.random() * forwardBuffer.size());
-						forwardBuffer.add(i, first);
+				List<ImageElement> sequence = new Vector<ImageElement>(nextSequence()); // at least one element
+				ImageElement previous = forwardBuffer.isEmpty() ? getPreviousImageElement()
+						: forwardBuffer.get(forwardBuffer.size() - 1);
+				if (isAvoidSuccessiveRepeats() && sequence.get(0).equals(previous) && getUniqueImageCount() > 1) {
+					ImageElement first = sequence.remove(0);
+					if (!sequence.isEmpty()) {
+						int i = 1 + (int) Math.floor(Math.random() * sequence.size());
+						sequence.add(i, first);
 					}
 				}
+				forwardBuffer.addAll(sequence);
 			} else {
 				break;
 			}
 		}
 	}
 
+	private void prefetchAhead() {
+		int n = Math.min(getPrefetchImageCount(), getForwardBuffer().size());
+		for (int i = 0; i < n; i++) {
+			ImageElement element = getForwardBuffer().get(i);
+			if (!(element instanceof ImageWrapper) && !getPrefetchedImages().containsKey(element)) {
+				if (getPrefetchedSizeInBytes() >= getPrefetchMaximumSizeInBytes())
+					break;
+				PrefetchedImage prefetched = new PrefetchedImage(element, getMinimumCoverSize(),
+						estimatePrefetchSizeInBytes());
+				getPrefetchedImages().put(element, prefetched);
+				getPrefetchExecutor().execute(prefetched.getTask());
+			}
+		}
+	}
+
+	private boolean isWithinPrefetchWindow(ImageElement element) {
+		int n = Math.min(getPrefetchImageCount(), getForwardBuffer().size());
+		for (int i = 0; i < n; i++) {
+			if (getForwardBuffer().get(i).equals(element))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Estimates the size of an image yet to be prefetched, so that prefetches in flight count against the maximum size
+	 * in bytes. Images are downscaled to no less than the minimum cover size, otherwise the largest image prefetched so
+	 * far is taken
+	 */
+	private long estimatePrefetchSizeInBytes() {
+		long size = 0L;
+		Dimension coverSize = getMinimumCoverSize();
+		if (coverSize != null) {
+			size = 4L * coverSize.width * coverSize.height;
+		} else {
+			for (PrefetchedImage prefetched : getPrefetchedImages().values()) {
+				if (prefetched.isDone()) {
+					size = Math.max(size, prefetched.getSizeInBytes());
+				}
+			}
+		}
+		return size;
+	}
+
+	private long getPrefetchedSizeInBytes() {
+		long size = 0L;
+		for (PrefetchedImage prefetched : getPrefetchedImages().values()) {
+			size += prefetched.getSizeInBytes();
+		}
+		return size;
+	}
+
+	/**
+	 * Converts an image to one compatible with the screen, downscaled to just cover a given size
+	 *
+	 * @param image
+	 *            The image to convert
+	 * @param minimumCoverSize
+	 *            The size to cover, or <code>null</code> to keep the size of <code>image</code>
+	 * @return The converted image
+	 */
+	private static Image prepareImage(Image image, Dimension minimumCoverSize) {
+		int w = image.getWidth(null);
+		int h = image.getHeight(null);
+		if (w <= 0 || h <= 0)
+			return image; // not loaded
+		double scale = 1.0;
+		if (minimumCoverSize != null) {
+			scale = Math.min(Math.max(minimumCoverSize.getWidth() / w, minimumCoverSize.getHeight() / h), 1.0);
+		}
+		int tw = Math.max((int) Math.ceil(w * scale), 1);
+		int th = Math.max((int) Math.ceil(h * scale), 1);
+		int transparency = image instanceof BufferedImage ? ((BufferedImage) image).getTransparency()
+				: Transparency.TRANSLUCENT;
+		Image source = image;
+		while (w / 2 >= tw && h / 2 >= th) {
+			// halving steps, as a single bicubic step skips source pixels when scaling down further
+			w /= 2;
+			h /= 2;
+			source = drawScaled(source, createCompatibleImage(w, h, transparency),
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+		}
+		return drawScaled(source, createCompatibleImage(tw, th, transparency),
+				RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+	}
+
+	private static BufferedImage drawScaled(Image source, BufferedImage target, Object interpolation) {
+		Graphics2D g = target.createGraphics();
+		g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+		g.drawImage(source, 0, 0, target.getWidth(), target.getHeight(), null);
+		g.dispose();
+		return target;
+	}
+
+	private static BufferedImage createCompatibleImage(int width, int height, int transparency) {
+		if (GraphicsEnvironment.isHeadless()) {
+			int type = transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+			return new BufferedImage(width, height, type);
+		} else {
+			return SwingUtils.getDefaultGraphicsConfiguration().createCompatibleImage(width, height, transparency);
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getPrefetchExecutor() {
+		if (prefetchExecutor == null) {
+			prefetchExecutor = DaemonThreadFactory.createExecutor(maximumPrefetchThreads,
+					new DaemonThreadFactory("Sliding Image Prefetcher ", Thread.NORM_PRIORITY - 1));
+		}
+		return prefetchExecutor;
+	}
+
 	private List<ImageElement> nextSequence() {
 		setSequenced(true);
 		return getImageSequencer().nextSequence(getImageElements());
@@ -128,6 +317,44 @@ public class SlidingImageCollectionIterator implements SlidingImageIterator {
 		this.avoidSuccessiveRepeats = avoid;
 	}
 
+	public synchronized int getPrefetchImageCount() {
+		return prefetchImageCount;
+	}
+
+	/**
+	 * Sets the number of upcoming lazily loaded images to prefetch, or 0 to load every image when iterated over
+	 */
+	public synchronized void setPrefetchImageCount(int count) {
+		this.prefetchImageCount = Math.max(count, 0);
+	}
+
+	public synchronized long getPrefetchMaximumSizeInBytes() {
+		return prefetchMaximumSizeInBytes;
+	}
+
+	public synchronized void setPrefetchMaximumSizeInBytes(long size) {
+		this.prefetchMaximumSizeInBytes = size;
+	}
+
+	public synchronized Dimension getMinimumCoverSize() {
+		return minimumCoverSize;
+	}
+
+	/**
+	 * Sets the size that prefetched images should cover, typically the viewport size at the maximum zoom factor.
+	 * Larger images are downscaled to the smallest size still covering it
+	 *
+	 * @param size
+	 *            The size to cover, or <code>null</code> to keep prefetched images at their original size
+	 */
+	public synchronized void setMinimumCoverSize(Dimension size) {
+		this.minimumCoverSize = size;
+	}
+
+	private Map<ImageElement, PrefetchedImage> getPrefetchedImages() {
+		return prefetchedImages;
+	}
+
 	private ImageElement getPreviousImageElement() {
 		return previousImageElement;
 	}
@@ -157,6 +384,59 @@ public class SlidingImageCollectionIterator implements SlidingImageIterator {
 
 	}
 
+	private static class PrefetchedImage implements Callable<Image> {
+
+		private ImageElement element;
+
+		private Dimension minimumCoverSize; // nullable
+
+		private FutureTask<Image> task;
+
+		private volatile long sizeInBytes; // estimated until prefetched
+
+		public PrefetchedImage(ImageElement element, Dimension minimumCoverSize, long estimatedSizeInBytes) {
+			this.element = element;
+			this.minimumCoverSize = minimumCoverSize;
+			this.task = new FutureTask<Image>(this);
+			this.sizeInBytes = estimatedSizeInBytes;
+		}
+
+		@Override
+		public Image call() throws Exception {
+			Image image = prepareImage(element.getImage(), minimumCoverSize);
+			sizeInBytes = 4L * Math.max(image.getWidth(null), 0) * Math.max(image.getHeight(null), 0);
+			return image;
+		}
+
+		/**
+		 * Returns the prefetched image, awaiting it when still loading
+		 *
+		 * @return The image, or <code>null</code> when it failed to load
+		 * @throws InterruptedException
+		 *             When interrupted while awaiting the image
+		 */
+		public Image getImage() throws InterruptedException {
+			try {
+				return getTask().get();
+			} catch (ExecutionException | CancellationException e) {
+				return null;
+			}
+		}
+
+		public FutureTask<Image> getTask() {
+			return task;
+		}
+
+		public boolean isDone() {
+			return getTask().isDone();
+		}
+
+		public long getSizeInBytes() {
+			return sizeInBytes;
+		}
+
+	}
+
 	private abstract static class ImageSequencer {
 
 		private boolean repeating;
@@ -8,6 +8,11 @@ public interface SlidingImageShow {
 
 	void stopAnimating();
 
+	/**
+	 * Stops animating and releases the resources held by this show, which can then no longer be started
+	 */
+	void dispose();
+
 	JComponent getUI();
 
 }
\ No newline at end of file
@@ -5,27 +5,45 @@ import java.awt.Color;
 import java.awt.Composite;
 import java.awt.Dimension;
 import java.awt.Image;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.swing.JComponent;
 import javax.swing.border.Border;
 
 import org.maia.graphics2d.image.GradientImageFactory;
 import org.maia.graphics2d.image.ImageUtils;
+import org.maia.swing.animate.DaemonThreadFactory;
 import org.maia.swing.animate.imageslide.SlidingImageAdapter;
 import org.maia.swing.animate.imageslide.SlidingImageComponent;
+import org.maia.swing.animate.imageslide.SlidingImageTransition;
+import org.maia.swing.animate.imageslide.path.LuminanceRaster;
 import org.maia.swing.animate.imageslide.path.PathAngleEvaluator;
 import org.maia.swing.animate.imageslide.path.PathDistanceEvaluator;
 import org.maia.swing.animate.imageslide.path.PathEntropyEvaluator;
 import org.maia.swing.animate.imageslide.path.PathInsidenessEvaluator;
 import org.maia.swing.animate.imageslide.path.RandomPathGenerator;
 import org.maia.swing.animate.imageslide.path.SlidingImagePath;
+import org.maia.swing.animate.imageslide.path.SlidingImagePathCache;
 import org.maia.swing.animate.imageslide.path.SlidingImagePathEvaluator;
 import org.maia.swing.animate.imageslide.path.SlidingImagePathEvaluatorBuilder;
 import org.maia.swing.animate.imageslide.path.SlidingImagePathGenerator;
 import org.maia.swing.animate.imageslide.path.SlidingImagePathGeneratorBuilder;
 import org.maia.swing.animate.imageslide.path.WeightedScorePathEvaluator;
 import org.maia.swing.animate.overlay.ColorOverlayComponent;
-import org.maia.util.SystemUtils;
 
 public class SlidingImageShowBuilder implements Cloneable {
 
@@ -47,6 +65,8 @@ public class SlidingImageShowBuilder implements Cloneable {
 
 	private SlidingImagePathEvaluatorBuilder pathEvaluatorBuilder;
 
+	private SlidingImagePathCache pathCache; // nullable
+
 	private double maxToMinZoomFactorRatio;
 
 	private int imageSlidingVelocity; // in pixels per second
@@ -61,6 +81,10 @@ public class SlidingImageShowBuilder implements Cloneable {
 
 	private long timeMillisBetweenImages;
 
+	private SlidingImageTransition imageTransition;
+
+	private long imageTransitionDurationMillis;
+
 	private int refreshRate;
 
 	private int pathGenerationAttemptsPerImage;
@@ -69,8 +93,46 @@ public class SlidingImageShowBuilder implements Cloneable {
 
 	private boolean repaintClientDriven;
 
+	private boolean parallelPathEvaluationEnabled;
+
 	private static boolean logPaths = false;
 
+	private static ThreadPoolExecutor pathEvaluationExecutor;
+
+	private static ScheduledExecutorService showScheduler;
+
+	private static ExecutorService imageSearchExecutor;
+
+	/**
+	 * The number of threads, shared by all sliding image shows, to time their image changes
+	 *
+	 * @see #setShowScheduler(ScheduledExecutorService)
+	 */
+	public static int showSchedulerThreads = 1;
+
+	/**
+	 * The number of threads, shared by all sliding image shows, to search their next images when the runtime does not
+	 * support virtual threads. Otherwise every search runs on a virtual thread of its own
+	 *
+	 * @see #setImageSearchExecutor(ExecutorService)
+	 */
+	public static int imageSearchThreads = 4;
+
+	/**
+	 * The maximum number of threads, shared by all sliding image shows, to evaluate candidate paths in parallel
+	 */
+	public static int maximumPathEvaluationThreads = Math.max(Runtime.getRuntime().availableProcessors() - 1, 1);
+
+	/**
+	 * The probability that an image with cached paths gets a fresh batch of candidate paths generated and scored, so
+	 * that the cached paths keep improving over time
+	 *
+	 * @see #withPathCache(SlidingImagePathCache)
+	 */
+	public static double cachedPathRefreshProbability = 0.2;
+
+	private static final int PATH_CANDIDATES_PER_ATTEMPT = 10;
+
 	public SlidingImageShowBuilder() {
 		this(new Dimension(600, 600));
 	}
@@ -94,10 +156,13 @@ public class SlidingImageShowBuilder implements Cloneable {
 		withImageFadeInDurationMillis(4000L);
 		withImageFadeOutDurationMillis(4000L);
 		withTimeMillisBetweenImages(1000L);
+		withImageTransition(SlidingImageTransition.NONE);
+		withImageTransitionDurationMillis(3000L);
 		withRefreshRate(25);
 		withPathGenerationAttemptsPerImage(3);
 		withHigherQualityRenderingEnabled(true);
 		withRepaintClientDriven(false);
+		withParallelPathEvaluationEnabled(true);
 	}
 
 	@Override
@@ -112,6 +177,7 @@ public class SlidingImageShowBuilder implements Cloneable {
 		clone.withImageOverlayComposite(getImageOverlayComposite());
 		clone.withPathGeneratorBuilder(getPathGeneratorBuilder());
 		clone.withPathEvaluatorBuilder(getPathEvaluatorBuilder());
+		clone.withPathCache(getPathCache());
 		clone.withMaxToMinZoomFactorRatio(getMaxToMinZoomFactorRatio());
 		clone.withImageSlidingVelocity(getImageSlidingVelocity());
 		clone.withMinimumImageDisplayTimeMillis(getMinimumImageDisplayTimeMillis());
@@ -119,10 +185,13 @@ public class SlidingImageShowBuilder implements Cloneable {
 		clone.withImageFadeInDurationMillis(getImageFadeInDurationMillis());
 		clone.withImageFadeOutDurationMillis(getImageFadeOutDurationMillis());
 		clone.withTimeMillisBetweenImages(getTimeMillisBetweenImages());
+		clone.withImageTransition(getImageTransition());
+		clone.withImageTransitionDurationMillis(getImageTransitionDurationMillis());
 		clone.withRefreshRate(getRefreshRate());
 		clone.withPathGenerationAttemptsPerImage(getPathGenerationAttemptsPerImage());
 		clone.withHigherQualityRenderingEnabled(isHigherQualityRenderingEnabled());
 		clone.withRepaintClientDriven(isRepaintClientDriven());
+		clone.withParallelPathEvaluationEnabled(isParallelPathEvaluationEnabled());
 		return clone;
 	}
 
@@ -131,9 +200,23 @@ public class SlidingImageShowBuilder implements Cloneable {
 	}
 
 	private SlidingImageShow buildImpl() {
+		configureImagePrefetching();
 		return new SlidingImageShowImpl(createSlidingImageComponent());
 	}
 
+	private void configureImagePrefetching() {
+		if (getImageIterator() instanceof SlidingImageCollectionIterator
+				&& getPathGeneratorBuilder() instanceof PathGeneratorBuilderImpl) {
+			SlidingImageCollectionIterator iterator = (SlidingImageCollectionIterator) getImageIterator();
+			if (iterator.getMinimumCoverSize() == null) {
+				// Prefetched images need no more pixels than shown at the maximum zoom factor
+				double r = getMaxToMinZoomFactorRatio() * RandomPathGenerator.DEFAULT_MINIMUM_ZOOM_MARGIN;
+				iterator.setMinimumCoverSize(new Dimension((int) Math.ceil(getSize().width * r),
+						(int) Math.ceil(getSize().height * r)));
+			}
+		}
+	}
+
 	private SlidingImageComponent createSlidingImageComponent() {
 		SlidingImageComponent comp = new SlidingImageComponent(getSize(), getBackgroundColor());
 		comp.setBorder(getBorder());
@@ -142,6 +225,8 @@ public class SlidingImageShowBuilder implements Cloneable {
 		comp.setImageOverlayComposite(getImageOverlayComposite());
 		comp.setHigherQualityRenderingEnabled(isHigherQualityRenderingEnabled());
 		comp.setRepaintClientDriven(isRepaintClientDriven());
+		comp.setTransition(getImageTransition());
+		comp.setTransitionDurationMillis(getImageTransitionDurationMillis());
 		return comp;
 	}
 
@@ -206,6 +291,18 @@ public class SlidingImageShowBuilder implements Cloneable {
 		return this;
 	}
 
+	/**
+	 * Sets a cache of the best scoring paths per image. Images with cached paths are mostly animated over one of those,
+	 * picked by score, without searching any new paths. When persisted, this also holds across restarts
+	 *
+	 * @param pathCache
+	 *            The path cache, or <code>null</code> to search new paths every time an image is shown
+	 */
+	public SlidingImageShowBuilder withPathCache(SlidingImagePathCache pathCache) {
+		this.pathCache = pathCache;
+		return this;
+	}
+
 	public SlidingImageShowBuilder withMaxToMinZoomFactorRatio(double ratio) {
 		if (ratio < 1.0)
 			throw new IllegalArgumentException("Ratio must be >= 1 (" + ratio + ")");
@@ -249,6 +346,25 @@ public class SlidingImageShowBuilder implements Cloneable {
 		return this;
 	}
 
+	/**
+	 * Sets the transition between images. For any transition other than {@link SlidingImageTransition#NONE}, the next
+	 * image comes in while the previous image is still moving, so that the fade-out duration and the time between
+	 * images no longer apply
+	 *
+	 * @see #withImageTransitionDurationMillis(long)
+	 */
+	public SlidingImageShowBuilder withImageTransition(SlidingImageTransition transition) {
+		if (transition == null)
+			throw new NullPointerException("transition is null");
+		this.imageTransition = transition;
+		return this;
+	}
+
+	public SlidingImageShowBuilder withImageTransitionDurationMillis(long durationMillis) {
+		this.imageTransitionDurationMillis = durationMillis;
+		return this;
+	}
+
 	public SlidingImageShowBuilder withRefreshRate(int refreshRate) {
 		this.refreshRate = refreshRate;
 		return this;
@@ -271,6 +387,15 @@ public class SlidingImageShowBuilder implements Cloneable {
 		return this;
 	}
 
+	/**
+	 * Sets whether the candidate paths for an image are evaluated in parallel. Disable this when the path evaluators
+	 * are not thread-safe
+	 */
+	public SlidingImageShowBuilder withParallelPathEvaluationEnabled(boolean enabled) {
+		this.parallelPathEvaluationEnabled = enabled;
+		return this;
+	}
+
 	public Dimension getSize() {
 		return size;
 	}
@@ -307,6 +432,10 @@ public class SlidingImageShowBuilder implements Cloneable {
 		return pathEvaluatorBuilder;
 	}
 
+	public SlidingImagePathCache getPathCache() {
+		return pathCache;
+	}
+
 	public double getMaxToMinZoomFactorRatio() {
 		return maxToMinZoomFactorRatio;
 	}
@@ -335,6 +464,18 @@ public class SlidingImageShowBuilder implements Cloneable {
 		return timeMillisBetweenImages;
 	}
 
+	public SlidingImageTransition getImageTransition() {
+		return imageTransition;
+	}
+
+	public long getImageTransitionDurationMillis() {
+		return imageTransitionDurationMillis;
+	}
+
+	private boolean isImageTransitionOverlapping() {
+		return !SlidingImageTransition.NONE.equals(getImageTransition()) && getImageTransitionDurationMillis() > 0L;
+	}
+
 	public int getRefreshRate() {
 		return refreshRate;
 	}
@@ -351,6 +492,78 @@ public class SlidingImageShowBuilder implements Cloneable {
 		return repaintClientDriven;
 	}
 
+	public boolean isParallelPathEvaluationEnabled() {
+		return parallelPathEvaluationEnabled;
+	}
+
+	/**
+	 * Sets the executor shared by all sliding image shows to time their image changes
+	 *
+	 * @param scheduler
+	 *            The executor, or <code>null</code> to have a default executor created when needed. Tasks on this
+	 *            executor are short and do not block
+	 * @see #showSchedulerThreads
+	 */
+	public static synchronized void setShowScheduler(ScheduledExecutorService scheduler) {
+		showScheduler = scheduler;
+	}
+
+	/**
+	 * Sets the executor shared by all sliding image shows to search their next images
+	 *
+	 * @param executor
+	 *            The executor, or <code>null</code> to have a default executor created when needed. Tasks on this
+	 *            executor block while images are loaded and paths are searched
+	 * @see #imageSearchThreads
+	 */
+	public static synchronized void setImageSearchExecutor(ExecutorService executor) {
+		imageSearchExecutor = executor;
+	}
+
+	private static synchronized ScheduledExecutorService getShowScheduler() {
+		if (showScheduler == null) {
+			ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(Math.max(showSchedulerThreads, 1),
+					new DaemonThreadFactory("Sliding Image Show Scheduler "));
+			executor.setKeepAliveTime(30L, TimeUnit.SECONDS);
+			executor.allowCoreThreadTimeOut(true);
+			executor.setRemoveOnCancelPolicy(true);
+			showScheduler = executor;
+		}
+		return showScheduler;
+	}
+
+	private static synchronized ExecutorService getImageSearchExecutor() {
+		if (imageSearchExecutor == null) {
+			imageSearchExecutor = createVirtualThreadPerTaskExecutor("Sliding Image Search ");
+			if (imageSearchExecutor == null) {
+				imageSearchExecutor = DaemonThreadFactory.createExecutor(imageSearchThreads, "Sliding Image Search ");
+			}
+		}
+		return imageSearchExecutor;
+	}
+
+	private static ExecutorService createVirtualThreadPerTaskExecutor(String threadNamePrefix) {
+		// By reflection, as virtual threads are only available as of Java 21
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 1L);
+			ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+			return (ExecutorService) Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, factory);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	private static synchronized ThreadPoolExecutor getPathEvaluationExecutor() {
+		if (pathEvaluationExecutor == null) {
+			pathEvaluationExecutor = DaemonThreadFactory.createExecutor(maximumPathEvaluationThreads,
+					"Sliding Image Path Evaluator ");
+		}
+		return pathEvaluationExecutor;
+	}
+
 	private class PathGeneratorBuilderImpl implements SlidingImagePathGeneratorBuilder {
 
 		public PathGeneratorBuilderImpl() {
@@ -376,10 +589,24 @@ public class SlidingImageShowBuilder implements Cloneable {
 			evaluator.addEvaluator(new PathInsidenessEvaluator(), 0);
 			evaluator.addEvaluator(new PathDistanceEvaluator(image, viewportSize), 0.3);
 			evaluator.addEvaluator(new PathAngleEvaluator(), 0.2);
-			evaluator.addEvaluator(new PathEntropyEvaluator(image, viewportSize), 0.5);
+			evaluator.addEvaluator(buildEntropyEvaluator(image, viewportSize), 0.5);
 			return evaluator;
 		}
 
+		private PathEntropyEvaluator buildEntropyEvaluator(Image image, Dimension viewportSize) {
+			SlidingImagePathCache cache = getPathCache();
+			if (cache != null) {
+				LuminanceRaster luminance = cache.getLuminance(image, viewportSize);
+				PathEntropyEvaluator evaluator = new PathEntropyEvaluator(image, viewportSize, luminance);
+				if (luminance == null) {
+					cache.putLuminance(image, viewportSize, evaluator.getLuminance());
+				}
+				return evaluator;
+			} else {
+				return new PathEntropyEvaluator(image, viewportSize);
+			}
+		}
+
 	}
 
 	private class SlidingImageShowImpl extends SlidingImageAdapter implements SlidingImageShow {
@@ -390,6 +617,14 @@ public class SlidingImageShowBuilder implements Cloneable {
 
 		private boolean stopped;
 
+		private boolean disposed;
+
+		private int runCount; // incremented every time animating stops
+
+		private Future<?> nextImageTask; // nullable
+
+		private Future<PathedImage> nextPathedImage; // precomputed while the current image animates
+
 		public SlidingImageShowImpl(SlidingImageComponent component) {
 			this.component = component;
 			component.addListener(this);
@@ -397,7 +632,9 @@ public class SlidingImageShowBuilder implements Cloneable {
 
 		@Override
 		public synchronized void startAnimating() {
-			if (!isStarted()) {
+			if (isDisposed()) {
+				// no longer possible
+			} else if (!isStarted()) {
 				setStarted(true);
 				animateNextImage();
 			} else if (isStopped()) {
@@ -410,48 +647,181 @@ public class SlidingImageShowBuilder implements Cloneable {
 		public synchronized void stopAnimating() {
 			if (isStarted() && !isStopped()) {
 				setStopped(true);
+				runCount++;
+				if (getNextImageTask() != null) {
+					getNextImageTask().cancel(false);
+					setNextImageTask(null);
+				}
 				getComponent().stopAnimating();
 			}
 		}
 
+		@Override
+		public synchronized void dispose() {
+			if (!isDisposed()) {
+				stopAnimating();
+				setDisposed(true);
+				if (getNextPathedImage() != null) {
+					getNextPathedImage().cancel(true);
+					setNextPathedImage(null);
+				}
+				getComponent().removeListener(this);
+				getComponent().resetImage();
+				if (getPathCache() != null) {
+					getPathCache().flush();
+				}
+			}
+		}
+
 		private void animateNextImage() {
 			animateNextImage(0L);
 		}
 
-		private void animateNextImage(long minimumDelayTimeMillis) {
-			if (getImageIterator() != null && getImageIterator().hasNext()) {
-				new Thread(new Runnable() {
+		private synchronized void animateNextImage(long minimumDelayTimeMillis) {
+			if (hasNextPathedImage() || (getImageIterator() != null && getImageIterator().hasNext())) {
+				final int run = getRunCount();
+				final long earliestTimeMillis = System.currentTimeMillis() + minimumDelayTimeMillis;
+				setNextImageTask(getImageSearchExecutor().submit(new Runnable() {
 
 					@Override
 					public void run() {
-						long t0 = System.currentTimeMillis();
-						int maxAttemptsPerImage = getPathGenerationAttemptsPerImage();
-						int maxAttempts = maxAttemptsPerImage * getImageIterator().getUniqueImageCount();
-						int attempts = 0;
-						Image image = null;
-						SlidingImagePath path = null;
-						do {
-							if (attempts++ % maxAttemptsPerImage == 0) {
-								image = getNextImage();
-								if (image == null)
-									break;
-							}
-							path = generatePath(image);
-						} while (path == null && attempts < maxAttempts);
-						if (path != null) {
-							SystemUtils.sleep(minimumDelayTimeMillis - (System.currentTimeMillis() - t0));
-							animateImageOverPath(image, path);
-						}
+						prepareNextImage(run, earliestTimeMillis);
+					}
+				}));
+			}
+		}
+
+		private void prepareNextImage(int run, long earliestTimeMillis) {
+			PathedImage pathedImage = takeNextPathedImage();
+			if (pathedImage == null) {
+				pathedImage = searchPathedImage();
+			}
+			if (pathedImage != null) {
+				scheduleNextImage(run, pathedImage, earliestTimeMillis - System.currentTimeMillis());
+			}
+		}
+
+		private synchronized void scheduleNextImage(final int run, final PathedImage pathedImage, long delayMillis) {
+			if (isCurrentRun(run)) {
+				setNextImageTask(getShowScheduler().schedule(new Runnable() {
+
+					@Override
+					public void run() {
+						showNextImage(run, pathedImage);
+					}
+				}, Math.max(delayMillis, 0L), TimeUnit.MILLISECONDS));
+			} else {
+				retainPathedImage(pathedImage);
+			}
+		}
+
+		private void showNextImage(int run, PathedImage pathedImage) {
+			synchronized (this) {
+				if (!isCurrentRun(run)) {
+					retainPathedImage(pathedImage);
+					return;
+				}
+				setNextImageTask(null);
+			}
+			SlidingImagePath path = pathedImage.getPath();
+			animateImageOverPath(pathedImage.getImage(), path);
+			synchronized (this) {
+				if (!isCurrentRun(run)) {
+					if (isStopped() || isDisposed()) {
+						getComponent().stopAnimating(); // stopped while the image was changing
 					}
-				}).start();
+					return;
+				}
+			}
+			if (isImageTransitionOverlapping()) {
+				// the next image takes over before this one comes to a stop
+				animateNextImage(Math.max(getImageDisplayTimeMillis(path) - getImageTransitionDurationMillis(), 0L));
+			} else {
+				precomputeNextPathedImage();
+			}
+		}
+
+		private synchronized void retainPathedImage(PathedImage pathedImage) {
+			// for when animating starts again
+			if (!isDisposed() && !hasNextPathedImage()) {
+				setNextPathedImage(CompletableFuture.completedFuture(pathedImage));
+			}
+		}
+
+		private synchronized void precomputeNextPathedImage() {
+			if (!isDisposed() && getImageIterator() != null && getImageIterator().hasNext()) {
+				FutureTask<PathedImage> task = new FutureTask<PathedImage>(new Callable<PathedImage>() {
+
+					@Override
+					public PathedImage call() throws Exception {
+						return searchPathedImage();
+					}
+				});
+				setNextPathedImage(task);
+				getImageSearchExecutor().execute(task);
+			}
+		}
+
+		private boolean isCurrentRun(int run) {
+			return run == getRunCount() && !isStopped() && !isDisposed();
+		}
+
+		private PathedImage takeNextPathedImage() {
+			Future<PathedImage> future = null;
+			synchronized (this) {
+				future = getNextPathedImage();
+				setNextPathedImage(null);
+			}
+			PathedImage pathedImage = null;
+			if (future != null) {
+				if (future instanceof FutureTask) {
+					// runs here when still queued, so that a busy executor never waits on itself
+					((FutureTask<PathedImage>) future).run();
+				}
+				try {
+					pathedImage = future.get();
+				} catch (InterruptedException | ExecutionException | CancellationException e) {
+				}
 			}
+			return pathedImage;
+		}
+
+		private PathedImage searchPathedImage() {
+			int maxAttemptsPerImage = getPathGenerationAttemptsPerImage();
+			int maxAttempts = maxAttemptsPerImage * getImageIterator().getUniqueImageCount();
+			int attempts = 0;
+			Image image = null;
+			SlidingImagePath path = null;
+			SlidingImagePath cachedPath = null;
+			SlidingImagePathGenerator generator = null;
+			SlidingImagePathEvaluator evaluator = null;
+			do {
+				if (attempts++ % maxAttemptsPerImage == 0) {
+					image = getNextImage();
+					if (image == null)
+						break;
+					cachedPath = getCachedPath(image);
+					if (cachedPath != null && Math.random() >= cachedPathRefreshProbability) {
+						path = cachedPath;
+						break;
+					}
+					// reused for all attempts on the same image
+					generator = getPathGeneratorBuilder().buildGenerator(image, getSize());
+					evaluator = getPathEvaluatorBuilder().buildEvaluator(image, getSize());
+				}
+				path = generatePath(image, generator, evaluator);
+				if (path == null) {
+					path = cachedPath; // fresh batch without a good path
+				}
+			} while (path == null && attempts < maxAttempts);
+			return path != null ? new PathedImage(image, path) : null;
 		}
 
 		private void animateImageOverPath(Image image, SlidingImagePath path) {
-			getComponent().setImageAlwaysCoveringUI(path.isInsideImage());
 			getComponent().setFadeInDurationMillis(getImageFadeInDurationMillis());
-			getComponent().setFadeOutDurationMillis(getImageFadeOutDurationMillis());
-			getComponent().changeImage(image);
+			getComponent().setFadeOutDurationMillis(isImageTransitionOverlapping() ? 0L : getImageFadeOutDurationMillis());
+			getComponent().changeImage(image, path.getStartState());
+			getComponent().setImageAlwaysCoveringUI(path.isInsideImage()); // after the previous image has gone out
 			getComponent().animatePath(path, getImageDisplayTimeMillis(path));
 		}
 
@@ -463,32 +833,76 @@ public class SlidingImageShowBuilder implements Cloneable {
 			return image;
 		}
 
-		private SlidingImagePath generatePath(Image image) {
+		private SlidingImagePath getCachedPath(Image image) {
+			SlidingImagePath path = null;
+			if (getPathCache() != null) {
+				path = getPathCache().pickPath(image, getSize());
+				if (path != null && logPaths) {
+					System.out.println(path + " from cache");
+				}
+			}
+			return path;
+		}
+
+		private SlidingImagePath generatePath(Image image, SlidingImagePathGenerator generator,
+				SlidingImagePathEvaluator evaluator) {
+			List<SlidingImagePath> paths = new Vector<SlidingImagePath>(PATH_CANDIDATES_PER_ATTEMPT);
+			for (int i = 0; i < PATH_CANDIDATES_PER_ATTEMPT; i++) {
+				paths.add(generator.generatePath());
+			}
+			double[] scores = evaluatePaths(paths, evaluator);
+			if (getPathCache() != null) {
+				getPathCache().addPaths(image, getSize(), paths, scores);
+			}
 			SlidingImagePath bestPath = null;
-			if (image != null) {
-				SlidingImagePathGenerator generator = getPathGeneratorBuilder().buildGenerator(image, getSize());
-				SlidingImagePathEvaluator evaluator = getPathEvaluatorBuilder().buildEvaluator(image, getSize());
-				double bestScore = 0;
-				for (int i = 0; i < 10; i++) {
-					SlidingImagePath path = generator.generatePath();
-					double score = evaluator.evaluatePath(path);
-					if (score > bestScore && (bestPath == null || Math.random() <= 0.8)) {
-						bestPath = path;
-						bestScore = score;
-					}
+			double bestScore = 0;
+			for (int i = 0; i < paths.size(); i++) {
+				SlidingImagePath path = paths.get(i);
+				double score = scores[i];
+				if (score > bestScore && (bestPath == null || Math.random() <= 0.8)) {
+					bestPath = path;
+					bestScore = score;
 				}
-				if (logPaths) {
-					if (bestPath != null) {
-						System.out.println(bestPath + " score:" + Math.round(bestScore * 1000.0) / 1000.0 + " distance:"
-								+ Math.round(bestPath.getDistanceInViewCoordinates()));
-					} else {
-						System.out.println("No good path found");
-					}
+			}
+			if (logPaths) {
+				if (bestPath != null) {
+					System.out.println(bestPath + " score:" + Math.round(bestScore * 1000.0) / 1000.0 + " distance:"
+							+ Math.round(bestPath.getDistanceInViewCoordinates()));
+				} else {
+					System.out.println("No good path found");
 				}
 			}
 			return bestPath;
 		}
 
+		private double[] evaluatePaths(List<SlidingImagePath> paths, final SlidingImagePathEvaluator evaluator) {
+			double[] scores = new double[paths.size()];
+			if (isParallelPathEvaluationEnabled()) {
+				List<Future<Double>> futures = new Vector<Future<Double>>(paths.size());
+				for (final SlidingImagePath path : paths) {
+					futures.add(getPathEvaluationExecutor().submit(new Callable<Double>() {
+
+						@Override
+						public Double call() throws Exception {
+							return evaluator.evaluatePath(path);
+						}
+					}));
+				}
+				for (int i = 0; i < futures.size(); i++) {
+					try {
+						scores[i] = futures.get(i).get();
+					} catch (InterruptedException | ExecutionException e) {
+						scores[i] = -1.0;
+					}
+				}
+			} else {
+				for (int i = 0; i < paths.size(); i++) {
+					scores[i] = evaluator.evaluatePath(paths.get(i));
+				}
+			}
+			return scores;
+		}
+
 		private long getImageDisplayTimeMillis(SlidingImagePath path) {
 			long time = Math.round(path.getDistanceInViewCoordinates() / getImageSlidingVelocity() * 1000);
 			return Math.max(Math.min(time, getMaximumImageDisplayTimeMillis()), getMinimumImageDisplayTimeMillis());
@@ -496,7 +910,7 @@ public class SlidingImageShowBuilder implements Cloneable {
 
 		@Override
 		public synchronized void notifyStopAnimating(SlidingImageComponent component) {
-			if (!isStopped()) {
+			if (!isStopped() && !isImageTransitionOverlapping()) {
 				animateNextImage(getTimeMillisBetweenImages());
 			}
 		}
@@ -526,6 +940,59 @@ public class SlidingImageShowBuilder implements Cloneable {
 			this.stopped = stopped;
 		}
 
+		private boolean isDisposed() {
+			return disposed;
+		}
+
+		private void setDisposed(boolean disposed) {
+			this.disposed = disposed;
+		}
+
+		private int getRunCount() {
+			return runCount;
+		}
+
+		private Future<?> getNextImageTask() {
+			return nextImageTask;
+		}
+
+		private void setNextImageTask(Future<?> task) {
+			this.nextImageTask = task;
+		}
+
+		private synchronized boolean hasNextPathedImage() {
+			return getNextPathedImage() != null;
+		}
+
+		private Future<PathedImage> getNextPathedImage() {
+			return nextPathedImage;
+		}
+
+		private synchronized void setNextPathedImage(Future<PathedImage> future) {
+			this.nextPathedImage = future;
+		}
+
+	}
+
+	private static class PathedImage {
+
+		private Image image;
+
+		private SlidingImagePath path;
+
+		public PathedImage(Image image, SlidingImagePath path) {
+			this.image = image;
+			this.path = path;
+		}
+
+		public Image getImage() {
+			return image;
+		}
+
+		public SlidingImagePath getPath() {
+			return path;
+		}
+
 	}
 
 }
\ No newline at end of file
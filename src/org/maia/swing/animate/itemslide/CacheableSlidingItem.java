@@ -0,0 +1,20 @@
+package org.maia.swing.animate.itemslide;
+
+/**
+ * Marks an item whose rendering can be cached as an image and reused for as long as its size and render version do
+ * not change.
+ * <p>
+ * Items that animate by themselves, or whose rendering depends on the component state, should not implement this
+ * interface and keep rendering live.
+ * </p>
+ *
+ * @see SlidingItemRenderCache
+ */
+public interface CacheableSlidingItem extends SlidingItem {
+
+	/**
+	 * Returns a stamp that the item increments whenever its rendering changes, short of a change in size
+	 */
+	long getRenderVersion();
+
+}
@@ -4,17 +4,23 @@ import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
+import java.awt.Image;
 import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
 import java.awt.image.VolatileImage;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Stack;
+import java.util.Vector;
 
 import org.maia.swing.SwingUtils;
 import org.maia.swing.animate.BaseAnimatedComponent;
+import org.maia.swing.animate.PartiallyRepaintableComponent;
 import org.maia.swing.animate.itemslide.impl.SlidingCursorFactory;
 import org.maia.swing.animate.itemslide.impl.SlidingDynamicsFactory;
 import org.maia.swing.animate.itemslide.impl.SlidingItemInList;
@@ -29,7 +35,8 @@ import org.maia.swing.layout.Orientation;
 import org.maia.swing.layout.VerticalAlignment;
 import org.maia.util.GenericListenerList;
 
-public class SlidingItemListComponent extends BaseAnimatedComponent implements KeyListener {
+public class SlidingItemListComponent extends BaseAnimatedComponent
+		implements PartiallyRepaintableComponent, KeyListener {
 
 	private Insets padding;
 
@@ -79,10 +86,26 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 
 	private long steadyLandingMaximumTimeDelayMillis = 500L;
 
+	private boolean partialRepaintEnabled = true;
+
+	private int itemLookAhead = defaultItemLookAhead;
+
+	private SlidingItemRenderCache itemRenderCache;
+
+	private boolean itemRenderCacheEnabled = defaultItemRenderCacheEnabled;
+
 	public static Color defaultCursorColor = Color.YELLOW;
 
 	public static Insets defaultPadding = new Insets(8, 8, 8, 8);
 
+	public static int defaultItemLookAhead = 8; // provided items retained beyond either end of the viewport
+
+	public static boolean defaultItemRenderCacheEnabled = true;
+
+	public static long defaultItemRenderCacheSizeInBytes = 32L * 1024L * 1024L;
+
+	private static final int PROVIDED_ITEMS_EVICTION_SLACK = 64;
+
 	public SlidingItemListComponent(Dimension size, Color background) {
 		this(size, background, SlidingCursorMovement.EAGER);
 	}
@@ -104,6 +127,7 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		this.state = new SlidingState();
 		this.targetState = this.state;
 		this.listeners = new GenericListenerList<SlidingItemListListener>();
+		this.itemRenderCache = new SlidingItemRenderCache(defaultItemRenderCacheSizeInBytes);
 		getUI().addKeyListener(this);
 	}
 
@@ -166,8 +190,30 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 	}
 
 	public void addItemsFrom(SlidingItemListComponent otherComp) {
+		List<SlidingItem> items = new Vector<SlidingItem>(otherComp.getItemCount());
 		for (int i = 0; i < otherComp.getItemCount(); i++) {
-			addItem(otherComp.getItem(i));
+			items.add(otherComp.getItem(i));
+		}
+		addItems(items);
+	}
+
+	/**
+	 * Adds all items at the end of the list, skipping those already in the list. The layout is invalidated and
+	 * listeners are notified only once, which makes this far more efficient than adding the items one by one
+	 */
+	public void addItems(Collection<? extends SlidingItem> items) {
+		SlidingItemList list = getItemList();
+		boolean changed = false;
+		for (SlidingItem item : items) {
+			SlidingItemInList itemInList = new SlidingItemInList(item, list);
+			if (!list.contains(itemInList)) {
+				list.addItem(itemInList);
+				changed = true;
+			}
+		}
+		if (changed) {
+			invalidateItemLayout();
+			fireItemsChanged();
 		}
 	}
 
@@ -176,7 +222,7 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		SlidingItemInList itemInList = new SlidingItemInList(item, list);
 		if (!list.contains(itemInList)) {
 			list.addItem(itemInList);
-			invalidateLayout();
+			invalidateItemLayout();
 			fireItemsChanged();
 		}
 	}
@@ -192,17 +238,19 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		SlidingItemInList itemInList = new SlidingItemInList(item, list);
 		if (!list.contains(itemInList)) {
 			list.insertItem(itemInList, index);
-			invalidateLayout();
+			invalidateItemLayout();
 			fireItemsChanged();
 		}
 	}
 
 	public void removeItem(SlidingItem item) {
 		SlidingItemList list = getItemList();
-		SlidingItemInList itemInList = new SlidingItemInList(item, list);
-		if (list.contains(itemInList)) {
+		int index = list.getIndexOf(item);
+		if (index >= 0) {
+			SlidingItemInList itemInList = list.getItem(index); // the instance in the list, which may not be item
 			list.removeItem(itemInList);
-			invalidateLayout();
+			getItemRenderCache().remove(itemInList.getItem());
+			invalidateItemLayout();
 			fireItemsChanged();
 		}
 	}
@@ -217,12 +265,96 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		SlidingItemList list = getItemList();
 		if (!list.isEmpty()) {
 			list.removeAllItems();
-			invalidateLayout();
+			getItemRenderCache().clear();
+			invalidateItemLayout();
+			fireItemsChanged();
+		}
+	}
+
+	/**
+	 * Switches to a virtual list whose items are created on demand by the given provider, or back to a regular list
+	 * when <code>provider</code> is <code>null</code>. Any items currently in the list are discarded
+	 * <p>
+	 * A provided list only creates the items that are showing in the viewport, plus a look-ahead window on either
+	 * side. While provided, items cannot be added, inserted or removed directly.
+	 * </p>
+	 * 
+	 * @see #setItemLookAhead(int)
+	 * @see #refreshProvidedItems()
+	 */
+	public void setItemProvider(SlidingItemProvider provider) {
+		getItemList().resetProvidedItems();
+		getItemRenderCache().clear();
+		setItemList(provider != null ? new SlidingItemList(provider) : new SlidingItemList());
+		invalidateItemLayout();
+		fireItemsChanged();
+	}
+
+	public SlidingItemProvider getItemProvider() {
+		return getItemList().getProvider();
+	}
+
+	/**
+	 * Discards all items created by the provider, to be invoked after the provider changed its items or item count
+	 */
+	public void refreshProvidedItems() {
+		if (getItemList().isProvided()) {
+			getItemList().resetProvidedItems();
+			getItemRenderCache().clear();
+			invalidateItemLayout();
 			fireItemsChanged();
 		}
 	}
 
+	/**
+	 * Measures all items again, to be invoked after items changed their size or margin
+	 */
+	public void refreshItemSizes() {
+		invalidateLayout();
+	}
+
+	private void evictProvidedItemsOutsideLookAhead() {
+		SlidingItemList list = getItemList();
+		if (list.isProvided() && hasItems()) {
+			int[] range = getItemRangeShowingInViewport();
+			int fromIndex = Math.max(range[0] - getItemLookAhead(), 0);
+			int toIndex = Math.min(range[1] + getItemLookAhead(), getItemCount() - 1);
+			if (list.getMaterializedItemCount() > toIndex - fromIndex + 1 + PROVIDED_ITEMS_EVICTION_SLACK) {
+				for (SlidingItem item : list.evictItemsOutside(fromIndex, toIndex)) {
+					getItemRenderCache().remove(item);
+				}
+			}
+			for (int i = fromIndex; i <= toIndex; i++) {
+				list.getItem(i); // create ahead
+			}
+		}
+	}
+
+	private int[] getItemRangeShowingInViewport() {
+		SlidingItemList list = getItemList();
+		double itra = getState().getItemTranslation();
+		double ccen = getLayoutManager().getCursorCenterPosition(getState());
+		int i = list.getIndexOfItemNearestTo(ccen - itra);
+		int fromIndex = i, toIndex = i;
+		while (fromIndex > 0 && isItemShowingInViewport(fromIndex - 1)) {
+			fromIndex--;
+		}
+		while (toIndex < getItemCount() - 1 && isItemShowingInViewport(toIndex + 1)) {
+			toIndex++;
+		}
+		return new int[] { fromIndex, toIndex };
+	}
+
 	protected void invalidateLayout() {
+		getItemList().invalidateItemExtents();
+		invalidateItemLayout();
+	}
+
+	/**
+	 * Invalidates the layout after items were added or removed. Unlike {@link #invalidateLayout()}, the sizes of the
+	 * other items are not measured again
+	 */
+	private void invalidateItemLayout() {
 		setMaxItemWidth(-1.0);
 		setMaxItemHeight(-1.0);
 		invalidateSelectedItemIndex();
@@ -615,6 +747,20 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		return isSliding();
 	}
 
+	@Override
+	public boolean isIdle() {
+		return isStationary() && getLandingTimeMillis() == Long.MAX_VALUE; // not awaiting a steady landing
+	}
+
+	@Override
+	public Rectangle getDirtyRegion() {
+		if (isPartialRepaintEnabled()) {
+			return prepareNextFrame();
+		} else {
+			return null;
+		}
+	}
+
 	public boolean isSliding() {
 		return !isStationary();
 	}
@@ -709,18 +855,9 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		SlidingItemInList winner = null;
 		if (hasItems()) {
 			SlidingItemList itemList = getItemList();
-			winner = itemList.getFirstItem();
 			double itra = getState().getItemTranslation();
 			double ccen = getLayoutManager().getCursorCenterPosition(getState()) + cursorOffset;
-			double minDistance = Math.abs(winner.getPosition() + itra - ccen);
-			for (int i = 1; i < itemList.getItemCount(); i++) {
-				SlidingItemInList itemInList = itemList.getItem(i);
-				double distance = Math.abs(itemInList.getPosition() + itra - ccen);
-				if (distance < minDistance) {
-					winner = itemInList;
-					minDistance = distance;
-				}
-			}
+			winner = itemList.getItem(itemList.getIndexOfItemNearestTo(ccen - itra));
 		}
 		return winner;
 	}
@@ -771,6 +908,10 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		return itemList;
 	}
 
+	private void setItemList(SlidingItemList itemList) {
+		this.itemList = itemList;
+	}
+
 	public SlidingItemLayoutManager getLayoutManager() {
 		return layoutManager;
 	}
@@ -838,6 +979,7 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 
 	private void setTargetState(SlidingState targetState) {
 		this.targetState = targetState;
+		wakeUp();
 	}
 
 	public int getMinimumItemSelectionIndex() {
@@ -974,12 +1116,62 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		this.steadyLandingMaximumTimeDelayMillis = millis;
 	}
 
+	public boolean isPartialRepaintEnabled() {
+		return partialRepaintEnabled;
+	}
+
+	/**
+	 * Sets whether this component reports its dirty region to the painter, so that only the modified part gets
+	 * repainted on screen. Only effective when <em>optimized rendering</em> is enabled
+	 * 
+	 * @see #setOptimizedRenderingEnabled(boolean)
+	 */
+	public void setPartialRepaintEnabled(boolean enabled) {
+		this.partialRepaintEnabled = enabled;
+	}
+
+	public int getItemLookAhead() {
+		return itemLookAhead;
+	}
+
+	/**
+	 * Sets the number of items beyond either end of the viewport that are created ahead and retained, when the items
+	 * are supplied by a provider
+	 * 
+	 * @see #setItemProvider(SlidingItemProvider)
+	 */
+	public void setItemLookAhead(int itemLookAhead) {
+		this.itemLookAhead = Math.max(itemLookAhead, 0);
+	}
+
+	/**
+	 * Returns the cache of rendered images of the items that implement {@link CacheableSlidingItem}
+	 */
+	public SlidingItemRenderCache getItemRenderCache() {
+		return itemRenderCache;
+	}
+
+	public boolean isItemRenderCacheEnabled() {
+		return itemRenderCacheEnabled;
+	}
+
+	/**
+	 * Sets whether items implementing {@link CacheableSlidingItem} are painted from cached images. When disabled, the
+	 * cache is cleared and all items render live
+	 */
+	public void setItemRenderCacheEnabled(boolean enabled) {
+		this.itemRenderCacheEnabled = enabled;
+		if (!enabled) {
+			getItemRenderCache().clear();
+		}
+	}
+
 	@SuppressWarnings("serial")
 	private class SlidingItemListPanel extends AnimatedPanel {
 
 		private PaintState previousPaintState;
 
-		private VolatileImage volatileBackBuffer;
+		private Image backBuffer; // volatile when displayable
 
 		public SlidingItemListPanel(Dimension size, Color background) {
 			super(size, background, false);
@@ -1009,43 +1201,116 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		@Override
 		protected void doPaintComponent(Graphics2D g) {
 			PaintState paintState = createCurrentPaintState(g);
-			SlidingPaintMetrics paintMetrics = getPaintMetrics();
 			if (isOptimizedRenderingEnabled()) {
-				VolatileImage backBuffer = getVolatileBackBuffer();
-				int w = getWidth();
-				int h = getHeight() + 1; // plus 1 to avoid the bottom line being clipped from the back buffer
-				if (backBuffer == null || backBuffer.getWidth() != w || backBuffer.getHeight() != h) {
-					if (backBuffer != null) {
-						backBuffer.flush();
-					}
-					backBuffer = createVolatileImage(w, h);
+				paintViaBackBuffer(g, paintState, g);
+			} else {
+				new FullPaintStrategy(getPreviousPaintState(), paintState).paint(g, getPaintMetrics());
+			}
+			setPreviousPaintState(paintState);
+			evictProvidedItemsOutsideLookAhead();
+		}
+
+		@Override
+		protected boolean canPrepareFrame(Graphics2D g) {
+			Image backBuffer = getBackBuffer();
+			return isOptimizedRenderingEnabled() && getPreviousPaintState() != null && backBuffer != null
+					&& backBuffer.getWidth(null) == getBackBufferWidth()
+					&& backBuffer.getHeight(null) == getBackBufferHeight();
+		}
+
+		@Override
+		protected Rectangle doPrepareFrame(Graphics2D g) {
+			PaintState paintState = createCurrentPaintState(g);
+			PaintStrategy strategy = paintViaBackBuffer(g, paintState, null);
+			setPreviousPaintState(paintState);
+			evictProvidedItemsOutsideLookAhead();
+			return strategy.getModifiedRegion();
+		}
+
+		@Override
+		protected void paintPreparedFrame(Graphics2D g) {
+			Image backBuffer = getBackBuffer();
+			if (validateBackBuffer(backBuffer) == VolatileImage.IMAGE_OK && !isBackBufferContentsLost(backBuffer)) {
+				g.drawImage(backBuffer, 0, 0, null);
+			} else {
+				setRepaintFully(true);
+				paintViaBackBuffer(g, getPreviousPaintState(), g);
+			}
+		}
+
+		/**
+		 * Renders the paint state into the back buffer, and then draws the back buffer onto <code>target</code>
+		 * 
+		 * @return The paint strategy that rendered the back buffer
+		 */
+		private PaintStrategy paintViaBackBuffer(Graphics2D g, PaintState paintState, Graphics2D target) {
+			PaintStrategy strategy = null;
+			Image backBuffer = getBackBuffer();
+			int w = getBackBufferWidth();
+			int h = getBackBufferHeight();
+			if (backBuffer == null || backBuffer.getWidth(null) != w || backBuffer.getHeight(null) != h) {
+				if (backBuffer != null) {
+					backBuffer.flush();
+				}
+				backBuffer = createBackBuffer(w, h);
+				recordBackBufferRecreation();
+				setRepaintFully(true);
+			}
+			boolean redo = false;
+			do {
+				int val = validateBackBuffer(backBuffer);
+				if (val == VolatileImage.IMAGE_RESTORED) {
+					// contents need to be restored
+					setRepaintFully(true);
+				} else if (val == VolatileImage.IMAGE_INCOMPATIBLE) {
+					// old back buffer doesn't work with new GraphicsConfig; re-create it
+					backBuffer = createBackBuffer(w, h);
+					recordBackBufferRecreation();
 					setRepaintFully(true);
 				}
-				boolean redo = false;
-				do {
-					int val = backBuffer.validate(getGraphicsConfiguration());
-					if (val == VolatileImage.IMAGE_RESTORED) {
-						// contents need to be restored
-						setRepaintFully(true);
-					} else if (val == VolatileImage.IMAGE_INCOMPATIBLE) {
-						// old back buffer doesn't work with new GraphicsConfig; re-create it
-						backBuffer = createVolatileImage(w, h);
-						setRepaintFully(true);
-					}
-					Graphics2D gImg = backBuffer.createGraphics();
-					initializeGraphics(gImg);
-					createPaintStrategy(g, paintState).paint(gImg, paintMetrics);
-					g.drawImage(backBuffer, 0, 0, null);
-					gImg.dispose();
-					redo = backBuffer.contentsLost();
-					if (redo)
-						setRepaintFully(true);
-				} while (redo);
-				setVolatileBackBuffer(backBuffer);
+				Graphics2D gImg = (Graphics2D) backBuffer.getGraphics();
+				initializeGraphics(gImg);
+				strategy = createPaintStrategy(g, paintState);
+				strategy.paint(gImg, getPaintMetrics());
+				if (target != null) {
+					target.drawImage(backBuffer, 0, 0, null);
+				}
+				gImg.dispose();
+				redo = isBackBufferContentsLost(backBuffer);
+				if (redo)
+					setRepaintFully(true);
+			} while (redo);
+			setBackBuffer(backBuffer);
+			return strategy;
+		}
+
+		private Image createBackBuffer(int width, int height) {
+			Image image = createVolatileImage(width, height);
+			if (image == null) {
+				// not displayable, for instance when rendering offscreen in headless mode
+				image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			}
+			return image;
+		}
+
+		private int validateBackBuffer(Image backBuffer) {
+			if (backBuffer instanceof VolatileImage) {
+				return ((VolatileImage) backBuffer).validate(getGraphicsConfiguration());
 			} else {
-				new FullPaintStrategy(getPreviousPaintState(), paintState).paint(g, paintMetrics);
+				return VolatileImage.IMAGE_OK;
 			}
-			setPreviousPaintState(paintState);
+		}
+
+		private boolean isBackBufferContentsLost(Image backBuffer) {
+			return backBuffer instanceof VolatileImage && ((VolatileImage) backBuffer).contentsLost();
+		}
+
+		private int getBackBufferWidth() {
+			return getWidth();
+		}
+
+		private int getBackBufferHeight() {
+			return getHeight() + 1; // plus 1 to avoid the bottom line being clipped from the back buffer
 		}
 
 		private PaintState createCurrentPaintState(Graphics2D g) {
@@ -1104,12 +1369,12 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 			this.previousPaintState = ps;
 		}
 
-		private VolatileImage getVolatileBackBuffer() {
-			return volatileBackBuffer;
+		private Image getBackBuffer() {
+			return backBuffer;
 		}
 
-		private void setVolatileBackBuffer(VolatileImage image) {
-			this.volatileBackBuffer = image;
+		private void setBackBuffer(Image image) {
+			this.backBuffer = image;
 		}
 
 	}
@@ -1118,6 +1383,8 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 
 		private int itemsPainted;
 
+		private int itemsFromCache;
+
 		public SlidingPaintMetrics() {
 		}
 
@@ -1125,16 +1392,22 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 			setItemsPainted(getItemsPainted() + 1);
 		}
 
+		public void incrementItemsFromCacheCount() {
+			setItemsFromCache(getItemsFromCache() + 1);
+		}
+
 		@Override
 		public void reset() {
 			super.reset();
 			setItemsPainted(0);
+			setItemsFromCache(0);
 		}
 
 		@Override
 		public String toString() {
 			float ipp = getPaintCount() == 0 ? 0 : (getItemsPainted() * 10 / getPaintCount()) / 10f;
-			return super.toString() + " | Average items per paint: " + ipp;
+			int pct = getItemsPainted() == 0 ? 0 : getItemsFromCache() * 100 / getItemsPainted();
+			return super.toString() + " | Average items per paint: " + ipp + " (" + pct + "% from cache)";
 		}
 
 		public int getItemsPainted() {
@@ -1145,6 +1418,14 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 			this.itemsPainted = itemsPainted;
 		}
 
+		public int getItemsFromCache() {
+			return itemsFromCache;
+		}
+
+		private void setItemsFromCache(int itemsFromCache) {
+			this.itemsFromCache = itemsFromCache;
+		}
+
 	}
 
 	private static class PaintState {
@@ -1245,6 +1526,13 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 
 		public abstract void paint(Graphics2D g, SlidingPaintMetrics metrics);
 
+		/**
+		 * Returns the region modified by the last invocation of {@link #paint(Graphics2D, SlidingPaintMetrics)}
+		 * 
+		 * @return The modified region, in component coordinates
+		 */
+		public abstract Rectangle getModifiedRegion();
+
 		protected void paintBackground(Graphics2D g) {
 			g.setColor(getBackground());
 			g.fillRect(0, 0, getWidth(), getHeight());
@@ -1281,11 +1569,26 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 		protected void paintItem(Graphics2D vpg, SlidingItemInList itemInList, Rectangle bounds,
 				SlidingPaintMetrics metrics) {
 			Graphics2D g2 = (Graphics2D) vpg.create(bounds.x, bounds.y, bounds.width, bounds.height);
-			itemInList.getItem().render(g2, getComponent());
+			SlidingItem item = itemInList.getItem();
+			if (isRenderedFromCache(item, g2)) {
+				if (getItemRenderCache().render((CacheableSlidingItem) item, g2, bounds.width, bounds.height,
+						getComponent())) {
+					metrics.incrementItemsFromCacheCount();
+				}
+			} else {
+				item.render(g2, getComponent());
+			}
 			metrics.incrementItemsPaintedCount();
 			g2.dispose();
 		}
 
+		private boolean isRenderedFromCache(SlidingItem item, Graphics2D g) {
+			if (!isItemRenderCacheEnabled() || !(item instanceof CacheableSlidingItem))
+				return false;
+			// cached images are pixel-aligned, scaled contexts (such as HiDPI) render live
+			return (g.getTransform().getType() & ~AffineTransform.TYPE_TRANSLATION) == 0;
+		}
+
 		protected void paintShades(Graphics2D vpg) {
 			paintShades(vpg, createSingletonViewportClip());
 		}
@@ -1417,6 +1720,11 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 			}
 		}
 
+		@Override
+		public Rectangle getModifiedRegion() {
+			return new Rectangle(0, 0, getWidth(), getHeight());
+		}
+
 	}
 
 	/**
@@ -1424,6 +1732,8 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 	 */
 	private class OptimizedPaintStrategy extends PaintStrategy {
 
+		private OptimizedPaintJob paintJob;
+
 		public OptimizedPaintStrategy(PaintState previousPaintState, PaintState paintState) {
 			super(previousPaintState, paintState);
 		}
@@ -1434,6 +1744,7 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 				Graphics2D vpg = (Graphics2D) g.create(getPadding().left, getPadding().top, getViewportWidth(),
 						getViewportHeight());
 				OptimizedPaintJob job = createPaintJob();
+				setPaintJob(job);
 				shiftRegions(vpg, job);
 				fillDirtyRegions(vpg, job);
 				if (job.isDirtyCursor()) {
@@ -1449,6 +1760,31 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 			}
 		}
 
+		@Override
+		public Rectangle getModifiedRegion() {
+			Rectangle region = null;
+			OptimizedPaintJob job = getPaintJob();
+			if (job != null) {
+				for (Rectangle r : job.getShiftRegions()) {
+					region = union(region, r);
+				}
+				for (Rectangle r : job.getDirtyRegions()) {
+					region = union(region, r);
+				}
+				if (job.isDirtyCursor()) {
+					region = union(region, getPreviousPaintState().getCursorOuterBounds());
+					region = union(region, getPaintState().getCursorOuterBounds());
+				}
+			}
+			if (region == null) {
+				return new Rectangle();
+			} else {
+				Rectangle bounds = new Rectangle(region);
+				bounds.translate(getPadding().left, getPadding().top);
+				return bounds;
+			}
+		}
+
 		protected void shiftRegions(Graphics2D vpg, OptimizedPaintJob job) {
 			int t = job.getShiftLength();
 			vpg.setColor(getBackground());
@@ -1666,6 +2002,14 @@ public class SlidingItemListComponent extends BaseAnimatedComponent implements K
 					&& rect.y + rect.height <= getViewportHeight();
 		}
 
+		private OptimizedPaintJob getPaintJob() {
+			return paintJob;
+		}
+
+		private void setPaintJob(OptimizedPaintJob job) {
+			this.paintJob = job;
+		}
+
 	}
 
 	private class OptimizedPaintJob {
@@ -0,0 +1,36 @@
+package org.maia.swing.animate.itemslide;
+
+import java.awt.Graphics2D;
+import java.awt.Insets;
+
+/**
+ * Supplies the items of a {@link SlidingItemListComponent} on demand, as an alternative to adding all items up front.
+ * <p>
+ * Only the items within the viewport and a look-ahead window around it are created. Items leaving that window are
+ * handed back by {@link #releaseItem(SlidingItem, int)}, so that they can be recycled. The size and margin of an item
+ * are asked for by index, without creating the item, and must match those of the created item.
+ * </p>
+ *
+ * @see SlidingItemListComponent#setItemProvider(SlidingItemProvider)
+ */
+public interface SlidingItemProvider {
+
+	int getItemCount();
+
+	SlidingItem createItem(int index);
+
+	void releaseItem(SlidingItem item, int index);
+
+	/**
+	 * Tells whether all items share the size and margin of the item at index 0. When so, the component lays out the
+	 * items in constant time and memory, regardless of the item count
+	 */
+	boolean isUniformItemSize();
+
+	int getItemWidth(int index, Graphics2D g);
+
+	int getItemHeight(int index, Graphics2D g);
+
+	Insets getItemMargin(int index);
+
+}
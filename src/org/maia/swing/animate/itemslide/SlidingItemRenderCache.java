@@ -0,0 +1,304 @@
+package org.maia.swing.animate.itemslide;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Cache of rendered {@link CacheableSlidingItem} images, bounded by a size in bytes and evicting the least recently
+ * used images first.
+ * <p>
+ * An image is keyed on the identity of the item and reused for as long as the item has the same size and render
+ * version. Images are compatible with the graphics configuration painted to, so that Java2D can keep them accelerated.
+ * The cache is accessed from the event dispatch thread only. Statistics can be read from any thread, in which case
+ * the values are approximate.
+ * </p>
+ *
+ * @see SlidingItemListComponent#getItemRenderCache()
+ */
+public class SlidingItemRenderCache {
+
+	private Map<SlidingItem, CachedImage> images;
+
+	private CachedImage mostRecentlyUsed;
+
+	private CachedImage leastRecentlyUsed;
+
+	private long maximumSizeInBytes;
+
+	private long sizeInBytes;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	private static final int BYTES_PER_PIXEL = 4;
+
+	public SlidingItemRenderCache(long maximumSizeInBytes) {
+		this.images = new IdentityHashMap<SlidingItem, CachedImage>();
+		this.maximumSizeInBytes = Math.max(maximumSizeInBytes, 0L);
+	}
+
+	/**
+	 * Renders an item at the origin of the graphics context, from its cached image when still valid
+	 *
+	 * @param item
+	 *            The item to render
+	 * @param g
+	 *            The graphics context
+	 * @param width
+	 *            The width of the item, in pixels
+	 * @param height
+	 *            The height of the item, in pixels
+	 * @param component
+	 *            The component rendering the item
+	 * @return <code>true</code> if the item was rendered from the cache, <code>false</code> if it got rendered anew
+	 */
+	public boolean render(CacheableSlidingItem item, Graphics2D g, int width, int height,
+			SlidingItemListComponent component) {
+		if (width <= 0 || height <= 0)
+			return false;
+		long bytes = (long) width * height * BYTES_PER_PIXEL;
+		if (bytes > getMaximumSizeInBytes()) {
+			missCount++;
+			item.render(g, component);
+			return false;
+		}
+		long version = item.getRenderVersion();
+		CachedImage cached = getImages().get(item);
+		boolean hit = cached != null && cached.matches(width, height, version);
+		if (hit) {
+			hitCount++;
+			markMostRecentlyUsed(cached);
+		} else {
+			missCount++;
+			if (cached != null && !cached.hasSize(width, height)) {
+				remove(item);
+				cached = null;
+			}
+			if (cached == null) {
+				cached = new CachedImage(item, createImage(g, width, height));
+				add(cached);
+			} else {
+				markMostRecentlyUsed(cached);
+			}
+			renderIntoImage(item, cached.getImage(), g, component);
+			cached.setVersion(version);
+			evictToFit();
+		}
+		g.drawImage(cached.getImage(), 0, 0, null);
+		return hit;
+	}
+
+	private BufferedImage createImage(Graphics2D g, int width, int height) {
+		GraphicsConfiguration gc = g.getDeviceConfiguration();
+		if (gc != null) {
+			return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		} else {
+			return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		}
+	}
+
+	private void renderIntoImage(SlidingItem item, BufferedImage image, Graphics2D g,
+			SlidingItemListComponent component) {
+		Graphics2D gi = image.createGraphics();
+		gi.setComposite(AlphaComposite.Clear);
+		gi.fillRect(0, 0, image.getWidth(), image.getHeight());
+		gi.setComposite(AlphaComposite.SrcOver);
+		gi.setRenderingHints(g.getRenderingHints());
+		gi.setFont(g.getFont());
+		gi.setColor(g.getColor());
+		gi.setBackground(g.getBackground());
+		item.render(gi, component);
+		gi.dispose();
+	}
+
+	public void remove(SlidingItem item) {
+		CachedImage cached = getImages().remove(item);
+		if (cached != null) {
+			unlink(cached);
+			sizeInBytes -= cached.getSizeInBytes();
+			cached.getImage().flush();
+		}
+	}
+
+	public void clear() {
+		for (CachedImage cached : getImages().values()) {
+			cached.getImage().flush();
+		}
+		getImages().clear();
+		mostRecentlyUsed = null;
+		leastRecentlyUsed = null;
+		sizeInBytes = 0L;
+	}
+
+	public void resetStatistics() {
+		hitCount = 0L;
+		missCount = 0L;
+		evictionCount = 0L;
+	}
+
+	@Override
+	public String toString() {
+		return "Cached images: " + getImageCount() + ", KB: " + (getSizeInBytes() / 1024L) + " of "
+				+ (getMaximumSizeInBytes() / 1024L) + ", hits: " + getHitCount() + ", misses: " + getMissCount()
+				+ ", evictions: " + getEvictionCount();
+	}
+
+	private void add(CachedImage cached) {
+		getImages().put(cached.getItem(), cached);
+		linkAsMostRecentlyUsed(cached);
+		sizeInBytes += cached.getSizeInBytes();
+	}
+
+	private void evictToFit() {
+		while (getSizeInBytes() > getMaximumSizeInBytes() && leastRecentlyUsed != null) {
+			remove(leastRecentlyUsed.getItem());
+			evictionCount++;
+		}
+	}
+
+	private void markMostRecentlyUsed(CachedImage cached) {
+		if (cached != mostRecentlyUsed) {
+			unlink(cached);
+			linkAsMostRecentlyUsed(cached);
+		}
+	}
+
+	private void linkAsMostRecentlyUsed(CachedImage cached) {
+		cached.setPrevious(null);
+		cached.setNext(mostRecentlyUsed);
+		if (mostRecentlyUsed != null) {
+			mostRecentlyUsed.setPrevious(cached);
+		}
+		mostRecentlyUsed = cached;
+		if (leastRecentlyUsed == null) {
+			leastRecentlyUsed = cached;
+		}
+	}
+
+	private void unlink(CachedImage cached) {
+		CachedImage previous = cached.getPrevious();
+		CachedImage next = cached.getNext();
+		if (previous != null) {
+			previous.setNext(next);
+		} else if (mostRecentlyUsed == cached) {
+			mostRecentlyUsed = next;
+		}
+		if (next != null) {
+			next.setPrevious(previous);
+		} else if (leastRecentlyUsed == cached) {
+			leastRecentlyUsed = previous;
+		}
+		cached.setPrevious(null);
+		cached.setNext(null);
+	}
+
+	public int getImageCount() {
+		return getImages().size();
+	}
+
+	public long getMaximumSizeInBytes() {
+		return maximumSizeInBytes;
+	}
+
+	public void setMaximumSizeInBytes(long maximumSizeInBytes) {
+		this.maximumSizeInBytes = Math.max(maximumSizeInBytes, 0L);
+		evictToFit();
+	}
+
+	public long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public double getHitRatio() {
+		long total = getHitCount() + getMissCount();
+		return total == 0L ? 0 : getHitCount() / (double) total;
+	}
+
+	private Map<SlidingItem, CachedImage> getImages() {
+		return images;
+	}
+
+	private static class CachedImage {
+
+		private SlidingItem item;
+
+		private BufferedImage image;
+
+		private long version;
+
+		private CachedImage previous; // more recently used
+
+		private CachedImage next; // less recently used
+
+		public CachedImage(SlidingItem item, BufferedImage image) {
+			this.item = item;
+			this.image = image;
+		}
+
+		public boolean matches(int width, int height, long version) {
+			return hasSize(width, height) && getVersion() == version;
+		}
+
+		public boolean hasSize(int width, int height) {
+			return getImage().getWidth() == width && getImage().getHeight() == height;
+		}
+
+		public long getSizeInBytes() {
+			return (long) getImage().getWidth() * getImage().getHeight() * BYTES_PER_PIXEL;
+		}
+
+		public SlidingItem getItem() {
+			return item;
+		}
+
+		public BufferedImage getImage() {
+			return image;
+		}
+
+		public long getVersion() {
+			return version;
+		}
+
+		public void setVersion(long version) {
+			this.version = version;
+		}
+
+		public CachedImage getPrevious() {
+			return previous;
+		}
+
+		public void setPrevious(CachedImage previous) {
+			this.previous = previous;
+		}
+
+		public CachedImage getNext() {
+			return next;
+		}
+
+		public void setNext(CachedImage next) {
+			this.next = next;
+		}
+
+	}
+
+}
@@ -91,21 +91,13 @@ public class SlidingDynamicsFactory {
 				SlidingItemInList itemAfter = null;
 				double position = getComponent().getLayoutManager().getCursorCenterPosition(currentState);
 				double itra = currentState.getItemTranslation();
-				for (int i = 1; i < itemList.getItemCount(); i++) {
-					SlidingItemInList itemInList = itemList.getItem(i);
-					double ipos = itemInList.getPosition() + itra;
-					if (ipos >= position) {
-						itemAfter = itemInList;
-						itemBefore = itemList.getItem(i - 1);
-						if (i == 1 && itemBefore.getPosition() + itra >= position) {
-							itemAfter = itemBefore;
-						}
-						break;
-					}
-				}
-				if (itemAfter == null) {
-					itemAfter = itemList.getItem(itemList.getItemCount() - 1);
+				int i = itemList.getIndexOfFirstItemAtOrAfter(position - itra);
+				if (i == itemList.getItemCount()) {
+					itemAfter = itemList.getLastItem();
 					itemBefore = itemAfter;
+				} else {
+					itemAfter = itemList.getItem(i);
+					itemBefore = i > 0 ? itemList.getItem(i - 1) : itemAfter;
 				}
 				// Interpolate
 				double distance = itemAfter.getPosition() - itemBefore.getPosition();
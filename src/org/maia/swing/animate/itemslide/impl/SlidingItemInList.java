@@ -10,8 +10,16 @@ public class SlidingItemInList {
 
 	private SlidingItemList list;
 
+	private int index = -1; // as indexed by the list
+
 	private double position;
 
+	private int positionLayoutVersion = -1;
+
+	private int measuredWidth = -1;
+
+	private int measuredHeight = -1;
+
 	public SlidingItemInList(SlidingItem item, SlidingItemList list) {
 		this.item = item;
 		this.list = list;
@@ -34,14 +42,61 @@ public class SlidingItemInList {
 		return Objects.equals(getItem(), other.getItem());
 	}
 
+	/**
+	 * Returns the position of the center of this item along the sliding axis, as laid out by the list
+	 * 
+	 * @see SlidingItemList#layoutItems
+	 */
 	public double getPosition() {
+		SlidingItemList list = getList();
+		if (getPositionLayoutVersion() != list.getLayoutVersion()) {
+			setPosition(list.computeItemPosition(this));
+			setPositionLayoutVersion(list.getLayoutVersion());
+		}
 		return position;
 	}
 
-	public void setPosition(double position) {
+	private void setPosition(double position) {
 		this.position = position;
 	}
 
+	private int getPositionLayoutVersion() {
+		return positionLayoutVersion;
+	}
+
+	private void setPositionLayoutVersion(int version) {
+		this.positionLayoutVersion = version;
+	}
+
+	int getMeasuredWidth() {
+		return measuredWidth;
+	}
+
+	int getMeasuredHeight() {
+		return measuredHeight;
+	}
+
+	void setMeasuredSize(int width, int height) {
+		this.measuredWidth = width;
+		this.measuredHeight = height;
+	}
+
+	void clearMeasuredSize() {
+		setMeasuredSize(-1, -1);
+	}
+
+	boolean isMeasured() {
+		return measuredWidth >= 0;
+	}
+
+	int getIndex() {
+		return index;
+	}
+
+	void setIndex(int index) {
+		this.index = index;
+	}
+
 	public SlidingItem getItem() {
 		return item;
 	}
@@ -198,18 +198,7 @@ public class SlidingItemLayoutManagerFactory {
 
 		@Override
 		public void layoutItems(SlidingItemList itemList, Graphics2D g) {
-			double position = computePositionOfFirstItem(itemList, g);
-			for (int i = 0; i < itemList.getItemCount(); i++) {
-				SlidingItemInList itemInList = itemList.getItem(i);
-				SlidingItem item = itemInList.getItem();
-				if (i > 0) {
-					position += item.getMargin().left;
-					position += item.getWidth(g) / 2.0;
-				}
-				itemInList.setPosition(position);
-				position += item.getWidth(g) / 2.0;
-				position += item.getMargin().right;
-			}
+			itemList.layoutItems(g, computeLeadingEdgePosition(itemList, g), true);
 		}
 
 		@Override
@@ -300,34 +289,18 @@ public class SlidingItemLayoutManagerFactory {
 
 		@Override
 		protected int getLength(SlidingItemList itemList, Graphics2D g) {
-			int length = 0;
-			int n = itemList.getItemCount();
-			for (int i = 0; i < n; i++) {
-				SlidingItem item = itemList.getItem(i).getItem();
-				length += item.getWidth(g);
-				if (i > 0) {
-					length += item.getMargin().left;
-				}
-				if (i < n - 1) {
-					length += item.getMargin().right;
-				}
-			}
-			return length;
+			return itemList.getLength(g, true);
 		}
 
-		private double computePositionOfFirstItem(SlidingItemList itemList, Graphics2D g) {
+		private double computeLeadingEdgePosition(SlidingItemList itemList, Graphics2D g) {
 			double position = 0;
-			if (!itemList.isEmpty()) {
-				SlidingItem item = itemList.getFirstItem().getItem();
-				double cx = item.getWidth(g) / 2.0;
-				HorizontalAlignment align = getHorizontalAlignment();
-				if (HorizontalAlignment.LEFT.equals(align)) {
-					position = cx;
-				} else if (HorizontalAlignment.CENTER.equals(align)) {
-					position = cx - getLength(itemList, g) / 2.0;
-				} else if (HorizontalAlignment.RIGHT.equals(align)) {
-					position = cx - getLength(itemList, g);
-				}
+			HorizontalAlignment align = getHorizontalAlignment();
+			if (HorizontalAlignment.LEFT.equals(align)) {
+				position = 0;
+			} else if (HorizontalAlignment.CENTER.equals(align)) {
+				position = -getLength(itemList, g) / 2.0;
+			} else if (HorizontalAlignment.RIGHT.equals(align)) {
+				position = -getLength(itemList, g);
 			}
 			return position;
 		}
@@ -370,18 +343,7 @@ public class SlidingItemLayoutManagerFactory {
 
 		@Override
 		public void layoutItems(SlidingItemList itemList, Graphics2D g) {
-			double position = computePositionOfFirstItem(itemList, g);
-			for (int i = 0; i < itemList.getItemCount(); i++) {
-				SlidingItemInList itemInList = itemList.getItem(i);
-				SlidingItem item = itemInList.getItem();
-				if (i > 0) {
-					position += item.getMargin().top;
-					position += item.getHeight(g) / 2.0;
-				}
-				itemInList.setPosition(position);
-				position += item.getHeight(g) / 2.0;
-				position += item.getMargin().bottom;
-			}
+			itemList.layoutItems(g, computeLeadingEdgePosition(itemList, g), false);
 		}
 
 		@Override
@@ -473,34 +435,18 @@ public class SlidingItemLayoutManagerFactory {
 
 		@Override
 		protected int getLength(SlidingItemList itemList, Graphics2D g) {
-			int length = 0;
-			int n = itemList.getItemCount();
-			for (int i = 0; i < n; i++) {
-				SlidingItem item = itemList.getItem(i).getItem();
-				length += item.getHeight(g);
-				if (i > 0) {
-					length += item.getMargin().top;
-				}
-				if (i < n - 1) {
-					length += item.getMargin().bottom;
-				}
-			}
-			return length;
+			return itemList.getLength(g, false);
 		}
 
-		private double computePositionOfFirstItem(SlidingItemList itemList, Graphics2D g) {
+		private double computeLeadingEdgePosition(SlidingItemList itemList, Graphics2D g) {
 			double position = 0;
-			if (!itemList.isEmpty()) {
-				SlidingItem item = itemList.getFirstItem().getItem();
-				double cy = item.getHeight(g) / 2.0;
-				VerticalAlignment align = getVerticalAlignment();
-				if (VerticalAlignment.TOP.equals(align)) {
-					position = cy;
-				} else if (VerticalAlignment.CENTER.equals(align)) {
-					position = cy - getLength(itemList, g) / 2.0;
-				} else if (VerticalAlignment.BOTTOM.equals(align)) {
-					position = cy - getLength(itemList, g);
-				}
+			VerticalAlignment align = getVerticalAlignment();
+			if (VerticalAlignment.TOP.equals(align)) {
+				position = 0;
+			} else if (VerticalAlignment.CENTER.equals(align)) {
+				position = -getLength(itemList, g) / 2.0;
+			} else if (VerticalAlignment.BOTTOM.equals(align)) {
+				position = -getLength(itemList, g);
 			}
 			return position;
 		}
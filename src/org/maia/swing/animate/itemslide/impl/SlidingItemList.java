@@ -1,85 +1,423 @@
 package org.maia.swing.animate.itemslide.impl;
 
 import java.awt.Graphics2D;
+import java.awt.Insets;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 import org.maia.swing.animate.itemslide.SlidingItem;
+import org.maia.swing.animate.itemslide.SlidingItemProvider;
 
 public class SlidingItemList {
 
-	private List<SlidingItemInList> items;
+	private List<SlidingItemInList> items; // when not provided
+
+	private SlidingItemProvider provider; // when provided
+
+	private Map<Integer, SlidingItemInList> materializedItems; // when provided, indexed by item index
+
+	private Map<SlidingItem, SlidingItemInList> itemMap; // for membership and index lookup
+
+	private int numberedItemCount; // leading range of items whose index is up to date
+
+	private ExtentIndex extentIndex; // covers a leading range of items, extended on demand
+
+	private UniformExtent uniformExtent; // when provided with a uniform item size
+
+	private double leadingEdgePosition; // of the first item
+
+	private boolean horizontalLayout;
+
+	private int layoutVersion;
 
 	public SlidingItemList() {
 		this.items = new Vector<SlidingItemInList>();
+		this.itemMap = new HashMap<SlidingItem, SlidingItemInList>();
+		this.extentIndex = new ExtentIndex();
+	}
+
+	/**
+	 * Creates a virtual list whose items are created on demand by the given provider
+	 * <p>
+	 * Only the items that are asked for get created. They are retained until evicted, at which point they are handed
+	 * back to the provider for recycling. When the provider declares a uniform item size, laying out the list takes
+	 * constant time and memory regardless of the item count.
+	 * </p>
+	 * 
+	 * @see #evictItemsOutside(int, int)
+	 */
+	public SlidingItemList(SlidingItemProvider provider) {
+		this();
+		this.provider = provider;
+		this.materializedItems = new HashMap<Integer, SlidingItemInList>();
 	}
 
 	public void addItem(SlidingItemInList item) {
+		checkNotProvided();
 		if (!contains(item)) {
 			getItems().add(item);
+			getItemMap().put(item.getItem(), item);
 		}
 	}
 
 	public void insertItem(SlidingItemInList item, int index) {
+		checkNotProvided();
 		if (!contains(item)) {
 			getItems().add(index, item);
+			getItemMap().put(item.getItem(), item);
+			truncateIndices(index);
 		}
 	}
 
 	public void removeItem(SlidingItemInList item) {
-		if (contains(item)) {
-			getItems().remove(item);
+		checkNotProvided();
+		int index = getIndexOf(item);
+		if (index >= 0) {
+			getItemMap().remove(getItems().remove(index).getItem());
+			truncateIndices(index);
 		}
 	}
 
 	public void removeAllItems() {
+		checkNotProvided();
 		if (!isEmpty()) {
 			getItems().clear();
+			getItemMap().clear();
+			truncateIndices(0);
 		}
 	}
 
+	private void checkNotProvided() {
+		if (isProvided())
+			throw new UnsupportedOperationException("The items of this list are supplied by a provider");
+	}
+
+	/**
+	 * Discards all provided items and measurements, after the provider has changed its items or item count
+	 */
+	public void resetProvidedItems() {
+		if (isProvided()) {
+			evictItemsOutside(0, -1);
+			setUniformExtent(null);
+			truncateIndices(0);
+		}
+	}
+
+	/**
+	 * Discards all measured item sizes and margins, to be measured again at the next layout
+	 */
+	public void invalidateItemExtents() {
+		if (isProvided()) {
+			setUniformExtent(null);
+		} else {
+			for (int i = 0; i < getItemCount(); i++) {
+				getItem(i).clearMeasuredSize();
+			}
+		}
+		truncateIndices(0);
+	}
+
+	/**
+	 * Evicts all provided items outside the given index range, handing them back to the provider
+	 * 
+	 * @param fromIndex
+	 *            The first index of the range to retain, inclusive
+	 * @param toIndex
+	 *            The last index of the range to retain, inclusive
+	 * @return The evicted items, which may be empty
+	 */
+	public List<SlidingItem> evictItemsOutside(int fromIndex, int toIndex) {
+		List<SlidingItem> evictedItems = new Vector<SlidingItem>();
+		if (isProvided()) {
+			Iterator<SlidingItemInList> it = getMaterializedItems().values().iterator();
+			while (it.hasNext()) {
+				SlidingItemInList itemInList = it.next();
+				int index = itemInList.getIndex();
+				if (index < fromIndex || index > toIndex) {
+					it.remove();
+					getItemMap().remove(itemInList.getItem());
+					getProvider().releaseItem(itemInList.getItem(), index);
+					evictedItems.add(itemInList.getItem());
+				}
+			}
+		}
+		return evictedItems;
+	}
+
+	public int getMaterializedItemCount() {
+		return isProvided() ? getMaterializedItems().size() : getItemCount();
+	}
+
+	/**
+	 * Lays out the items one after the other, in list order
+	 *
+	 * @param g
+	 *            The graphics context to measure the items
+	 * @param leadingEdgePosition
+	 *            The position of the leading edge of the first item, excluding its margin
+	 * @param horizontalLayout
+	 *            <code>true</code> when the items are laid out from left to right, <code>false</code> when from top to
+	 *            bottom
+	 * @see SlidingItemInList#getPosition()
+	 */
+	public void layoutItems(Graphics2D g, double leadingEdgePosition, boolean horizontalLayout) {
+		validateExtents(g);
+		this.leadingEdgePosition = leadingEdgePosition;
+		this.horizontalLayout = horizontalLayout;
+		layoutVersion++;
+	}
+
+	/**
+	 * Returns the length of all items laid out one after the other, including the margins between them but not the
+	 * outer margins of the first and last item
+	 */
+	public int getLength(Graphics2D g, boolean horizontalLayout) {
+		int length = 0;
+		if (!isEmpty()) {
+			validateExtents(g);
+			length = (int) getSpanBefore(getItemCount(), horizontalLayout);
+			length -= getLeadingMargin(0, horizontalLayout);
+			length -= getTrailingMargin(getItemCount() - 1, horizontalLayout);
+		}
+		return length;
+	}
+
 	public double getMaxItemWidth(Graphics2D g) {
 		double max = 0;
-		for (int i = 0; i < getItemCount(); i++) {
-			max = Math.max(max, getItem(i).getItem().getWidth(g));
+		if (!isEmpty()) {
+			validateExtents(g);
+			max = isUniformlyProvided() ? getUniformExtent().getWidth() : getExtentIndex().getMaxWidth();
 		}
 		return max;
 	}
 
 	public double getMaxItemHeight(Graphics2D g) {
 		double max = 0;
-		for (int i = 0; i < getItemCount(); i++) {
-			max = Math.max(max, getItem(i).getItem().getHeight(g));
+		if (!isEmpty()) {
+			validateExtents(g);
+			max = isUniformlyProvided() ? getUniformExtent().getHeight() : getExtentIndex().getMaxHeight();
 		}
 		return max;
 	}
 
+	/**
+	 * Returns the index of the item whose position is nearest to the given position
+	 *
+	 * @return The item index, or -1 when this list is empty
+	 * @see #getItemPosition(int)
+	 */
+	public int getIndexOfItemNearestTo(double position) {
+		int n = getItemCount();
+		if (n == 0)
+			return -1;
+		int i = getIndexOfFirstItemAtOrAfter(position);
+		if (i == n) {
+			return n - 1;
+		} else if (i > 0 && position - getItemPosition(i - 1) <= getItemPosition(i) - position) {
+			return i - 1;
+		} else {
+			return i;
+		}
+	}
+
+	/**
+	 * Returns the index of the first item whose position is at or after the given position
+	 *
+	 * @return The item index, or the item count when all items are positioned before <code>position</code>
+	 * @see #getItemPosition(int)
+	 */
+	public int getIndexOfFirstItemAtOrAfter(double position) {
+		int low = 0;
+		int high = getItemCount();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (getItemPosition(mid) < position) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the position of the center of the item at the given index along the sliding axis, as laid out. Unlike
+	 * {@link SlidingItemInList#getPosition()}, this does not create a provided item
+	 * 
+	 * @see #layoutItems(Graphics2D, double, boolean)
+	 */
+	public double getItemPosition(int index) {
+		if (index < 0 || index >= getIndexedItemCount())
+			return 0; // not (yet) laid out
+		boolean horizontal = isHorizontalLayout();
+		double position = getLeadingEdgePosition();
+		position -= getLeadingMargin(0, horizontal);
+		position += getSpanBefore(index, horizontal);
+		position += getLeadingMargin(index, horizontal);
+		position += getIndexedExtent(index, horizontal) / 2.0;
+		return position;
+	}
+
+	double computeItemPosition(SlidingItemInList itemInList) {
+		int i = itemInList.getIndex();
+		if (i < 0 || i >= getIndexedItemCount() || getItem(i) != itemInList)
+			return 0; // not (yet) laid out
+		return getItemPosition(i);
+	}
+
+	private int getIndexedItemCount() {
+		return isUniformlyProvided() ? getItemCount() : getExtentIndex().getSize();
+	}
+
+	private long getSpanBefore(int index, boolean horizontal) {
+		if (isUniformlyProvided()) {
+			return index * (long) getUniformExtent().getSpan(horizontal);
+		} else {
+			return getExtentIndex().getSpanBefore(index, horizontal);
+		}
+	}
+
+	private int getIndexedExtent(int index, boolean horizontal) {
+		if (isUniformlyProvided()) {
+			return horizontal ? getUniformExtent().getWidth() : getUniformExtent().getHeight();
+		} else {
+			return horizontal ? getExtentIndex().getWidth(index) : getExtentIndex().getHeight(index);
+		}
+	}
+
+	private void validateExtents(Graphics2D g) {
+		if (isProvided()) {
+			if (getProvider().isUniformItemSize()) {
+				if (getUniformExtent() == null) {
+					setUniformExtent(new UniformExtent(getProvider().getItemWidth(0, g),
+							getProvider().getItemHeight(0, g), getProvider().getItemMargin(0)));
+				}
+			} else {
+				ExtentIndex index = getExtentIndex();
+				int n = getItemCount();
+				for (int i = index.getSize(); i < n; i++) {
+					index.append(getProvider().getItemWidth(i, g), getProvider().getItemHeight(i, g),
+							getProvider().getItemMargin(i));
+				}
+			}
+		} else {
+			validateExtentIndex(g);
+		}
+	}
+
+	private void validateExtentIndex(Graphics2D g) {
+		ExtentIndex index = getExtentIndex();
+		int n = getItemCount();
+		validateItemNumbering();
+		for (int i = index.getSize(); i < n; i++) {
+			SlidingItemInList itemInList = getItem(i);
+			SlidingItem item = itemInList.getItem();
+			if (!itemInList.isMeasured()) {
+				itemInList.setMeasuredSize(item.getWidth(g), item.getHeight(g));
+			}
+			index.append(itemInList.getMeasuredWidth(), itemInList.getMeasuredHeight(), item.getMargin());
+		}
+	}
+
+	private void validateItemNumbering() {
+		if (!isProvided()) {
+			int n = getItemCount();
+			for (int i = getNumberedItemCount(); i < n; i++) {
+				getItem(i).setIndex(i);
+			}
+			setNumberedItemCount(n);
+		}
+	}
+
+	/**
+	 * Invalidates the item numbering and extent index from the given item index onwards, after the list was modified
+	 * at that index
+	 */
+	private void truncateIndices(int fromIndex) {
+		setNumberedItemCount(Math.min(getNumberedItemCount(), fromIndex));
+		ExtentIndex index = getExtentIndex();
+		if (fromIndex < index.getSize()) {
+			index.truncate(fromIndex);
+		}
+		layoutVersion++;
+	}
+
+	private int getLeadingMargin(int index, boolean horizontal) {
+		Insets margin = getItemMargin(index);
+		return horizontal ? margin.left : margin.top;
+	}
+
+	private int getTrailingMargin(int index, boolean horizontal) {
+		Insets margin = getItemMargin(index);
+		return horizontal ? margin.right : margin.bottom;
+	}
+
+	private Insets getItemMargin(int index) {
+		if (isUniformlyProvided()) {
+			return getUniformExtent().getMargin();
+		} else if (isProvided()) {
+			return getProvider().getItemMargin(index);
+		} else {
+			return getItem(index).getItem().getMargin();
+		}
+	}
+
 	public boolean contains(SlidingItemInList item) {
-		return getItems().contains(item);
+		return getItemMap().containsKey(item.getItem());
+	}
+
+	public boolean contains(SlidingItem item) {
+		return getItemMap().containsKey(item);
 	}
 
 	public boolean isEmpty() {
-		return getItems().isEmpty();
+		return getItemCount() == 0;
 	}
 
 	public int getItemCount() {
-		return getItems().size();
+		return isProvided() ? getProvider().getItemCount() : getItems().size();
 	}
 
 	public int getIndexOf(SlidingItemInList item) {
-		return getItems().indexOf(item);
+		return getIndexOf(item.getItem());
 	}
 
+	/**
+	 * Returns the index of the given item
+	 * 
+	 * @return The item index, or -1 when the item is not in this list. For a provided list, only the items that are
+	 *         currently materialized are found
+	 */
 	public int getIndexOf(SlidingItem item) {
-		for (int i = 0; i < getItemCount(); i++) {
-			if (getItem(i).getItem().equals(item))
-				return i;
-		}
-		return -1;
+		SlidingItemInList itemInList = getItemMap().get(item);
+		if (itemInList == null)
+			return -1;
+		validateItemNumbering();
+		return itemInList.getIndex();
 	}
 
 	public SlidingItemInList getItem(int index) {
-		return getItems().get(index);
+		if (isProvided()) {
+			return getProvidedItem(index);
+		} else {
+			return getItems().get(index);
+		}
+	}
+
+	private SlidingItemInList getProvidedItem(int index) {
+		if (index < 0 || index >= getItemCount())
+			throw new IndexOutOfBoundsException("Index " + index + " out of range [0, " + getItemCount() + ")");
+		SlidingItemInList itemInList = getMaterializedItems().get(index);
+		if (itemInList == null) {
+			itemInList = new SlidingItemInList(getProvider().createItem(index), this);
+			itemInList.setIndex(index);
+			getMaterializedItems().put(index, itemInList);
+			getItemMap().put(itemInList.getItem(), itemInList);
+		}
+		return itemInList;
 	}
 
 	public SlidingItemInList getFirstItem() {
@@ -98,8 +436,217 @@ public class SlidingItemList {
 		}
 	}
 
+	public boolean isProvided() {
+		return getProvider() != null;
+	}
+
+	private boolean isUniformlyProvided() {
+		return isProvided() && getUniformExtent() != null;
+	}
+
 	private List<SlidingItemInList> getItems() {
 		return items;
 	}
 
-}
\ No newline at end of file
+	public SlidingItemProvider getProvider() {
+		return provider;
+	}
+
+	private Map<Integer, SlidingItemInList> getMaterializedItems() {
+		return materializedItems;
+	}
+
+	private Map<SlidingItem, SlidingItemInList> getItemMap() {
+		return itemMap;
+	}
+
+	private int getNumberedItemCount() {
+		return numberedItemCount;
+	}
+
+	private void setNumberedItemCount(int count) {
+		this.numberedItemCount = count;
+	}
+
+	private ExtentIndex getExtentIndex() {
+		return extentIndex;
+	}
+
+	private UniformExtent getUniformExtent() {
+		return uniformExtent;
+	}
+
+	private void setUniformExtent(UniformExtent extent) {
+		this.uniformExtent = extent;
+	}
+
+	private double getLeadingEdgePosition() {
+		return leadingEdgePosition;
+	}
+
+	private boolean isHorizontalLayout() {
+		return horizontalLayout;
+	}
+
+	int getLayoutVersion() {
+		return layoutVersion;
+	}
+
+	private static class UniformExtent {
+
+		private int width;
+
+		private int height;
+
+		private Insets margin;
+
+		public UniformExtent(int width, int height, Insets margin) {
+			this.width = width;
+			this.height = height;
+			this.margin = margin;
+		}
+
+		public int getSpan(boolean horizontal) {
+			if (horizontal) {
+				return getMargin().left + getWidth() + getMargin().right;
+			} else {
+				return getMargin().top + getHeight() + getMargin().bottom;
+			}
+		}
+
+		public int getWidth() {
+			return width;
+		}
+
+		public int getHeight() {
+			return height;
+		}
+
+		public Insets getMargin() {
+			return margin;
+		}
+
+	}
+
+	/**
+	 * Index over the measured extents of a leading range of items.
+	 * <p>
+	 * The span of an item is its extent plus its leading and trailing margin, along either axis. Spans are kept in
+	 * Fenwick trees (binary indexed trees), giving the sum of the spans before any item in O(log n). The maximum width
+	 * and height are kept as prefix maxima. Appending an item takes O(log n), and truncating the index to a shorter
+	 * range is O(1) as every remaining node only covers items within that range.
+	 * </p>
+	 */
+	private static class ExtentIndex {
+
+		private int size;
+
+		private int[] widths;
+
+		private int[] heights;
+
+		private long[] horizontalSpanTree; // 1-based
+
+		private long[] verticalSpanTree; // 1-based
+
+		private int[] maxWidths; // prefix maxima
+
+		private int[] maxHeights; // prefix maxima
+
+		private static final int INITIAL_CAPACITY = 16;
+
+		public ExtentIndex() {
+			allocate(INITIAL_CAPACITY);
+		}
+
+		public void append(int width, int height, Insets margin) {
+			ensureCapacity(size + 1);
+			int i = size;
+			widths[i] = width;
+			heights[i] = height;
+			maxWidths[i] = i > 0 ? Math.max(maxWidths[i - 1], width) : width;
+			maxHeights[i] = i > 0 ? Math.max(maxHeights[i - 1], height) : height;
+			appendToTree(horizontalSpanTree, margin.left + width + margin.right);
+			appendToTree(verticalSpanTree, margin.top + height + margin.bottom);
+			size++;
+		}
+
+		private void appendToTree(long[] tree, long span) {
+			int k = size + 1;
+			int lowest = k & -k;
+			tree[k] = span + prefixSum(tree, k - 1) - prefixSum(tree, k - lowest);
+		}
+
+		public void truncate(int size) {
+			this.size = Math.max(0, Math.min(size, this.size));
+		}
+
+		/**
+		 * Returns the sum of the spans of all items before the item at <code>index</code>
+		 */
+		public long getSpanBefore(int index, boolean horizontal) {
+			return prefixSum(horizontal ? horizontalSpanTree : verticalSpanTree, index);
+		}
+
+		public long getTotalSpan(boolean horizontal) {
+			return getSpanBefore(size, horizontal);
+		}
+
+		private static long prefixSum(long[] tree, int count) {
+			long sum = 0;
+			for (int k = count; k > 0; k -= k & -k) {
+				sum += tree[k];
+			}
+			return sum;
+		}
+
+		public int getMaxWidth() {
+			return size > 0 ? maxWidths[size - 1] : 0;
+		}
+
+		public int getMaxHeight() {
+			return size > 0 ? maxHeights[size - 1] : 0;
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > widths.length) {
+				int[] oldWidths = widths;
+				int[] oldHeights = heights;
+				long[] oldHorizontalSpanTree = horizontalSpanTree;
+				long[] oldVerticalSpanTree = verticalSpanTree;
+				int[] oldMaxWidths = maxWidths;
+				int[] oldMaxHeights = maxHeights;
+				allocate(Math.max(capacity, 2 * oldWidths.length));
+				System.arraycopy(oldWidths, 0, widths, 0, size);
+				System.arraycopy(oldHeights, 0, heights, 0, size);
+				System.arraycopy(oldHorizontalSpanTree, 0, horizontalSpanTree, 0, size + 1);
+				System.arraycopy(oldVerticalSpanTree, 0, verticalSpanTree, 0, size + 1);
+				System.arraycopy(oldMaxWidths, 0, maxWidths, 0, size);
+				System.arraycopy(oldMaxHeights, 0, maxHeights, 0, size);
+			}
+		}
+
+		private void allocate(int capacity) {
+			widths = new int[capacity];
+			heights = new int[capacity];
+			horizontalSpanTree = new long[capacity + 1];
+			verticalSpanTree = new long[capacity + 1];
+			maxWidths = new int[capacity];
+			maxHeights = new int[capacity];
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public int getWidth(int index) {
+			return widths[index];
+		}
+
+		public int getHeight(int index) {
+			return heights[index];
+		}
+
+	}
+
+}
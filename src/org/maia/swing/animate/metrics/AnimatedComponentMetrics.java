@@ -0,0 +1,184 @@
+package org.maia.swing.animate.metrics;
+
+/**
+ * Frame pacing metrics of a single animated component.
+ * <p>
+ * Metrics are recorded on the event dispatch thread without allocating objects. They can be read from any thread,
+ * in which case the values are approximate.
+ * </p>
+ */
+public class AnimatedComponentMetrics implements AnimatedComponentMetricsMBean {
+
+	private String componentName;
+
+	private int refreshRate;
+
+	private FrameTimeHistogram paintDurations;
+
+	private FrameTimeHistogram frameIntervals;
+
+	private FrameTimeHistogram eventQueueLatencies;
+
+	private long paintCount;
+
+	private long missedDeadlineCount;
+
+	private long backBufferRecreationCount;
+
+	private long lastFrameStartNanos = -1L;
+
+	/**
+	 * A frame interval exceeding the nominal interval by this factor counts as a missed deadline
+	 */
+	public static double missedDeadlineFactor = 1.5;
+
+	public AnimatedComponentMetrics(String componentName) {
+		this.componentName = componentName;
+		this.paintDurations = new FrameTimeHistogram();
+		this.frameIntervals = new FrameTimeHistogram();
+		this.eventQueueLatencies = new FrameTimeHistogram();
+	}
+
+	/**
+	 * Records a paint of the component
+	 * 
+	 * @param startNanos
+	 *            The start time of the paint, as per <code>System.nanoTime()</code>
+	 * @param durationNanos
+	 *            The duration of the paint
+	 * @param refreshRate
+	 *            The requested refresh rate, in paints per second, or 0 when the component is not painted periodically
+	 */
+	public void recordPaint(long startNanos, long durationNanos, int refreshRate) {
+		paintCount++;
+		this.refreshRate = refreshRate;
+		getPaintDurations().record(durationNanos);
+		if (lastFrameStartNanos >= 0L && refreshRate > 0) {
+			long interval = startNanos - lastFrameStartNanos;
+			getFrameIntervals().record(interval);
+			if (interval > missedDeadlineFactor * 1000000000.0 / refreshRate) {
+				missedDeadlineCount++;
+			}
+		}
+		lastFrameStartNanos = refreshRate > 0 ? startNanos : -1L;
+	}
+
+	/**
+	 * Makes the next paint not count as a frame interval, typically because painting was suspended
+	 */
+	public void interruptFrameSequence() {
+		lastFrameStartNanos = -1L;
+	}
+
+	/**
+	 * Records the time a paint request waited in the event queue before being dispatched
+	 */
+	public void recordEventQueueLatency(long nanos) {
+		getEventQueueLatencies().record(nanos);
+	}
+
+	public void recordBackBufferRecreation() {
+		backBufferRecreationCount++;
+	}
+
+	@Override
+	public void reset() {
+		paintCount = 0L;
+		missedDeadlineCount = 0L;
+		backBufferRecreationCount = 0L;
+		getPaintDurations().reset();
+		getFrameIntervals().reset();
+		getEventQueueLatencies().reset();
+	}
+
+	@Override
+	public String toString() {
+		return "Paints: " + getPaintCount() + ", missed deadlines: " + getMissedDeadlineCount() + ", paint ms: "
+				+ formatMillis(getMeanPaintDurationMillis()) + " (max " + formatMillis(getMaximumPaintDurationMillis())
+				+ "), interval ms: " + formatMillis(getMeanFrameIntervalMillis()) + " (max "
+				+ formatMillis(getMaximumFrameIntervalMillis()) + "), queue ms: "
+				+ formatMillis(getMeanEventQueueLatencyMillis()) + ", back buffers: " + getBackBufferRecreationCount();
+	}
+
+	private static String formatMillis(double millis) {
+		return String.valueOf(Math.round(millis * 100.0) / 100.0);
+	}
+
+	@Override
+	public String getComponentName() {
+		return componentName;
+	}
+
+	@Override
+	public int getRefreshRate() {
+		return refreshRate;
+	}
+
+	@Override
+	public long getPaintCount() {
+		return paintCount;
+	}
+
+	@Override
+	public long getMissedDeadlineCount() {
+		return missedDeadlineCount;
+	}
+
+	@Override
+	public long getBackBufferRecreationCount() {
+		return backBufferRecreationCount;
+	}
+
+	@Override
+	public double getMeanPaintDurationMillis() {
+		return getPaintDurations().getMeanMillis();
+	}
+
+	@Override
+	public double getMaximumPaintDurationMillis() {
+		return getPaintDurations().getMaximumMillis();
+	}
+
+	@Override
+	public double getPaintDurationMillis95thPercentile() {
+		return getPaintDurations().getPercentileMillis(95.0);
+	}
+
+	@Override
+	public double getMeanFrameIntervalMillis() {
+		return getFrameIntervals().getMeanMillis();
+	}
+
+	@Override
+	public double getMaximumFrameIntervalMillis() {
+		return getFrameIntervals().getMaximumMillis();
+	}
+
+	@Override
+	public double getFrameIntervalMillis95thPercentile() {
+		return getFrameIntervals().getPercentileMillis(95.0);
+	}
+
+	@Override
+	public double getMeanEventQueueLatencyMillis() {
+		return getEventQueueLatencies().getMeanMillis();
+	}
+
+	@Override
+	public double getMaximumEventQueueLatencyMillis() {
+		return getEventQueueLatencies().getMaximumMillis();
+	}
+
+	public FrameTimeHistogram getPaintDurations() {
+		return paintDurations;
+	}
+
+	public FrameTimeHistogram getFrameIntervals() {
+		return frameIntervals;
+	}
+
+	public FrameTimeHistogram getEventQueueLatencies() {
+		return eventQueueLatencies;
+	}
+
+}
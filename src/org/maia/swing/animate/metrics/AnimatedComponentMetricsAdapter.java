@@ -0,0 +1,23 @@
+package org.maia.swing.animate.metrics;
+
+public class AnimatedComponentMetricsAdapter implements AnimatedComponentMetricsListener {
+
+	public AnimatedComponentMetricsAdapter() {
+	}
+
+	@Override
+	public void notifyMetricsRegistered(AnimatedComponentMetrics metrics) {
+		// Subclasses may override
+	}
+
+	@Override
+	public void notifyMetricsUnregistered(AnimatedComponentMetrics metrics) {
+		// Subclasses may override
+	}
+
+	@Override
+	public void notifyMetricsReported(AnimatedComponentMetrics metrics, long periodMillis, String periodSummary) {
+		// Subclasses may override
+	}
+
+}
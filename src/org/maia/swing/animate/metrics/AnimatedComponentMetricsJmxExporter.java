@@ -0,0 +1,81 @@
+package org.maia.swing.animate.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exposes the metrics of every registered animated component as an MBean on the platform MBean server.
+ * <p>
+ * Usage: <code>AnimatedComponentMetricsRegistry.getInstance().addListener(new AnimatedComponentMetricsJmxExporter())</code>
+ * </p>
+ */
+public class AnimatedComponentMetricsJmxExporter extends AnimatedComponentMetricsAdapter {
+
+	private MBeanServer server;
+
+	private String domain;
+
+	private Map<AnimatedComponentMetrics, ObjectName> objectNames;
+
+	public static final String DEFAULT_DOMAIN = "org.maia.swing";
+
+	public AnimatedComponentMetricsJmxExporter() {
+		this(DEFAULT_DOMAIN);
+	}
+
+	public AnimatedComponentMetricsJmxExporter(String domain) {
+		this(ManagementFactory.getPlatformMBeanServer(), domain);
+	}
+
+	public AnimatedComponentMetricsJmxExporter(MBeanServer server, String domain) {
+		this.server = server;
+		this.domain = domain;
+		this.objectNames = new IdentityHashMap<AnimatedComponentMetrics, ObjectName>();
+	}
+
+	@Override
+	public synchronized void notifyMetricsRegistered(AnimatedComponentMetrics metrics) {
+		try {
+			ObjectName name = createObjectName(metrics);
+			getServer().registerMBean(metrics, name);
+			getObjectNames().put(metrics, name);
+		} catch (JMException e) {
+			// metrics remain unexposed, such as when the name is already in use
+		}
+	}
+
+	@Override
+	public synchronized void notifyMetricsUnregistered(AnimatedComponentMetrics metrics) {
+		ObjectName name = getObjectNames().remove(metrics);
+		if (name != null) {
+			try {
+				getServer().unregisterMBean(name);
+			} catch (JMException e) {
+				// no longer registered
+			}
+		}
+	}
+
+	protected ObjectName createObjectName(AnimatedComponentMetrics metrics) throws JMException {
+		String name = metrics.getComponentName() + "@" + Integer.toHexString(System.identityHashCode(metrics));
+		return new ObjectName(getDomain() + ":type=AnimatedComponent,name=" + ObjectName.quote(name));
+	}
+
+	public MBeanServer getServer() {
+		return server;
+	}
+
+	public String getDomain() {
+		return domain;
+	}
+
+	private Map<AnimatedComponentMetrics, ObjectName> getObjectNames() {
+		return objectNames;
+	}
+
+}
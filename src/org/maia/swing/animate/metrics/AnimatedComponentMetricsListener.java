@@ -0,0 +1,23 @@
+package org.maia.swing.animate.metrics;
+
+import org.maia.util.GenericListener;
+
+public interface AnimatedComponentMetricsListener extends GenericListener {
+
+	void notifyMetricsRegistered(AnimatedComponentMetrics metrics);
+
+	void notifyMetricsUnregistered(AnimatedComponentMetrics metrics);
+
+	/**
+	 * Notifies the end of a reporting period of a component. Invoked on the event dispatch thread
+	 * 
+	 * @param metrics
+	 *            The metrics of the component, accumulated since registration or the last reset
+	 * @param periodMillis
+	 *            The duration of the reporting period
+	 * @param periodSummary
+	 *            A description of the paint counters over the reporting period
+	 */
+	void notifyMetricsReported(AnimatedComponentMetrics metrics, long periodMillis, String periodSummary);
+
+}
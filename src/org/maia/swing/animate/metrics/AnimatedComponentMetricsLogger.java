@@ -0,0 +1,34 @@
+package org.maia.swing.animate.metrics;
+
+import java.io.PrintStream;
+
+/**
+ * Prints the reported metrics of every animated component to a stream
+ */
+public class AnimatedComponentMetricsLogger extends AnimatedComponentMetricsAdapter {
+
+	private PrintStream out;
+
+	public AnimatedComponentMetricsLogger() {
+		this(System.out);
+	}
+
+	public AnimatedComponentMetricsLogger(PrintStream out) {
+		this.out = out;
+	}
+
+	@Override
+	public void notifyMetricsReported(AnimatedComponentMetrics metrics, long periodMillis, String periodSummary) {
+		if (AnimatedComponentMetricsRegistry.getInstance().isEnabled()) {
+			getOut().println("[" + periodMillis + "ms] [" + metrics.getComponentName() + "] " + periodSummary + " | "
+					+ metrics);
+		} else {
+			getOut().println("[" + periodMillis + "ms] [" + metrics.getComponentName() + "] " + periodSummary);
+		}
+	}
+
+	public PrintStream getOut() {
+		return out;
+	}
+
+}
@@ -0,0 +1,36 @@
+package org.maia.swing.animate.metrics;
+
+/**
+ * Management interface of {@link AnimatedComponentMetrics}
+ */
+public interface AnimatedComponentMetricsMBean {
+
+	String getComponentName();
+
+	int getRefreshRate();
+
+	long getPaintCount();
+
+	long getMissedDeadlineCount();
+
+	long getBackBufferRecreationCount();
+
+	double getMeanPaintDurationMillis();
+
+	double getMaximumPaintDurationMillis();
+
+	double getPaintDurationMillis95thPercentile();
+
+	double getMeanFrameIntervalMillis();
+
+	double getMaximumFrameIntervalMillis();
+
+	double getFrameIntervalMillis95thPercentile();
+
+	double getMeanEventQueueLatencyMillis();
+
+	double getMaximumEventQueueLatencyMillis();
+
+	void reset();
+
+}
@@ -0,0 +1,115 @@
+package org.maia.swing.animate.metrics;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.maia.swing.animate.AnimatedComponent;
+import org.maia.util.GenericListenerList;
+
+/**
+ * Registry of the metrics of all animated components that are painted periodically.
+ * <p>
+ * Metrics are only recorded while the registry is enabled. Listeners get notified when metrics are registered,
+ * unregistered and reported.
+ * </p>
+ * 
+ * @see AnimatedComponentMetricsJmxExporter
+ * @see AnimatedComponentMetricsLogger
+ */
+public class AnimatedComponentMetricsRegistry {
+
+	private Map<AnimatedComponent, AnimatedComponentMetrics> metricsMap;
+
+	private GenericListenerList<AnimatedComponentMetricsListener> listeners;
+
+	private volatile boolean enabled;
+
+	private volatile boolean anyListeners;
+
+	private static AnimatedComponentMetricsRegistry instance;
+
+	static {
+		instance = new AnimatedComponentMetricsRegistry();
+	}
+
+	private AnimatedComponentMetricsRegistry() {
+		this.metricsMap = new IdentityHashMap<AnimatedComponent, AnimatedComponentMetrics>();
+		this.listeners = new GenericListenerList<AnimatedComponentMetricsListener>();
+	}
+
+	public static AnimatedComponentMetricsRegistry getInstance() {
+		return instance;
+	}
+
+	public synchronized void addListener(AnimatedComponentMetricsListener listener) {
+		getListeners().addListener(listener);
+		setAnyListeners(true);
+		for (AnimatedComponentMetrics metrics : getMetricsMap().values()) {
+			listener.notifyMetricsRegistered(metrics);
+		}
+	}
+
+	public synchronized void removeListener(AnimatedComponentMetricsListener listener) {
+		getListeners().removeListener(listener);
+		setAnyListeners(getListeners().iterator().hasNext());
+	}
+
+	public synchronized void register(AnimatedComponent component, AnimatedComponentMetrics metrics) {
+		if (!getMetricsMap().containsKey(component)) {
+			getMetricsMap().put(component, metrics);
+			for (AnimatedComponentMetricsListener listener : getListeners()) {
+				listener.notifyMetricsRegistered(metrics);
+			}
+		}
+	}
+
+	public synchronized void unregister(AnimatedComponent component) {
+		AnimatedComponentMetrics metrics = getMetricsMap().remove(component);
+		if (metrics != null) {
+			for (AnimatedComponentMetricsListener listener : getListeners()) {
+				listener.notifyMetricsUnregistered(metrics);
+			}
+		}
+	}
+
+	public synchronized AnimatedComponentMetrics getMetrics(AnimatedComponent component) {
+		return getMetricsMap().get(component);
+	}
+
+	public synchronized List<AnimatedComponentMetrics> getAllMetrics() {
+		return new ArrayList<AnimatedComponentMetrics>(getMetricsMap().values());
+	}
+
+	public void fireMetricsReported(AnimatedComponentMetrics metrics, long periodMillis, String periodSummary) {
+		for (AnimatedComponentMetricsListener listener : getListeners()) {
+			listener.notifyMetricsReported(metrics, periodMillis, periodSummary);
+		}
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean hasListeners() {
+		return anyListeners;
+	}
+
+	private void setAnyListeners(boolean anyListeners) {
+		this.anyListeners = anyListeners;
+	}
+
+	private Map<AnimatedComponent, AnimatedComponentMetrics> getMetricsMap() {
+		return metricsMap;
+	}
+
+	private GenericListenerList<AnimatedComponentMetricsListener> getListeners() {
+		return listeners;
+	}
+
+}
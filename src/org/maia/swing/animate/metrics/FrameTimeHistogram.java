@@ -0,0 +1,113 @@
+package org.maia.swing.animate.metrics;
+
+/**
+ * Histogram of time durations with exponentially growing buckets, where bucket <em>i</em> holds durations in the
+ * range [2<sup>i</sup>, 2<sup>i+1</sup>) microseconds.
+ * <p>
+ * Recording a value does not allocate any objects, making it suitable for use on the painting hot path. The histogram
+ * is not synchronized, so values read while recording are approximate.
+ * </p>
+ */
+public class FrameTimeHistogram {
+
+	private long[] bucketCounts;
+
+	private long count;
+
+	private long sumNanos;
+
+	private long minimumNanos;
+
+	private long maximumNanos;
+
+	private static final int BUCKETS = 32;
+
+	public FrameTimeHistogram() {
+		this.bucketCounts = new long[BUCKETS];
+		reset();
+	}
+
+	public void record(long nanos) {
+		long n = Math.max(nanos, 0L);
+		getBucketCounts()[getBucketIndex(n)]++;
+		count++;
+		sumNanos += n;
+		if (n < minimumNanos) {
+			minimumNanos = n;
+		}
+		if (n > maximumNanos) {
+			maximumNanos = n;
+		}
+	}
+
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			getBucketCounts()[i] = 0L;
+		}
+		count = 0L;
+		sumNanos = 0L;
+		minimumNanos = Long.MAX_VALUE;
+		maximumNanos = 0L;
+	}
+
+	private static int getBucketIndex(long nanos) {
+		long micros = nanos / 1000L;
+		if (micros <= 0L) {
+			return 0;
+		} else {
+			return Math.min(63 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+		}
+	}
+
+	/**
+	 * Returns an estimate of the given percentile
+	 * 
+	 * @param percentile
+	 *            The percentile, in the range [0, 100]
+	 * @return The upper bound of the bucket holding the percentile, in milliseconds. Returns 0 when empty
+	 */
+	public double getPercentileMillis(double percentile) {
+		long n = getCount();
+		if (n == 0L)
+			return 0;
+		long rank = (long) Math.ceil(Math.max(Math.min(percentile, 100.0), 0) / 100.0 * n);
+		long cumulative = 0L;
+		for (int i = 0; i < BUCKETS; i++) {
+			cumulative += getBucketCounts()[i];
+			if (cumulative >= rank) {
+				return Math.min((1L << (i + 1)) / 1000.0, getMaximumMillis());
+			}
+		}
+		return getMaximumMillis();
+	}
+
+	public long getBucketCount(int bucketIndex) {
+		return getBucketCounts()[bucketIndex];
+	}
+
+	public int getNumberOfBuckets() {
+		return BUCKETS;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getMeanMillis() {
+		long n = getCount();
+		return n == 0L ? 0 : sumNanos / (double) n / 1000000.0;
+	}
+
+	public double getMinimumMillis() {
+		return getCount() == 0L ? 0 : minimumNanos / 1000000.0;
+	}
+
+	public double getMaximumMillis() {
+		return maximumNanos / 1000000.0;
+	}
+
+	private long[] getBucketCounts() {
+		return bucketCounts;
+	}
+
+}
@@ -4,8 +4,12 @@ import java.awt.AlphaComposite;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 
 import javax.swing.JComponent;
 
@@ -33,8 +37,17 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 
 	private boolean lastAnimating;
 
+	private boolean snapshotFadingEnabled = defaultSnapshotFadingEnabled;
+
 	private GenericListenerList<ColorOverlayListener> listeners;
 
+	/**
+	 * When <code>true</code>, fades are painted from a snapshot of the content taken when the fade starts
+	 * 
+	 * @see #setSnapshotFadingEnabled(boolean)
+	 */
+	public static boolean defaultSnapshotFadingEnabled = false;
+
 	private static final double MINIMUM_TRANSLUCENCY = 0; // opaque color
 
 	private static final double MAXIMUM_TRANSLUCENCY = 1.0; // transparently showing content
@@ -112,6 +125,7 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 				setTargetTime(now + Math.max(durationMillis, 0L) * 1000000L);
 				setTargetTranslucency(translucency);
 			}
+			wakeUp();
 		}
 	}
 
@@ -199,6 +213,11 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 		return getTranslucency() != getTargetTranslucency();
 	}
 
+	@Override
+	public boolean isIdle() {
+		return super.isIdle() && getContent().isIdle(this);
+	}
+
 	public boolean isAnimatingToFullTranslucency() {
 		return isAnimating() && getTargetTranslucency() == MAXIMUM_TRANSLUCENCY;
 	}
@@ -232,6 +251,23 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 		refreshUI();
 	}
 
+	public boolean isSnapshotFadingEnabled() {
+		return snapshotFadingEnabled;
+	}
+
+	/**
+	 * Sets whether fades are painted from a snapshot of the content.
+	 * <p>
+	 * When enabled, the content is rendered once into an image when a fade starts. Until the fade completes, every
+	 * frame blends that image with the overlay color, and the content itself is not painted. Changes to the content
+	 * therefore only show after the fade.
+	 * </p>
+	 */
+	public void setSnapshotFadingEnabled(boolean enabled) {
+		this.snapshotFadingEnabled = enabled;
+		refreshUI();
+	}
+
 	public JComponent getContentComponent() {
 		return getContent().getUI();
 	}
@@ -305,6 +341,8 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 
 		private boolean paintOptimized;
 
+		private BufferedImage contentSnapshot; // during a fade, when snapshot fading is enabled
+
 		public ColorOverlayPanel(Dimension size, Color background) {
 			super(size, background);
 		}
@@ -329,19 +367,64 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 
 		@Override
 		protected void doPaintComponent(Graphics2D g) {
-			boolean optimized = isPaintOptimized(g);
+			boolean fromSnapshot = isSnapshotFadingEnabled() && isAnimating();
+			boolean optimized = isPaintOptimized(g) && !fromSnapshot;
 			if (!optimized || isFullyOpaque()) {
 				paintBackground(g);
 			}
+			setPaintOptimized(optimized);
+			getContent().update(ColorOverlayComponent.this);
+			if (fromSnapshot) {
+				updateContentSnapshot(g);
+			} else {
+				releaseContentSnapshot();
+			}
 			float contentAlpha = (float) getTranslucency();
 			if (contentAlpha == 0f) {
 				g.setComposite(AlphaComposite.Dst);
 			} else {
 				g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, contentAlpha));
+				if (fromSnapshot) {
+					JComponent ui = getContentComponent();
+					g.drawImage(getContentSnapshot(), ui.getX(), ui.getY(), null);
+				}
+			}
+			// otherwise content will be painted via paintChildren()
+		}
+
+		@Override
+		protected void paintChildren(Graphics g) {
+			if (getContentSnapshot() == null) {
+				super.paintChildren(g);
+			}
+		}
+
+		private void updateContentSnapshot(Graphics2D g) {
+			JComponent ui = getContentComponent();
+			int w = Math.max(ui.getWidth(), 1);
+			int h = Math.max(ui.getHeight(), 1);
+			BufferedImage snapshot = getContentSnapshot();
+			if (snapshot == null || snapshot.getWidth() != w || snapshot.getHeight() != h) {
+				releaseContentSnapshot();
+				GraphicsConfiguration gc = g.getDeviceConfiguration();
+				if (gc != null) {
+					snapshot = gc.createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+				} else {
+					snapshot = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+				}
+				Graphics2D gs = snapshot.createGraphics();
+				gs.setRenderingHints(g.getRenderingHints());
+				ui.paint(gs);
+				gs.dispose();
+				setContentSnapshot(snapshot);
+			}
+		}
+
+		private void releaseContentSnapshot() {
+			if (getContentSnapshot() != null) {
+				getContentSnapshot().flush();
+				setContentSnapshot(null);
 			}
-			setPaintOptimized(optimized);
-			getContent().update(ColorOverlayComponent.this);
-			// content will be painted via paintChildren()
 		}
 
 		@Override
@@ -358,6 +441,14 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 			this.paintOptimized = optimized;
 		}
 
+		private BufferedImage getContentSnapshot() {
+			return contentSnapshot;
+		}
+
+		private void setContentSnapshot(BufferedImage snapshot) {
+			this.contentSnapshot = snapshot;
+		}
+
 	}
 
 	private static abstract class Content {
@@ -373,6 +464,10 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 			// Subclasses to override
 		}
 
+		public boolean isIdle(ColorOverlayComponent overlay) {
+			return true;
+		}
+
 		public JComponent getUI() {
 			return ui;
 		}
@@ -403,6 +498,11 @@ public class ColorOverlayComponent extends BaseAnimatedComponent {
 			getComponent().notifyObscured(obscured); // when true, causes full repaint
 		}
 
+		@Override
+		public boolean isIdle(ColorOverlayComponent overlay) {
+			return overlay.isFullyOpaque(); // content is painted by the overlay, so only when hidden
+		}
+
 		public AnimatedComponent getComponent() {
 			return component;
 		}
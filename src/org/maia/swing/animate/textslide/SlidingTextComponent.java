@@ -5,6 +5,9 @@ import java.awt.Dimension;
 import java.awt.Font;
 import java.awt.Insets;
 import java.awt.Rectangle;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Future;
 
 import org.maia.swing.animate.itemslide.SlidingCursorMovement;
 import org.maia.swing.animate.itemslide.SlidingItem;
@@ -18,6 +21,8 @@ import org.maia.swing.text.TextLabel;
 
 public class SlidingTextComponent extends SlidingItemListComponent {
 
+	private volatile Future<?> textLayout; // nullable, while lines are still being added asynchronously
+
 	SlidingTextComponent(Dimension size, Insets padding, Color background) {
 		super(size, padding, background, SlidingCursorMovement.NONE);
 		setLayoutManager(SlidingItemLayoutManagerFactory.createVerticallySlidingTopAlignedLayout(this,
@@ -26,6 +31,7 @@ public class SlidingTextComponent extends SlidingItemListComponent {
 	}
 
 	public void removeAllTextLines() {
+		cancelTextLayout();
 		removeAllItems();
 		keepSlidingRangeFitToText();
 	}
@@ -43,6 +49,22 @@ public class SlidingTextComponent extends SlidingItemListComponent {
 		keepSlidingRangeFitToText();
 	}
 
+	/**
+	 * Adds text lines at the end, invalidating the layout only once
+	 */
+	public void addTextLines(List<TextLabel> lines) {
+		List<SlidingItem> items = new Vector<SlidingItem>(lines.size());
+		for (TextLabel line : lines) {
+			if (line != null) {
+				items.add(createTextLineItem(line, null, null));
+			}
+		}
+		if (!items.isEmpty()) {
+			addItems(items);
+			keepSlidingRangeFitToText();
+		}
+	}
+
 	public void addTextLinesFrom(SlidingTextComponent otherComp) {
 		addTextLinesFrom(otherComp, null);
 	}
@@ -148,6 +170,26 @@ public class SlidingTextComponent extends SlidingItemListComponent {
 		}
 	}
 
+	/**
+	 * Tells whether text lines are still being added, as the component was built asynchronously
+	 *
+	 * @see SlidingTextComponentBuilder#buildAsynchronously()
+	 */
+	public boolean isTextLayoutInProgress() {
+		return getTextLayout() != null;
+	}
+
+	/**
+	 * Stops adding text lines, when the component was built asynchronously. Lines already added are kept
+	 */
+	public void cancelTextLayout() {
+		Future<?> layout = getTextLayout();
+		if (layout != null) {
+			layout.cancel(false);
+			setTextLayout(null);
+		}
+	}
+
 	public boolean hasTextLines() {
 		return hasItems();
 	}
@@ -168,6 +210,14 @@ public class SlidingTextComponent extends SlidingItemListComponent {
 		return line;
 	}
 
+	Future<?> getTextLayout() {
+		return textLayout;
+	}
+
+	void setTextLayout(Future<?> layout) {
+		this.textLayout = layout;
+	}
+
 	public SlidingTextOutline createOutline(int thickness) {
 		return new SlidingTextOutline(this, thickness);
 	}
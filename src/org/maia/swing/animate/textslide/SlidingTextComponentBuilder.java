@@ -8,10 +8,14 @@ import java.awt.font.FontRenderContext;
 import java.awt.font.LineBreakMeasurer;
 import java.awt.font.TextAttribute;
 import java.text.AttributedString;
-import java.util.Collections;
 import java.util.List;
 import java.util.Vector;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
 
+import javax.swing.SwingUtilities;
+
+import org.maia.swing.animate.DaemonThreadFactory;
 import org.maia.swing.animate.itemslide.impl.SlidingShadeFactory;
 import org.maia.swing.layout.HorizontalAlignment;
 import org.maia.swing.text.TextLabel;
@@ -55,6 +59,22 @@ public class SlidingTextComponentBuilder implements Cloneable {
 
 	public static Insets defaultPadding = new Insets(4, 4, 4, 4);
 
+	/**
+	 * The number of text lines added at once to a component built asynchronously, after the first screenful
+	 *
+	 * @see #buildAsynchronously()
+	 */
+	public static int asynchronousBatchLines = 1000;
+
+	/**
+	 * The number of threads, shared by all builders, to wrap texts asynchronously
+	 *
+	 * @see #setLayoutExecutor(ExecutorService)
+	 */
+	public static int layoutExecutorThreads = 2;
+
+	private static ExecutorService layoutExecutor;
+
 	public SlidingTextComponentBuilder(String text) {
 		withText(text);
 		withFont(defaultFont);
@@ -96,17 +116,70 @@ public class SlidingTextComponentBuilder implements Cloneable {
 	}
 
 	public SlidingTextComponent build() {
+		SlidingTextComponent comp = createComponent();
+		final List<TextLabel> lineLabels = new Vector<TextLabel>();
+		createWrappedLineLabels(getWrappedLineWidth(), new LineLabelCollector() {
+
+			@Override
+			public void addLineLabel(TextLabel lineLabel) {
+				lineLabels.add(lineLabel);
+			}
+		});
+		comp.addTextLines(lineLabels);
+		comp.fitSlidingRangeToText();
+		return comp;
+	}
+
+	/**
+	 * Builds the component without wrapping the text on the calling thread.
+	 * <p>
+	 * The component is returned right away, still without text lines. The text is wrapped into lines on a worker
+	 * thread, and the lines are added to the component on the event dispatch thread as they become available. The
+	 * first screenful is added as soon as it is wrapped, the remaining lines in batches of
+	 * {@link #asynchronousBatchLines}. Later changes to this builder do not affect the lines being wrapped.
+	 * </p>
+	 *
+	 * @return The component, whose lines are still being added
+	 * @see SlidingTextComponent#isTextLayoutInProgress()
+	 * @see SlidingTextComponent#cancelTextLayout()
+	 * @see #setLayoutExecutor(ExecutorService)
+	 */
+	public SlidingTextComponent buildAsynchronously() {
+		SlidingTextComponent comp = createComponent();
+		int firstBatchLines = (int) Math.ceil(getLinesInView()) + 1;
+		TextLayoutTask task = new TextLayoutTask(clone(), comp, firstBatchLines);
+		comp.setTextLayout(task.getFuture());
+		getLayoutExecutor().execute(task.getFuture());
+		return comp;
+	}
+
+	/**
+	 * Sets the executor shared by all builders to wrap texts asynchronously
+	 *
+	 * @param executor
+	 *            The executor, or <code>null</code> to have a default executor created when needed
+	 * @see #layoutExecutorThreads
+	 */
+	public static synchronized void setLayoutExecutor(ExecutorService executor) {
+		layoutExecutor = executor;
+	}
+
+	private static synchronized ExecutorService getLayoutExecutor() {
+		if (layoutExecutor == null) {
+			layoutExecutor = DaemonThreadFactory.createExecutor(layoutExecutorThreads, "Sliding Text Layout ");
+		}
+		return layoutExecutor;
+	}
+
+	private SlidingTextComponent createComponent() {
 		Insets padding = getPadding();
-		int lineWidth = getLineWidth();
 		int lineHeight = TextLabel.getLineHeight(getFont()) + getInterLineSpacing();
 		int viewportHeight = Math.round(lineHeight * getLinesInView());
-		int compWidth = lineWidth + padding.left + padding.right;
+		int compWidth = getWrappedLineWidth() + padding.left + padding.right;
 		int compHeight = viewportHeight + padding.top + padding.bottom;
 		Dimension maxSize = getMaximumSize();
 		if (maxSize != null) {
-			compWidth = Math.min(compWidth, maxSize.width);
 			compHeight = Math.min(compHeight, maxSize.height);
-			lineWidth = compWidth - padding.left - padding.right;
 			viewportHeight = compHeight - padding.top - padding.bottom;
 		}
 		Dimension size = new Dimension(compWidth, compHeight);
@@ -115,65 +188,71 @@ public class SlidingTextComponentBuilder implements Cloneable {
 			int shadeLength = Math.min(Math.round(lineHeight * getLinesInOverflowGradient()), viewportHeight / 2);
 			comp.setShade(SlidingShadeFactory.createGradientShadeAbsoluteLength(comp, shadeLength));
 		}
-		List<TextLabel> lineLabels = createWrappedLineLabels(lineWidth);
-		for (int i = 0; i < lineLabels.size(); i++) {
-			TextLabel lineLabel = lineLabels.get(i);
-			lineLabel.setBackground(getBackgroundColor());
-			lineLabel.setForeground(getTextColor());
-			comp.addTextLine(lineLabel);
-		}
-		comp.fitSlidingRangeToText();
 		comp.setHigherQualityRenderingEnabled(isHigherQualityRenderingEnabled());
 		comp.setRepaintClientDriven(isRepaintClientDriven());
 		return comp;
 	}
 
-	private List<TextLabel> createWrappedLineLabels(int lineWidth) {
-		List<TextLabel> lineLabels = new Vector<TextLabel>();
+	private int getWrappedLineWidth() {
+		int lineWidth = getLineWidth();
+		Dimension maxSize = getMaximumSize();
+		if (maxSize != null) {
+			Insets padding = getPadding();
+			lineWidth = Math.min(lineWidth + padding.left + padding.right, maxSize.width) - padding.left
+					- padding.right;
+		}
+		return lineWidth;
+	}
+
+	private void createWrappedLineLabels(int lineWidth, LineLabelCollector collector) {
 		List<String> paragraphs = StringUtils.splitOnNewlines(getText());
 		int n = paragraphs.size();
-		for (int i = 0; i < n; i++) {
+		for (int i = 0; i < n && !collector.isCancelled(); i++) {
 			String paragraph = paragraphs.get(i);
 			boolean firstParagraph = i == 0;
 			boolean lastParagraph = i == n - 1;
 			int spaceBefore = firstParagraph ? getHeadSpacing() : getInterParagraphSpacing();
 			int spaceAfter = lastParagraph ? getTailSpacing() : 0;
-			lineLabels.addAll(createWrappedParagraphLineLabels(paragraph, spaceBefore, spaceAfter, lineWidth));
+			createWrappedParagraphLineLabels(paragraph, spaceBefore, spaceAfter, lineWidth, collector);
 		}
-		return lineLabels;
 	}
 
-	private List<TextLabel> createWrappedParagraphLineLabels(String paragraph, int paragraphSpaceBefore,
-			int paragraphSpaceAfter, int lineWidth) {
+	private void createWrappedParagraphLineLabels(String paragraph, int paragraphSpaceBefore,
+			int paragraphSpaceAfter, int lineWidth, LineLabelCollector collector) {
 		Font font = getFont();
 		HorizontalAlignment hAlign = getHorizontalAlignment();
 		if (!paragraph.isEmpty()) {
-			List<TextLabel> lineLabels = new Vector<TextLabel>();
 			FontRenderContext frc = TextLabel.getFontRenderContext(font);
 			AttributedString styledParagraph = new AttributedString(paragraph);
 			styledParagraph.addAttribute(TextAttribute.FONT, font);
 			LineBreakMeasurer measurer = new LineBreakMeasurer(styledParagraph.getIterator(), frc);
-			while (measurer.getPosition() < paragraph.length()) {
+			boolean firstLineInParagraph = true;
+			while (measurer.getPosition() < paragraph.length() && !collector.isCancelled()) {
 				int p0 = measurer.getPosition();
 				measurer.nextLayout(lineWidth);
 				int p1 = measurer.getPosition();
 				String line = paragraph.substring(p0, p1);
-				boolean firstLineInParagraph = lineLabels.isEmpty();
 				boolean lastLineInParagraph = p1 == paragraph.length();
 				int spaceBefore = firstLineInParagraph ? paragraphSpaceBefore : getInterLineSpacing();
 				int spaceAfter = lastLineInParagraph ? paragraphSpaceAfter : 0;
 				Insets insets = createLineInsets(spaceBefore, spaceAfter);
-				TextLabel lineLabel = TextLabel.createLineLabel(line, font, lineWidth, hAlign, insets);
-				lineLabels.add(lineLabel);
+				collector.addLineLabel(createLineLabel(line, font, lineWidth, hAlign, insets));
+				firstLineInParagraph = false;
 			}
-			return lineLabels;
 		} else {
 			Insets insets = createLineInsets(paragraphSpaceBefore, paragraphSpaceAfter);
-			TextLabel lineLabel = TextLabel.createLineLabel(paragraph, font, lineWidth, hAlign, insets);
-			return Collections.singletonList(lineLabel);
+			collector.addLineLabel(createLineLabel(paragraph, font, lineWidth, hAlign, insets));
 		}
 	}
 
+	private TextLabel createLineLabel(String line, Font font, int lineWidth, HorizontalAlignment hAlign,
+			Insets insets) {
+		TextLabel lineLabel = TextLabel.createLineLabel(line, font, lineWidth, hAlign, insets);
+		lineLabel.setBackground(getBackgroundColor());
+		lineLabel.setForeground(getTextColor());
+		return lineLabel;
+	}
+
 	private Insets createLineInsets(int spaceBefore, int spaceAfter) {
 		return new Insets(spaceBefore, 0, spaceAfter, 0);
 	}
@@ -399,4 +478,100 @@ public class SlidingTextComponentBuilder implements Cloneable {
 
 	}
 
+	private static abstract class LineLabelCollector {
+
+		protected LineLabelCollector() {
+		}
+
+		public abstract void addLineLabel(TextLabel lineLabel);
+
+		public boolean isCancelled() {
+			return false;
+		}
+
+	}
+
+	private static class TextLayoutTask extends LineLabelCollector implements Runnable {
+
+		private SlidingTextComponentBuilder builder;
+
+		private SlidingTextComponent component;
+
+		private FutureTask<Void> future;
+
+		private int firstBatchLines;
+
+		private List<TextLabel> batch;
+
+		private boolean firstBatch;
+
+		public TextLayoutTask(SlidingTextComponentBuilder builder, SlidingTextComponent component,
+				int firstBatchLines) {
+			this.builder = builder;
+			this.component = component;
+			this.future = new FutureTask<Void>(this, null);
+			this.firstBatchLines = firstBatchLines;
+			this.batch = new Vector<TextLabel>(firstBatchLines);
+			this.firstBatch = true;
+		}
+
+		@Override
+		public void run() {
+			try {
+				getBuilder().createWrappedLineLabels(getBuilder().getWrappedLineWidth(), this);
+			} finally {
+				addBatchToComponent(true);
+			}
+		}
+
+		@Override
+		public void addLineLabel(TextLabel lineLabel) {
+			batch.add(lineLabel);
+			if (batch.size() >= (firstBatch ? firstBatchLines : Math.max(asynchronousBatchLines, 1))) {
+				addBatchToComponent(false);
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return getFuture().isCancelled();
+		}
+
+		private void addBatchToComponent(final boolean lastBatch) {
+			final List<TextLabel> lineLabels = batch;
+			final boolean fitSlidingRange = firstBatch;
+			batch = new Vector<TextLabel>(Math.max(asynchronousBatchLines, 1));
+			firstBatch = false;
+			SwingUtilities.invokeLater(new Runnable() {
+
+				@Override
+				public void run() {
+					SlidingTextComponent comp = getComponent();
+					if (comp.getTextLayout() == getFuture()) {
+						comp.addTextLines(lineLabels);
+						if (fitSlidingRange) {
+							comp.fitSlidingRangeToText();
+						}
+						if (lastBatch) {
+							comp.setTextLayout(null);
+						}
+					}
+				}
+			});
+		}
+
+		private SlidingTextComponentBuilder getBuilder() {
+			return builder;
+		}
+
+		private SlidingTextComponent getComponent() {
+			return component;
+		}
+
+		public FutureTask<Void> getFuture() {
+			return future;
+		}
+
+	}
+
 }
\ No newline at end of file
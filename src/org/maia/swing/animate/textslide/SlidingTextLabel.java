@@ -108,6 +108,7 @@ public class SlidingTextLabel extends BaseAnimatedComponent {
 		}
 		setMinimumTranslation(minT);
 		setMaximumTranslation(maxT);
+		wakeUp();
 	}
 
 	private void resetTranslationRadialCoord() {
@@ -329,10 +330,7 @@ public class SlidingTextLabel extends BaseAnimatedComponent {
 		}
 
 		public double getTextWidth() {
-			Graphics2D g = createCompatibleGraphics(getFont());
-			double width = getTextBounds(getText(), g).getWidth();
-			g.dispose();
-			return width;
+			return getTextBounds(getText(), getFont()).getWidth();
 		}
 
 		@Override
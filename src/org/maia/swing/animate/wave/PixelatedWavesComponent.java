@@ -1,22 +1,36 @@
 package org.maia.swing.animate.wave;
 
+import java.awt.AlphaComposite;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
-import java.util.HashMap;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.maia.graphics2d.function.Function2D;
 import org.maia.graphics2d.function.PerpetualApproximatingFunction2D;
 import org.maia.graphics2d.function.PerpetualApproximatingFunction2D.ControlValueGenerator;
-import org.maia.graphics2d.image.ImageUtils;
 
 public class PixelatedWavesComponent extends WavesComponent {
 
 	private boolean antialiasingPixels;
 
+	private PixelatedRenderingMode renderingMode;
+
+	private static final int UNIT_WAVE_SAMPLES = 512;
+
+	private static final float[] UNIT_WAVE_HEIGHTS = createUnitWaveHeights(UNIT_WAVE_SAMPLES);
+
+	/**
+	 * The number of time modulator functions kept for waves that are no longer painted, beyond those of the current
+	 * waves
+	 */
+	public static int defaultMaximumTimeModulatorFunctions = 64;
+
 	public PixelatedWavesComponent(Dimension size, Color background) {
 		this(size, background, 1, 12);
 	}
@@ -48,6 +62,7 @@ public class PixelatedWavesComponent extends WavesComponent {
 		super(size, background);
 		setHigherQualityRenderingEnabled(false);
 		setAntialiasingPixels(true);
+		setRenderingMode(PixelatedRenderingMode.VECTOR);
 		getPanel().setPixelSizeFunction(PerpetualApproximatingFunction2D.createCubicApproximatingFunction(
 				new PixelSizeGenerator(minimumPixelSize, maximumPixelSize, pixelSizeInclination)));
 		getPanel().setMaximumWaveLagMillis(maximumWaveLagMillis);
@@ -58,6 +73,39 @@ public class PixelatedWavesComponent extends WavesComponent {
 		return new PixelatedWavesPanel(size, background);
 	}
 
+	/**
+	 * Returns the heights of one period of a wave of unit length and amplitude, sampled at regular intervals
+	 */
+	private static float[] createUnitWaveHeights(int samples) {
+		float[] heights = new float[samples + 1];
+		int steps = samples * 16;
+		int k = 0;
+		double px = 0, py = 0;
+		for (int i = 1; i <= steps; i++) {
+			double t = i / (double) steps;
+			double u = 1.0 - t;
+			double x = 3.0 * u * u * t * WAVE_CONTROL_X + 3.0 * u * t * t * (1.0 - WAVE_CONTROL_X) + t * t * t;
+			double y = 3.0 * u * t * (t - u) * WAVE_CONTROL_Y;
+			while (k <= samples && k / (double) samples <= x) {
+				double r = (k / (double) samples - px) / (x - px);
+				heights[k++] = (float) (py + r * (y - py));
+			}
+			px = x;
+			py = y;
+		}
+		while (k <= samples) {
+			heights[k++] = 0f;
+		}
+		return heights;
+	}
+
+	private static float getUnitWaveHeight(float phase) {
+		float f = phase * UNIT_WAVE_SAMPLES;
+		int k = Math.min((int) f, UNIT_WAVE_SAMPLES - 1);
+		float h0 = UNIT_WAVE_HEIGHTS[k];
+		return h0 + (f - k) * (UNIT_WAVE_HEIGHTS[k + 1] - h0);
+	}
+
 	@Override
 	protected PixelatedWavesPanel getPanel() {
 		return (PixelatedWavesPanel) super.getPanel();
@@ -72,23 +120,104 @@ public class PixelatedWavesComponent extends WavesComponent {
 		refreshUI();
 	}
 
+	@Override
+	public void clearWaves() {
+		getPanel().invalidateCaches();
+		super.clearWaves();
+	}
+
+	/**
+	 * Returns the number of bytes held by the canvas and other buffers that are reused between paints
+	 */
+	public long getCacheSizeInBytes() {
+		return getPanel().getCacheSizeInBytes();
+	}
+
+	public int getCachedTimeModulatorFunctionCount() {
+		return getPanel().getTimeModulatorFunctions().size();
+	}
+
+	/**
+	 * Returns the number of time modulator functions that were evicted as least recently used
+	 */
+	public long getCacheEvictionCount() {
+		return getPanel().getCacheEvictionCount();
+	}
+
+	/**
+	 * Returns the number of times the cached canvas or functions got dropped, because of a resize or cleared waves
+	 */
+	public long getCacheInvalidationCount() {
+		return getPanel().getCacheInvalidationCount();
+	}
+
+	public int getMaximumTimeModulatorFunctions() {
+		return getPanel().getMaximumTimeModulatorFunctions();
+	}
+
+	/**
+	 * Sets the number of time modulator functions kept beyond those of the current waves. Functions are evicted least
+	 * recently used first
+	 */
+	public void setMaximumTimeModulatorFunctions(int maximum) {
+		getPanel().setMaximumTimeModulatorFunctions(maximum);
+	}
+
+	public PixelatedRenderingMode getRenderingMode() {
+		return renderingMode;
+	}
+
+	public void setRenderingMode(PixelatedRenderingMode mode) {
+		if (mode == null)
+			throw new NullPointerException("rendering mode is null");
+		this.renderingMode = mode;
+		refreshUI();
+	}
+
 	@SuppressWarnings("serial")
 	protected class PixelatedWavesPanel extends WavesPanel {
 
 		private Function2D pixelSizeFunction; // evolves with time
 
-		private Map<Wave, Function2D> timeModulatorFunctions; // time lag per wave, evolves with time
+		private Map<Wave, Function2D> timeModulatorFunctions; // time lag per wave, evolves with time, in LRU order
+
+		private int maximumTimeModulatorFunctions;
+
+		private BufferedImage canvas; // shared by all pixel sizes, its top-left part in use
 
-		private Map<Integer, BufferedImage> canvasMap; // indexed by pixel size
+		private int canvasPanelWidth; // panel size for which the canvas was created
+
+		private int canvasPanelHeight;
+
+		private int canvasTop; // the canvas is transparent above this row
+
+		private float[][] surfaces; // by wave index, reused between paints
 
 		private long maximumWaveLagMillis;
 
 		private long elapsedTimeMillis;
 
+		private volatile boolean cachesInvalidated;
+
+		private long cacheEvictionCount;
+
+		private long cacheInvalidationCount;
+
 		public PixelatedWavesPanel(Dimension size, Color background) {
 			super(size, background);
-			this.timeModulatorFunctions = new HashMap<Wave, Function2D>();
-			this.canvasMap = new HashMap<Integer, BufferedImage>();
+			this.timeModulatorFunctions = new LinkedHashMap<Wave, Function2D>(16, 0.75f, true) {
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Wave, Function2D> eldest) {
+					if (size() > getMaximumTimeModulatorFunctions() + getWaveCount()) {
+						cacheEvictionCount++;
+						return true;
+					}
+					return false;
+				}
+			};
+			this.maximumTimeModulatorFunctions = defaultMaximumTimeModulatorFunctions;
+			this.surfaces = new float[0][];
 		}
 
 		@Override
@@ -97,20 +226,286 @@ public class PixelatedWavesComponent extends WavesComponent {
 			setElapsedTimeMillis(getElapsedTimeMillis() + elapsedTimeMillis);
 		}
 
+		@Override
+		protected void paintWaves(Graphics2D g) {
+			validateCaches();
+			if (PixelatedRenderingMode.SCANLINE.equals(getRenderingMode())) {
+				paintWavesScanline(g);
+			} else {
+				super.paintWaves(g);
+			}
+		}
+
 		@Override
 		protected void paintWave(Graphics2D g, Wave wave) {
-			BufferedImage canvas = getCanvasForPixelSize(getPixelSize(wave));
-			ImageUtils.makeFullyTransparent(canvas);
+			int pixelSize = getPixelSize(wave);
+			int cw = getCanvasWidth(pixelSize);
+			int ch = getCanvasHeight(pixelSize);
+			BufferedImage canvas = getCanvasOfSize(cw, ch);
 			Graphics2D cg = canvas.createGraphics();
+			cg.setComposite(AlphaComposite.Clear);
+			cg.fillRect(0, 0, cw, ch);
+			setCanvasTop(0);
+			cg.setComposite(AlphaComposite.SrcOver);
+			cg.clipRect(0, 0, cw, ch);
 			if (isAntialiasingPixels()) {
 				cg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 			} else {
 				cg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
 			}
-			cg.scale(canvas.getWidth(), canvas.getHeight());
+			cg.scale(cw, ch);
 			paintWaveNormalized(cg, wave);
 			cg.dispose();
-			g.drawImage(canvas, 0, 0, getWidth(), getHeight(), null);
+			g.drawImage(canvas, 0, 0, getWidth(), getHeight(), 0, 0, cw, ch, null);
+		}
+
+		/**
+		 * Paints the waves by rasterizing them column by column straight into the pixels of a canvas.
+		 * <p>
+		 * Without overlays in between waves, all waves are composited in a single pass onto a canvas the size of the
+		 * panel, from front to back so that every pixel is written about once, and the canvas is drawn unscaled. With
+		 * overlays, every wave is rasterized at its pixel size and scaled up by itself.
+		 * </p>
+		 */
+		protected void paintWavesScanline(Graphics2D g) {
+			if (hasWavesOverlays()) {
+				for (int i = 0; i < getWaveCount(); i++) {
+					paintWaveScanline(g, getWave(i));
+					paintOverWave(g, i);
+				}
+			} else {
+				paintWavesComposited(g);
+			}
+		}
+
+		private void paintWaveScanline(Graphics2D g, Wave wave) {
+			int pixelSize = getPixelSize(wave);
+			int cw = getCanvasWidth(pixelSize);
+			int ch = getCanvasHeight(pixelSize);
+			BufferedImage canvas = getCanvasOfSize(cw, ch);
+			int[] pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+			int scan = canvas.getWidth();
+			for (int y = 0; y < ch; y++) {
+				Arrays.fill(pixels, y * scan, y * scan + cw, 0);
+			}
+			setCanvasTop(0);
+			float[] surface = computeSurface(wave, cw, ch, getSurface(0, cw));
+			int color = premultiply(wave.getColor().getRGB());
+			boolean antialiasing = isAntialiasingPixels();
+			int top = ch;
+			for (int x = 0; x < cw; x++) {
+				float y = surface[x];
+				int row = 0;
+				if (y > 0f) {
+					row = (int) y;
+					if (row >= ch)
+						continue;
+					float coverage = row + 1 - y;
+					if (antialiasing) {
+						int i = row * scan + x;
+						pixels[i] = composite(pixels[i], color, Math.round(coverage * 256f));
+						top = Math.min(top, row++);
+					} else if (coverage < 0.5f) {
+						row++; // pixel center lies above the surface
+					}
+				}
+				top = Math.min(top, row);
+				for (int i = row * scan + x; row < ch; row++, i += scan) {
+					pixels[i] = color;
+				}
+			}
+			if (top < ch) {
+				int dy = toCanvasRow(top, ch, getHeight());
+				g.drawImage(canvas, 0, dy, getWidth(), getHeight(), 0, top, cw, ch, null);
+			}
+		}
+
+		private void paintWavesComposited(Graphics2D g) {
+			int w = getWidth();
+			int h = getHeight();
+			int n = getWaveCount();
+			if (n == 0 || w <= 0 || h <= 0)
+				return;
+			BufferedImage canvas = getCanvasOfSize(w, h);
+			int[] pixels = ((DataBufferInt) canvas.getRaster().getDataBuffer()).getData();
+			int scan = canvas.getWidth();
+			for (int y = getCanvasTop(); y < h; y++) {
+				Arrays.fill(pixels, y * scan, y * scan + w, 0);
+			}
+			float[][] waveSurfaces = new float[n][];
+			int[] widths = new int[n];
+			int[] heights = new int[n];
+			int[] colors = new int[n];
+			for (int k = 0; k < n; k++) {
+				Wave wave = getWave(k);
+				int pixelSize = getPixelSize(wave);
+				widths[k] = getCanvasWidth(pixelSize);
+				heights[k] = getCanvasHeight(pixelSize);
+				waveSurfaces[k] = computeSurface(wave, widths[k], heights[k], getSurface(k, widths[k]));
+				colors[k] = premultiply(wave.getColor().getRGB());
+			}
+			boolean antialiasing = isAntialiasingPixels();
+			int top = h;
+			for (int x = 0; x < w; x++) {
+				int limit = h; // rows from here on are opaque already
+				for (int k = n - 1; k >= 0 && limit > 0; k--) {
+					int cw = widths[k];
+					int ch = heights[k];
+					float y = waveSurfaces[k][Math.min((int) ((x + 0.5f) * cw / w), cw - 1)];
+					int bandStart = 0; // partially covered rows, when antialiasing
+					int solidStart = 0; // fully covered rows
+					int coverage = 0;
+					if (y > 0f) {
+						int row = (int) y;
+						if (row >= ch)
+							continue;
+						float c = row + 1 - y;
+						if (antialiasing) {
+							bandStart = toCanvasRow(row, ch, h);
+							solidStart = toCanvasRow(row + 1, ch, h);
+							coverage = Math.round(c * 256f);
+						} else {
+							bandStart = solidStart = toCanvasRow(c < 0.5f ? row + 1 : row, ch, h);
+						}
+					}
+					if (bandStart >= limit)
+						continue;
+					int color = colors[k];
+					int bandEnd = Math.min(solidStart, limit);
+					for (int row = bandStart, i = row * scan + x; row < bandEnd; row++, i += scan) {
+						pixels[i] = compositeUnder(pixels[i], color, coverage);
+					}
+					int under = 0, composited = color; // columns come in runs of equal pixels
+					for (int row = solidStart, i = row * scan + x; row < limit; row++, i += scan) {
+						int pixel = pixels[i];
+						if (pixel != under) {
+							under = pixel;
+							composited = compositeUnder(pixel, color, 256);
+						}
+						pixels[i] = composited;
+					}
+					top = Math.min(top, bandStart);
+					if ((color >>> 24) == 0xff) {
+						limit = Math.min(limit, solidStart);
+					}
+				}
+			}
+			setCanvasTop(top);
+			if (top < h) {
+				g.drawImage(canvas, 0, top, w, h, 0, top, w, h, null);
+			}
+		}
+
+		/**
+		 * Computes the surface of a wave for every column of a canvas
+		 *
+		 * @return The surface, as a row of the canvas with fraction, by column
+		 */
+		private float[] computeSurface(Wave wave, int cw, int ch, float[] surface) {
+			float tx = wave.getTranslationX();
+			float ty = wave.getTranslationY();
+			float wl = wave.getLength();
+			float wa = wave.getAmplitude();
+			for (int x = 0; x < cw; x++) {
+				float h = ty;
+				if (wl > 0f) {
+					float phase = ((x + 0.5f) / cw - tx) / wl;
+					h += wa * getUnitWaveHeight(phase - (float) Math.floor(phase));
+				}
+				surface[x] = h * ch;
+			}
+			return surface;
+		}
+
+		/**
+		 * Returns the first row of the panel that shows a row of a canvas when scaled up to the panel
+		 */
+		private int toCanvasRow(int row, int ch, int height) {
+			return Math.max(Math.min((int) Math.ceil(row * (double) height / ch - 0.5), height), 0);
+		}
+
+		private int premultiply(int argb) {
+			int a = argb >>> 24;
+			int r = ((argb >> 16) & 0xff) * a / 255;
+			int g = ((argb >> 8) & 0xff) * a / 255;
+			int b = (argb & 0xff) * a / 255;
+			return (a << 24) | (r << 16) | (g << 8) | b;
+		}
+
+		/**
+		 * Composites a premultiplied color under a premultiplied pixel
+		 *
+		 * @param coverage
+		 *            The fraction of the pixel covered by the color, in the range [0, 256]
+		 */
+		private int compositeUnder(int pixel, int color, int coverage) {
+			int da = pixel >>> 24;
+			if (da == 0xff)
+				return pixel;
+			int inv = ((255 - da) * coverage) >> 8;
+			int a = da + ((color >>> 24) * inv + 127) / 255;
+			int r = ((pixel >> 16) & 0xff) + (((color >> 16) & 0xff) * inv + 127) / 255;
+			int g = ((pixel >> 8) & 0xff) + (((color >> 8) & 0xff) * inv + 127) / 255;
+			int b = (pixel & 0xff) + ((color & 0xff) * inv + 127) / 255;
+			return (a << 24) | (r << 16) | (g << 8) | b;
+		}
+
+		/**
+		 * Composites a premultiplied color over a premultiplied pixel
+		 *
+		 * @param coverage
+		 *            The fraction of the pixel covered by the color, in the range [0, 256]
+		 */
+		private int composite(int pixel, int color, int coverage) {
+			int sa = ((color >>> 24) * coverage) >> 8;
+			int sr = (((color >> 16) & 0xff) * coverage) >> 8;
+			int sg = (((color >> 8) & 0xff) * coverage) >> 8;
+			int sb = ((color & 0xff) * coverage) >> 8;
+			int inv = 255 - sa;
+			int a = sa + ((pixel >>> 24) * inv + 127) / 255;
+			int r = sr + (((pixel >> 16) & 0xff) * inv + 127) / 255;
+			int g = sg + (((pixel >> 8) & 0xff) * inv + 127) / 255;
+			int b = sb + ((pixel & 0xff) * inv + 127) / 255;
+			return (a << 24) | (r << 16) | (g << 8) | b;
+		}
+
+		/**
+		 * Drops the cached functions of the waves at the next paint, typically because the waves were cleared
+		 */
+		public void invalidateCaches() {
+			cachesInvalidated = true;
+		}
+
+		private void validateCaches() {
+			boolean resized = getCanvas() != null
+					&& (getCanvasPanelWidth() != getWidth() || getCanvasPanelHeight() != getHeight());
+			if (resized) {
+				getCanvas().flush();
+				setCanvas(null);
+				setSurfaces(new float[0][]);
+				recordBackBufferRecreation();
+				cacheInvalidationCount++;
+			}
+			if (cachesInvalidated) {
+				cachesInvalidated = false;
+				getTimeModulatorFunctions().clear();
+				setSurfaces(new float[0][]);
+				cacheInvalidationCount++;
+			}
+		}
+
+		public long getCacheSizeInBytes() {
+			long bytes = 0L;
+			BufferedImage canvas = getCanvas();
+			if (canvas != null) {
+				bytes += (long) canvas.getWidth() * canvas.getHeight() * 4L;
+			}
+			for (float[] surface : getSurfaces()) {
+				if (surface != null) {
+					bytes += surface.length * 4L;
+				}
+			}
+			return bytes;
 		}
 
 		protected int getPixelSize(Wave wave) {
@@ -139,19 +534,78 @@ public class PixelatedWavesComponent extends WavesComponent {
 			return func;
 		}
 
-		private BufferedImage getCanvasForPixelSize(int pixelSize) {
-			BufferedImage image = getCanvasMap().get(pixelSize);
-			if (image == null) {
-				image = createCanvas(pixelSize);
-				getCanvasMap().put(pixelSize, image);
+		private int getCanvasWidth(int pixelSize) {
+			return Math.max(Math.round(getWidth() / (float) pixelSize), 1);
+		}
+
+		private int getCanvasHeight(int pixelSize) {
+			return Math.max(Math.round(getHeight() / (float) pixelSize), 1);
+		}
+
+		private BufferedImage getCanvasOfSize(int minimumWidth, int minimumHeight) {
+			BufferedImage image = getCanvas();
+			if (image == null || image.getWidth() < minimumWidth || image.getHeight() < minimumHeight) {
+				int width = Math.max(minimumWidth, image != null ? image.getWidth() : 0);
+				int height = Math.max(minimumHeight, image != null ? image.getHeight() : 0);
+				image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+				setCanvas(image);
+				setCanvasPanelWidth(getWidth());
+				setCanvasPanelHeight(getHeight());
 			}
 			return image;
 		}
 
-		private BufferedImage createCanvas(int pixelSize) {
-			int canvasWidth = Math.round(getWidth() / (float) pixelSize);
-			int canvasHeight = Math.round(getHeight() / (float) pixelSize);
-			return ImageUtils.createImage(canvasWidth, canvasHeight);
+		private float[] getSurface(int waveIndex, int minimumLength) {
+			if (getSurfaces().length <= waveIndex) {
+				setSurfaces(Arrays.copyOf(getSurfaces(), waveIndex + 1));
+			}
+			float[] surface = getSurfaces()[waveIndex];
+			if (surface == null || surface.length < minimumLength) {
+				surface = new float[minimumLength];
+				getSurfaces()[waveIndex] = surface;
+			}
+			return surface;
+		}
+
+		private BufferedImage getCanvas() {
+			return canvas;
+		}
+
+		private void setCanvas(BufferedImage canvas) {
+			this.canvas = canvas;
+			setCanvasTop(0);
+		}
+
+		private int getCanvasPanelWidth() {
+			return canvasPanelWidth;
+		}
+
+		private void setCanvasPanelWidth(int width) {
+			this.canvasPanelWidth = width;
+		}
+
+		private int getCanvasPanelHeight() {
+			return canvasPanelHeight;
+		}
+
+		private void setCanvasPanelHeight(int height) {
+			this.canvasPanelHeight = height;
+		}
+
+		private float[][] getSurfaces() {
+			return surfaces;
+		}
+
+		private void setSurfaces(float[][] surfaces) {
+			this.surfaces = surfaces;
+		}
+
+		private int getCanvasTop() {
+			return canvasTop;
+		}
+
+		private void setCanvasTop(int top) {
+			this.canvasTop = top;
 		}
 
 		public Function2D getPixelSizeFunction() {
@@ -166,8 +620,20 @@ public class PixelatedWavesComponent extends WavesComponent {
 			return timeModulatorFunctions;
 		}
 
-		private Map<Integer, BufferedImage> getCanvasMap() {
-			return canvasMap;
+		public int getMaximumTimeModulatorFunctions() {
+			return maximumTimeModulatorFunctions;
+		}
+
+		public void setMaximumTimeModulatorFunctions(int maximum) {
+			this.maximumTimeModulatorFunctions = Math.max(maximum, 0);
+		}
+
+		public long getCacheEvictionCount() {
+			return cacheEvictionCount;
+		}
+
+		public long getCacheInvalidationCount() {
+			return cacheInvalidationCount;
 		}
 
 		public long getMaximumWaveLagMillis() {
@@ -188,6 +654,21 @@ public class PixelatedWavesComponent extends WavesComponent {
 
 	}
 
+	public static enum PixelatedRenderingMode {
+
+		/**
+		 * Every wave is rendered as a vector shape onto a canvas, which is then scaled up
+		 */
+		VECTOR,
+
+		/**
+		 * Waves are rasterized column by column straight into the pixels of a canvas, which is then scaled up.
+		 * Antialiasing is by vertical coverage only
+		 */
+		SCANLINE;
+
+	}
+
 	private static class PixelSizeGenerator implements ControlValueGenerator {
 
 		private int minimumPixelSize;
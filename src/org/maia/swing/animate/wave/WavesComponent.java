@@ -4,9 +4,13 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics2D;
 import java.awt.Shape;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.GeneralPath;
+import java.awt.geom.Path2D;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.WeakHashMap;
 
 import org.maia.swing.animate.BaseAnimatedComponent;
 import org.maia.swing.animate.wave.impl.SimpleSlidingWaveDynamics;
@@ -19,6 +23,16 @@ public class WavesComponent extends BaseAnimatedComponent {
 
 	private List<Wave> waves; // ordered back to front
 
+	/**
+	 * The horizontal offset of the control points of the curve of a wave, relative to its length
+	 */
+	protected static final float WAVE_CONTROL_X = 0.477f;
+
+	/**
+	 * The vertical offset of the control points of the curve of a wave, relative to its amplitude
+	 */
+	protected static final float WAVE_CONTROL_Y = 0.550f * 2f * (float) Math.PI;
+
 	public WavesComponent(Dimension size, Color background) {
 		super(size, background);
 		this.waveDynamics = createDefaultWaveDynamics();
@@ -63,6 +77,10 @@ public class WavesComponent extends BaseAnimatedComponent {
 		refreshUI();
 	}
 
+	public boolean hasWavesOverlays() {
+		return !getWavesOverlays().isEmpty();
+	}
+
 	public int getWaveCount() {
 		return getWaves().size();
 	}
@@ -96,8 +114,11 @@ public class WavesComponent extends BaseAnimatedComponent {
 	@SuppressWarnings("serial")
 	protected class WavesPanel extends AnimatedPanel {
 
+		private Map<Wave, WaveShape> waveShapes;
+
 		public WavesPanel(Dimension size, Color background) {
 			super(size, background);
+			this.waveShapes = new WeakHashMap<Wave, WaveShape>();
 		}
 
 		@Override
@@ -131,24 +152,54 @@ public class WavesComponent extends BaseAnimatedComponent {
 		protected void paintWaves(Graphics2D g) {
 			for (int i = 0; i < getWaveCount(); i++) {
 				paintWave(g, getWave(i));
-				synchronized (getWavesOverlays()) {
-					for (WavesOverlay overlay : getWavesOverlays()) {
-						overlay.paintOverWave(g, i, WavesComponent.this);
-					}
+				paintOverWave(g, i);
+			}
+		}
+
+		protected void paintOverWave(Graphics2D g, int waveIndex) {
+			synchronized (getWavesOverlays()) {
+				for (WavesOverlay overlay : getWavesOverlays()) {
+					overlay.paintOverWave(g, waveIndex, WavesComponent.this);
 				}
 			}
 		}
 
 		protected void paintWave(Graphics2D g, Wave wave) {
-			Graphics2D gNorm = (Graphics2D) g.create();
-			gNorm.scale(getWidth(), getHeight());
-			paintWaveNormalized(gNorm, wave);
-			gNorm.dispose();
+			AffineTransform transform = g.getTransform();
+			Color color = g.getColor();
+			g.scale(getWidth(), getHeight());
+			paintWaveNormalized(g, wave);
+			g.setTransform(transform);
+			g.setColor(color);
 		}
 
 		protected void paintWaveNormalized(Graphics2D gNorm, Wave wave) {
 			gNorm.setColor(wave.getColor());
-			gNorm.fill(createShapeNormalized(wave));
+			float wa = wave.getAmplitude();
+			float wl = wave.getLength();
+			if (wa > 0f && wl > 0f) {
+				float fco = getFirstCurveOffset(wave);
+				float ty = wave.getTranslationY();
+				int periods = Math.max((int) Math.ceil((1f - fco) / wl), 1);
+				float depth = (Math.max(1f, ty + wa + 4f / getHeight()) - ty) / wa;
+				AffineTransform transform = gNorm.getTransform();
+				gNorm.translate(fco, ty);
+				gNorm.scale(wl, wa);
+				gNorm.fill(getWaveShape(wave, periods, depth));
+				gNorm.setTransform(transform);
+			} else {
+				gNorm.fill(createShapeNormalized(wave));
+			}
+		}
+
+		private Shape getWaveShape(Wave wave, int periods, float depth) {
+			WaveShape shape = getWaveShapes().get(wave);
+			if (shape == null || !shape.covers(periods, depth)) {
+				// with some slack, as length and amplitude may vary from frame to frame
+				shape = new WaveShape(periods + 1, depth * 1.5f);
+				getWaveShapes().put(wave, shape);
+			}
+			return shape.getPath();
 		}
 
 		private Shape createShapeNormalized(Wave wave) {
@@ -160,10 +211,10 @@ public class WavesComponent extends BaseAnimatedComponent {
 			GeneralPath path = new GeneralPath();
 			path.moveTo(wo, ty);
 			do {
-				float ctrly = 0.550f * wa * 2f * (float) Math.PI;
-				float ctrlx1 = wo + 0.477f * wl;
+				float ctrly = WAVE_CONTROL_Y * wa;
+				float ctrlx1 = wo + WAVE_CONTROL_X * wl;
 				float ctrly1 = ty - ctrly;
-				float ctrlx2 = wo + wl - 0.477f * wl;
+				float ctrlx2 = wo + wl - WAVE_CONTROL_X * wl;
 				float ctrly2 = ty + ctrly;
 				path.curveTo(ctrlx1, ctrly1, ctrlx2, ctrly2, wo + wl, ty);
 				wo += wl;
@@ -187,6 +238,58 @@ public class WavesComponent extends BaseAnimatedComponent {
 			}
 		}
 
+		private Map<Wave, WaveShape> getWaveShapes() {
+			return waveShapes;
+		}
+
+	}
+
+	/**
+	 * The shape of a wave in units of its length and amplitude, starting at the origin. Since the curve of a wave is
+	 * linear in both, one shape serves all frames through a transform
+	 */
+	private static class WaveShape {
+
+		private Path2D path;
+
+		private int periods;
+
+		private float depth;
+
+		public WaveShape(int periods, float depth) {
+			this.path = createPath(periods, depth);
+			this.periods = periods;
+			this.depth = depth;
+		}
+
+		private static Path2D createPath(int periods, float depth) {
+			Path2D path = new Path2D.Float(Path2D.WIND_NON_ZERO, periods * 3 + 4);
+			path.moveTo(0f, 0f);
+			for (int i = 0; i < periods; i++) {
+				path.curveTo(i + WAVE_CONTROL_X, -WAVE_CONTROL_Y, i + 1f - WAVE_CONTROL_X, WAVE_CONTROL_Y, i + 1f, 0f);
+			}
+			path.lineTo(periods, depth);
+			path.lineTo(0f, depth);
+			path.closePath();
+			return path;
+		}
+
+		public boolean covers(int periods, float depth) {
+			return periods <= getPeriods() && depth <= getDepth();
+		}
+
+		public Path2D getPath() {
+			return path;
+		}
+
+		public int getPeriods() {
+			return periods;
+		}
+
+		public float getDepth() {
+			return depth;
+		}
+
 	}
 
 }
\ No newline at end of file
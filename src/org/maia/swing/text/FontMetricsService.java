@@ -0,0 +1,185 @@
+package org.maia.swing.text;
+
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.font.FontRenderContext;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.maia.swing.SwingUtils;
+
+/**
+ * Service measuring fonts outside of painting, for a profile of rendering hints.
+ * <p>
+ * Measuring a font takes a graphics context, and creating one allocates a compatible image. The service keeps a single
+ * scratch graphics context and font render context per profile instead, and memoizes the font metrics of the most
+ * recently measured fonts. The service is thread-safe.
+ * </p>
+ *
+ * @see #getInstance()
+ */
+public class FontMetricsService {
+
+	private RenderingHints renderingHints;
+
+	private Graphics2D scratchGraphics;
+
+	private FontRenderContext fontRenderContext;
+
+	private Map<Font, FontMetrics> fontMetrics;
+
+	private static final int MAXIMUM_FONT_METRICS = 256;
+
+	private static Map<RenderingHints, FontMetricsService> instances = new HashMap<RenderingHints, FontMetricsService>();
+
+	@SuppressWarnings("serial")
+	private FontMetricsService(RenderingHints renderingHints) {
+		this.renderingHints = renderingHints;
+		this.scratchGraphics = SwingUtils.getDefaultGraphics();
+		this.scratchGraphics.addRenderingHints(renderingHints);
+		this.fontRenderContext = scratchGraphics.getFontRenderContext();
+		this.fontMetrics = new LinkedHashMap<Font, FontMetrics>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Font, FontMetrics> eldest) {
+				return size() > MAXIMUM_FONT_METRICS;
+			}
+		};
+	}
+
+	/**
+	 * Returns the service for text anti-aliasing, the profile in which {@link TextLabel}s paint their text
+	 */
+	public static FontMetricsService getInstance() {
+		return TextRenderingInstance.INSTANCE;
+	}
+
+	public static synchronized FontMetricsService getInstance(RenderingHints renderingHints) {
+		if (renderingHints == null)
+			throw new NullPointerException("rendering hints is null");
+		FontMetricsService instance = instances.get(renderingHints);
+		if (instance == null) {
+			RenderingHints profile = (RenderingHints) renderingHints.clone();
+			instance = new FontMetricsService(profile);
+			instances.put(profile, instance);
+		}
+		return instance;
+	}
+
+	public static RenderingHints createTextRenderingHints() {
+		return new RenderingHints(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+	}
+
+	public synchronized FontMetrics getFontMetrics(Font font) {
+		FontMetrics metrics = getFontMetricsMap().get(font);
+		if (metrics == null) {
+			metrics = getScratchGraphics().getFontMetrics(font);
+			getFontMetricsMap().put(font, metrics);
+		}
+		return metrics;
+	}
+
+	public int getLineHeight(Font font) {
+		return getFontMetrics(font).getHeight();
+	}
+
+	/**
+	 * Returns the font size at which a measure of a font comes closest to a target without exceeding it, unless the
+	 * measure cannot be met exactly when increasing the size from the initial estimate.
+	 * <p>
+	 * The size is estimated from the measure at size 100, assuming the measure is proportional to the size, and then
+	 * corrected by a galloping and binary search over whole sizes. The measure must not decrease with the size.
+	 * </p>
+	 *
+	 * @param font
+	 *            The font, whose size is irrelevant
+	 * @param target
+	 *            The targeted measure
+	 * @param measure
+	 *            The measure
+	 * @return The font size, a whole number
+	 */
+	public static float getFontSizeForMeasure(Font font, int target, FontMeasure measure) {
+		float ratio = measure.measure(font.deriveFont(100f)) / 100f;
+		if (ratio <= 0)
+			return font.getSize2D();
+		float fontSize = Math.round(target / ratio);
+		int m = measure.measure(font.deriveFont(fontSize));
+		if (m < target) {
+			// smallest larger size that meets the target
+			float lo = fontSize, hi = fontSize, step = 1f;
+			while ((m = measure.measure(font.deriveFont(hi = lo + step))) < target) {
+				lo = hi;
+				step *= 2f;
+			}
+			while (hi - lo > 1f) {
+				float mid = (float) Math.floor((lo + hi) / 2f);
+				int mm = measure.measure(font.deriveFont(mid));
+				if (mm < target) {
+					lo = mid;
+				} else {
+					hi = mid;
+					m = mm;
+				}
+			}
+			return m > target ? hi - 1f : hi;
+		} else if (m > target) {
+			// largest smaller size within the target
+			float lo = fontSize, hi = fontSize, step = 1f;
+			while ((lo = hi - step) > 0 && measure.measure(font.deriveFont(lo)) > target) {
+				hi = lo;
+				step *= 2f;
+			}
+			lo = Math.max(lo, 0);
+			while (hi - lo > 1f) {
+				float mid = (float) Math.floor((lo + hi) / 2f);
+				if (measure.measure(font.deriveFont(mid)) > target) {
+					hi = mid;
+				} else {
+					lo = mid;
+				}
+			}
+			return lo;
+		} else {
+			return fontSize;
+		}
+	}
+
+	public RenderingHints getRenderingHints() {
+		return (RenderingHints) renderingHints.clone();
+	}
+
+	public FontRenderContext getFontRenderContext() {
+		return fontRenderContext;
+	}
+
+	private Graphics2D getScratchGraphics() {
+		return scratchGraphics;
+	}
+
+	private Map<Font, FontMetrics> getFontMetricsMap() {
+		return fontMetrics;
+	}
+
+	/**
+	 * A measure of a font that does not decrease with the font size
+	 */
+	public static interface FontMeasure {
+
+		int measure(Font font);
+
+	}
+
+	/**
+	 * Holds the service for text anti-aliasing, created on first use
+	 */
+	private static class TextRenderingInstance {
+
+		static final FontMetricsService INSTANCE = getInstance(createTextRenderingHints());
+
+	}
+
+}
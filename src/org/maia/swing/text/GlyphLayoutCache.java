@@ -0,0 +1,241 @@
+package org.maia.swing.text;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
+import java.awt.geom.Rectangle2D;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of glyph layouts, keyed by text, font and font render context, and bounded by a number of layouts evicting the
+ * least recently used first.
+ * <p>
+ * Laying out the glyphs of a text is costly compared to drawing them, while the same texts get measured and drawn
+ * over and over when they are animated. Layouts are shared among all {@link TextLabel}s through the shared instance.
+ * The cache is thread-safe. Cached layouts must not be modified.
+ * </p>
+ *
+ * @see #getInstance()
+ */
+public class GlyphLayoutCache {
+
+	private Map<LayoutKey, GlyphLayout> layouts;
+
+	private int maximumLayouts;
+
+	private long hitCount;
+
+	private long missCount;
+
+	private long evictionCount;
+
+	public static int defaultMaximumLayouts = 4096;
+
+	private static GlyphLayoutCache instance;
+
+	static {
+		instance = new GlyphLayoutCache(defaultMaximumLayouts);
+	}
+
+	@SuppressWarnings("serial")
+	public GlyphLayoutCache(int maximumLayouts) {
+		this.maximumLayouts = Math.max(maximumLayouts, 1);
+		this.layouts = new LinkedHashMap<LayoutKey, GlyphLayout>(256, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<LayoutKey, GlyphLayout> eldest) {
+				if (size() > getMaximumLayouts()) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	public static GlyphLayoutCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the layout of a text in the font and font render context of a graphics context
+	 */
+	public GlyphLayout getLayout(String text, Graphics2D g) {
+		return getLayout(text, g.getFont(), g.getFontRenderContext());
+	}
+
+	public GlyphLayout getLayout(String text, Font font, FontRenderContext frc) {
+		LayoutKey key = new LayoutKey(text, font, frc);
+		synchronized (this) {
+			GlyphLayout layout = getLayouts().get(key);
+			if (layout != null) {
+				hitCount++;
+				return layout;
+			}
+			missCount++;
+		}
+		GlyphLayout layout = new GlyphLayout(text, font, frc); // outside the lock, may be computed twice
+		synchronized (this) {
+			getLayouts().put(key, layout);
+		}
+		return layout;
+	}
+
+	/**
+	 * Creates the layout of a text without caching it, typically for texts that are measured only once
+	 */
+	public static GlyphLayout createLayout(String text, Font font, FontRenderContext frc) {
+		return new GlyphLayout(text, font, frc);
+	}
+
+	public synchronized void clear() {
+		getLayouts().clear();
+	}
+
+	public synchronized void resetStatistics() {
+		hitCount = 0L;
+		missCount = 0L;
+		evictionCount = 0L;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "Cached glyph layouts: " + getLayoutCount() + " of " + getMaximumLayouts() + ", hits: " + getHitCount()
+				+ ", misses: " + getMissCount() + ", evictions: " + getEvictionCount();
+	}
+
+	public synchronized int getLayoutCount() {
+		return getLayouts().size();
+	}
+
+	public int getMaximumLayouts() {
+		return maximumLayouts;
+	}
+
+	public synchronized void setMaximumLayouts(int maximumLayouts) {
+		this.maximumLayouts = Math.max(maximumLayouts, 1);
+		while (getLayouts().size() > this.maximumLayouts) {
+			getLayouts().remove(getLayouts().keySet().iterator().next());
+			evictionCount++;
+		}
+	}
+
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	public long getMissCount() {
+		return missCount;
+	}
+
+	public long getEvictionCount() {
+		return evictionCount;
+	}
+
+	public double getHitRatio() {
+		long total = getHitCount() + getMissCount();
+		return total == 0L ? 0 : getHitCount() / (double) total;
+	}
+
+	private Map<LayoutKey, GlyphLayout> getLayouts() {
+		return layouts;
+	}
+
+	/**
+	 * The glyphs of a text laid out in a font and font render context, along with their measures
+	 */
+	public static class GlyphLayout {
+
+		private String text;
+
+		private Font font;
+
+		private FontRenderContext fontRenderContext;
+
+		private GlyphVector glyphVector;
+
+		private Rectangle2D visualBounds;
+
+		private double advance;
+
+		private GlyphLayout(String text, Font font, FontRenderContext frc) {
+			this.text = text;
+			this.font = font;
+			this.fontRenderContext = frc;
+			this.glyphVector = font.createGlyphVector(frc, text);
+			this.visualBounds = glyphVector.getVisualBounds();
+			this.advance = glyphVector.getLogicalBounds().getWidth();
+		}
+
+		public boolean matches(String text, Font font, FontRenderContext frc) {
+			return getText().equals(text) && getFont().equals(font) && getFontRenderContext().equals(frc);
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public Font getFont() {
+			return font;
+		}
+
+		public FontRenderContext getFontRenderContext() {
+			return fontRenderContext;
+		}
+
+		public GlyphVector getGlyphVector() {
+			return glyphVector;
+		}
+
+		/**
+		 * Returns the visual bounds of the glyphs, relative to the baseline origin. The returned rectangle must not be
+		 * modified
+		 */
+		public Rectangle2D getVisualBounds() {
+			return visualBounds;
+		}
+
+		public double getAdvance() {
+			return advance;
+		}
+
+	}
+
+	private static class LayoutKey {
+
+		private String text;
+
+		private Font font;
+
+		private FontRenderContext fontRenderContext;
+
+		private int hashCode;
+
+		public LayoutKey(String text, Font font, FontRenderContext frc) {
+			this.text = text;
+			this.font = font;
+			this.fontRenderContext = frc;
+			this.hashCode = (text.hashCode() * 31 + font.hashCode()) * 31 + frc.hashCode();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			LayoutKey other = (LayoutKey) obj;
+			return hashCode == other.hashCode && text.equals(other.text) && font.equals(other.font)
+					&& fontRenderContext.equals(other.fontRenderContext);
+		}
+
+	}
+
+}
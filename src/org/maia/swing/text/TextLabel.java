@@ -12,6 +12,7 @@ import java.awt.Insets;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.font.FontRenderContext;
+import java.awt.font.GlyphVector;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
 
@@ -24,6 +25,8 @@ import org.maia.swing.SwingUtils;
 import org.maia.swing.border.ClippingBorder;
 import org.maia.swing.layout.FillMode;
 import org.maia.swing.layout.HorizontalAlignment;
+import org.maia.swing.text.FontMetricsService.FontMeasure;
+import org.maia.swing.text.GlyphLayoutCache.GlyphLayout;
 import org.maia.util.ColorUtils;
 
 @SuppressWarnings("serial")
@@ -51,6 +54,10 @@ public class TextLabel extends JComponent {
 
 	private Image pristineLeadingFadeImage;
 
+	private GlyphLayout glyphLayout; // of the most recently measured or painted text
+
+	private boolean abbreviating; // candidate abbreviations are not cached
+
 	private static final int absoluteMaximumFadeWidth = 200;
 
 	public TextLabel(String text, Font font, Dimension preferredSize) {
@@ -77,9 +84,7 @@ public class TextLabel extends JComponent {
 	}
 
 	private static Dimension getCompactSize(String text, Font font, Insets insets) {
-		Graphics2D g = createCompatibleGraphics(font);
-		Dimension size = getTextSize(text, g);
-		g.dispose();
+		Dimension size = getTextSize(text, font);
 		if (insets != null) {
 			size.setSize(size.width + insets.left + insets.right, size.height + insets.top + insets.bottom);
 		}
@@ -118,10 +123,7 @@ public class TextLabel extends JComponent {
 	}
 
 	public static FontRenderContext getFontRenderContext(Font font) {
-		Graphics2D g = createCompatibleGraphics(font);
-		FontRenderContext frc = g.getFontRenderContext();
-		g.dispose();
-		return frc;
+		return getFontMetricsService().getFontRenderContext();
 	}
 
 	protected static Graphics2D createCompatibleGraphics(Font font) {
@@ -136,87 +138,89 @@ public class TextLabel extends JComponent {
 	}
 
 	public static int getLineHeight(Font font) {
-		Graphics2D g = createCompatibleGraphics(font);
-		int lineHeight = g.getFontMetrics().getHeight();
-		g.dispose();
-		return lineHeight;
+		return getFontMetricsService().getLineHeight(font);
 	}
 
 	public static int getLineWidth(Font font, String text) {
-		Graphics2D g = createCompatibleGraphics(font);
-		int lineWidth = getTextSize(text, g).width;
-		g.dispose();
-		return lineWidth;
+		return getTextSize(text, font).width;
 	}
 
 	public static int getAdvanceOfSpaceCharacter(Font font) {
-		Graphics2D g = createCompatibleGraphics(font);
-		int advance = font.getStringBounds(" ", g.getFontRenderContext()).getBounds().width;
-		g.dispose();
-		return advance;
+		return font.getStringBounds(" ", getFontRenderContext(font)).getBounds().width;
 	}
 
 	public static float getFontSizeForLineHeight(Font font, int lineHeight) {
-		float ratio = getLineHeight(font.deriveFont(100f)) / 100f;
-		float fontSize = Math.round(lineHeight / ratio);
-		float stepSize = 1f;
-		int lh = getLineHeight(font.deriveFont(fontSize));
-		if (lh < lineHeight) {
-			do {
-				fontSize += stepSize;
-				lh = getLineHeight(font.deriveFont(fontSize));
-			} while (lh < lineHeight);
-			if (lh > lineHeight)
-				fontSize -= stepSize;
-		} else if (lh > lineHeight) {
-			do {
-				fontSize -= stepSize;
-				lh = getLineHeight(font.deriveFont(fontSize));
-			} while (lh > lineHeight);
-		}
-		return fontSize;
-	}
-
-	public static float getFontSizeForLineWidth(Font font, String text, int lineWidth) {
-		float ratio = getLineWidth(font.deriveFont(100f), text) / 100f;
-		float fontSize = Math.round(lineWidth / ratio);
-		float stepSize = 1f;
-		int lw = getLineWidth(font.deriveFont(fontSize), text);
-		if (lw < lineWidth) {
-			do {
-				fontSize += stepSize;
-				lw = getLineWidth(font.deriveFont(fontSize), text);
-			} while (lw < lineWidth);
-			if (lw > lineWidth)
-				fontSize -= stepSize;
-		} else if (lw > lineWidth) {
-			do {
-				fontSize -= stepSize;
-				lw = getLineWidth(font.deriveFont(fontSize), text);
-			} while (lw > lineWidth);
-		}
-		return fontSize;
+		return FontMetricsService.getFontSizeForMeasure(font, lineHeight, new FontMeasure() {
+
+			@Override
+			public int measure(Font derivedFont) {
+				return getLineHeight(derivedFont);
+			}
+		});
+	}
+
+	public static float getFontSizeForLineWidth(Font font, final String text, int lineWidth) {
+		return FontMetricsService.getFontSizeForMeasure(font, lineWidth, new FontMeasure() {
+
+			@Override
+			public int measure(Font derivedFont) {
+				return getLineWidth(derivedFont, text);
+			}
+		});
 	}
 
 	protected static Dimension getTextSize(String text, Graphics2D g) {
+		return getTextSize(text, getGlyphLayoutCache().getLayout(text, g).getVisualBounds());
+	}
+
+	private static Dimension getTextSize(String text, Font font) {
+		return getTextSize(text, getGlyphLayoutCache().getLayout(text, font, getFontRenderContext(font)).getVisualBounds());
+	}
+
+	private static Dimension getTextSize(String text, Rectangle2D bounds) {
 		Dimension size = new Dimension();
 		if (!text.isEmpty()) {
-			Rectangle2D bounds = getTextBounds(text, g);
 			size.setSize(bounds.getWidth() + 1.5, bounds.getHeight() + 1.0);
 		}
 		return size;
 	}
 
 	protected static Rectangle2D getTextBounds(String text, Graphics2D g) {
-		return g.getFont().createGlyphVector(g.getFontRenderContext(), text).getVisualBounds();
+		return (Rectangle2D) getGlyphLayoutCache().getLayout(text, g).getVisualBounds().clone();
+	}
+
+	protected static Rectangle2D getTextBounds(String text, Font font) {
+		return (Rectangle2D) getGlyphLayoutCache().getLayout(text, font, getFontRenderContext(font)).getVisualBounds()
+				.clone();
+	}
+
+	private static GlyphLayoutCache getGlyphLayoutCache() {
+		return GlyphLayoutCache.getInstance();
+	}
+
+	private static FontMetricsService getFontMetricsService() {
+		return FontMetricsService.getInstance();
+	}
+
+	/**
+	 * Returns the layout of a text in the font and font render context of a graphics context. The layout of the most
+	 * recent text is kept by this label, others are obtained from the shared {@link GlyphLayoutCache}
+	 */
+	protected GlyphLayout getGlyphLayout(String text, Graphics2D g) {
+		GlyphLayout layout = getGlyphLayout();
+		if (layout == null || !layout.matches(text, g.getFont(), g.getFontRenderContext())) {
+			if (isAbbreviating() && !text.equals(getText())) {
+				return GlyphLayoutCache.createLayout(text, g.getFont(), g.getFontRenderContext());
+			}
+			layout = getGlyphLayoutCache().getLayout(text, g);
+			setGlyphLayout(layout);
+		}
+		return layout;
 	}
 
 	protected double deriveRelativeBaselineHeight(Font font) {
-		Graphics2D g = createCompatibleGraphics(font);
-		FontMetrics fm = g.getFontMetrics();
-		double ry = Math.min(fm.getMaxAscent() / (double) fm.getHeight(), 1.0);
-		g.dispose();
-		return ry;
+		FontMetrics fm = getFontMetricsService().getFontMetrics(font);
+		return Math.min(fm.getMaxAscent() / (double) fm.getHeight(), 1.0);
 	}
 
 	public void refreshUI() {
@@ -259,7 +263,12 @@ public class TextLabel extends JComponent {
 		String text = getText();
 		boolean op = isTextOverflowPossible();
 		if (op && isTextOverflowModeAbbreviation()) {
-			text = getAbbreviatedTextToFit(g, text, width, height);
+			setAbbreviating(true);
+			try {
+				text = getAbbreviatedTextToFit(g, text, width, height);
+			} finally {
+				setAbbreviating(false);
+			}
 		}
 		AffineTransform transform = createTextTransform(g, text, width, height);
 		paintText(g, transform, text);
@@ -271,7 +280,7 @@ public class TextLabel extends JComponent {
 	private void paintText(Graphics2D g, AffineTransform transform, String text) {
 		Graphics2D g2 = (Graphics2D) g.create();
 		g2.transform(transform);
-		g2.drawGlyphVector(g.getFont().createGlyphVector(g.getFontRenderContext(), text), 0.5f, 0.5f);
+		g2.drawGlyphVector(getGlyphLayout(text, g).getGlyphVector(), 0.5f, 0.5f);
 		g2.dispose();
 	}
 
@@ -332,45 +341,130 @@ public class TextLabel extends JComponent {
 		return Math.min(maxw, absoluteMaximumFadeWidth);
 	}
 
+	/**
+	 * Returns the text abbreviated to fit the given width, as per the resolved text overflow mode.
+	 * <p>
+	 * The number of characters to remove is estimated from the glyph positions of the full text, and then pinned down
+	 * by a galloping and binary search over exact layouts of the abbreviated text. This takes a logarithmic rather than
+	 * linear number of layouts in the length of the text.
+	 * </p>
+	 */
 	protected String getAbbreviatedTextToFit(Graphics2D g, String text, int width, int height) {
-		String str;
-		StringBuilder sb = new StringBuilder(text.length() + 6);
+		int n = text.length();
+		Insets overflow = getTextOverflow(g, null, text, width, height, getTextOverflowThresholdInPixels(), null);
+		if (overflow.left + overflow.right == 0 || n == 0)
+			return text;
+		// From here on, ensure the abbreviated text fits regardless of threshold
+		overflow = getTextOverflow(g, null, text, width, height, 0, overflow);
 		TextOverflowMode mode = getResolvedTextOverflowMode();
-		Insets overflow = null;
-		int t = getTextOverflowThresholdInPixels();
-		int i0 = 0, i1 = text.length();
-		boolean emptyText, overflows;
-		do {
-			sb.setLength(0);
-			if (i0 > 0) {
-				sb.append(getTextOverflowAbbreviation());
+		StringBuilder sb = new StringBuilder(n + 2 * getTextOverflowAbbreviation().length());
+		int lo = 0; // number of removed characters known to overflow
+		int hi = estimateAbbreviationCut(g, text, width, height, mode, overflow);
+		if (isAbbreviatedTextFitting(g, text, hi, width, height, mode, sb, overflow)) {
+			int step = 1;
+			while (hi - step > lo && isAbbreviatedTextFitting(g, text, hi - step, width, height, mode, sb, overflow)) {
+				hi -= step;
+				step *= 2;
 			}
-			emptyText = i1 == i0;
-			if (!emptyText) {
-				sb.append(text.substring(i0, i1));
+			lo = Math.max(hi - step, lo);
+		} else {
+			lo = hi;
+			int step = 1;
+			while (lo + step < n && !isAbbreviatedTextFitting(g, text, lo + step, width, height, mode, sb, overflow)) {
+				lo += step;
+				step *= 2;
 			}
-			if (i1 < text.length() && (!emptyText || i0 == 0)) {
-				sb.append(getTextOverflowAbbreviation());
+			hi = Math.min(lo + step, n); // all characters removed is accepted as is
+		}
+		while (hi - lo > 1) {
+			int mid = (lo + hi) >>> 1;
+			if (isAbbreviatedTextFitting(g, text, mid, width, height, mode, sb, overflow)) {
+				hi = mid;
+			} else {
+				lo = mid;
 			}
-			str = sb.toString();
-			overflow = getTextOverflow(g, null, str, width, height, t, overflow);
-			overflows = overflow.left + overflow.right > 0;
-			if (overflows) {
-				if (TextOverflowMode.ABBREVIATE_LEADING.equals(mode)) {
-					i0++;
-				} else if (TextOverflowMode.ABBREVIATE_TRAILING.equals(mode)) {
-					i1--;
-				} else {
-					if ((text.length() - str.length()) % 2 == 0) {
-						i1--;
-					} else {
-						i0++;
-					}
-				}
+		}
+		return getAbbreviatedText(text, hi, mode, sb);
+	}
+
+	/**
+	 * Estimates the number of characters to remove from a text so that its abbreviation fits, based on the glyph
+	 * advances of the full text
+	 *
+	 * @return The estimated number of characters to remove, between 1 and the length of <code>text</code>
+	 */
+	private int estimateAbbreviationCut(Graphics2D g, String text, int width, int height, TextOverflowMode mode,
+			Insets overflow) {
+		int n = text.length();
+		GlyphVector gv = getGlyphLayout(text, g).getGlyphVector();
+		if (gv.getNumGlyphs() != n || (gv.getLayoutFlags() & GlyphVector.FLAG_COMPLEX_GLYPHS) != 0)
+			return 1; // glyphs do not map one-to-one onto characters, leave it to the exact search
+		float[] positions = gv.getGlyphPositions(0, n + 1, null);
+		double abbreviationAdvance = getGlyphLayoutCache().getLayout(getTextOverflowAbbreviation(), g).getAdvance();
+		double scale = createTextTransform(g, text, width, height).getScaleX();
+		double maximumAdvance = positions[2 * n] - (overflow.left + overflow.right) / scale;
+		int lo = 0, hi = n;
+		while (hi - lo > 1) {
+			int mid = (lo + hi) >>> 1;
+			int i0 = getAbbreviationStart(n, mid, mode);
+			int i1 = getAbbreviationEnd(n, mid, mode);
+			double advance = positions[2 * i1] - positions[2 * i0];
+			if (i0 > 0)
+				advance += abbreviationAdvance;
+			if (i1 < n && (i1 > i0 || i0 == 0))
+				advance += abbreviationAdvance;
+			if (advance <= maximumAdvance) {
+				hi = mid;
+			} else {
+				lo = mid;
 			}
-			t = 0; // ensure abbreviated text fits regardless of threshold
-		} while (overflows && !emptyText);
-		return str;
+		}
+		return hi;
+	}
+
+	private boolean isAbbreviatedTextFitting(Graphics2D g, String text, int removedCharacters, int width, int height,
+			TextOverflowMode mode, StringBuilder sb, Insets overflow) {
+		String str = getAbbreviatedText(text, removedCharacters, mode, sb);
+		overflow = getTextOverflow(g, null, str, width, height, 0, overflow);
+		return overflow.left + overflow.right == 0;
+	}
+
+	private String getAbbreviatedText(String text, int removedCharacters, TextOverflowMode mode, StringBuilder sb) {
+		int n = text.length();
+		int i0 = getAbbreviationStart(n, removedCharacters, mode);
+		int i1 = getAbbreviationEnd(n, removedCharacters, mode);
+		boolean emptyText = i1 == i0;
+		sb.setLength(0);
+		if (i0 > 0) {
+			sb.append(getTextOverflowAbbreviation());
+		}
+		if (!emptyText) {
+			sb.append(text, i0, i1);
+		}
+		if (i1 < n && (!emptyText || i0 == 0)) {
+			sb.append(getTextOverflowAbbreviation());
+		}
+		return sb.toString();
+	}
+
+	private static int getAbbreviationStart(int length, int removedCharacters, TextOverflowMode mode) {
+		if (TextOverflowMode.ABBREVIATE_LEADING.equals(mode)) {
+			return removedCharacters;
+		} else if (TextOverflowMode.ABBREVIATE_TRAILING.equals(mode)) {
+			return 0;
+		} else {
+			return removedCharacters / 2; // keeps the middle, removing from the trailing end first
+		}
+	}
+
+	private static int getAbbreviationEnd(int length, int removedCharacters, TextOverflowMode mode) {
+		if (TextOverflowMode.ABBREVIATE_LEADING.equals(mode)) {
+			return length;
+		} else if (TextOverflowMode.ABBREVIATE_TRAILING.equals(mode)) {
+			return length - removedCharacters;
+		} else {
+			return length - removedCharacters + removedCharacters / 2;
+		}
 	}
 
 	private Insets getTextOverflow(Graphics2D g, AffineTransform transform, String text, int width, int height,
@@ -379,7 +473,7 @@ public class TextLabel extends JComponent {
 			overflow = new Insets(0, 0, 0, 0);
 		if (transform == null)
 			transform = createTextTransform(g, text, width, height);
-		Rectangle bounds = transform.createTransformedShape(getTextBounds(text, g)).getBounds();
+		Rectangle bounds = transform.createTransformedShape(getGlyphLayout(text, g).getVisualBounds()).getBounds();
 		overflow.left = Math.max(-bounds.x - overflowThreshold, 0);
 		overflow.right = Math.max(bounds.x + bounds.width - (width - 1) - overflowThreshold, 0);
 		overflow.top = Math.max(-bounds.y - overflowThreshold, 0);
@@ -390,11 +484,11 @@ public class TextLabel extends JComponent {
 	protected AffineTransform createTextTransform(Graphics2D g, String text, int width, int height) {
 		AffineTransform transform = new AffineTransform();
 		FillMode mode = getFillMode();
-		Dimension textSize = getTextSize(text, g);
+		Rectangle2D bounds = getGlyphLayout(text, g).getVisualBounds();
+		Dimension textSize = getTextSize(text, bounds);
 		double tw = textSize.getWidth();
 		double th = textSize.getHeight();
 		if (tw > 0 && th > 0) {
-			Rectangle2D bounds = getTextBounds(text, g);
 			double dx = -bounds.getMinX(), dy = -bounds.getMinY(), sx = 1.0, sy = 1.0;
 			if (FillMode.STRETCH.equals(mode)) {
 				sx = width / tw;
@@ -515,9 +609,16 @@ public class TextLabel extends JComponent {
 
 	public void setText(String text) {
 		this.text = text;
+		setGlyphLayout(null); // invalidate
 		refreshUI();
 	}
 
+	@Override
+	public void setFont(Font font) {
+		setGlyphLayout(null); // invalidate
+		super.setFont(font); // calls repaint
+	}
+
 	public FillMode getFillMode() {
 		return fillMode;
 	}
@@ -625,6 +726,22 @@ public class TextLabel extends JComponent {
 		this.pristineLeadingFadeImage = image;
 	}
 
+	private GlyphLayout getGlyphLayout() {
+		return glyphLayout;
+	}
+
+	private void setGlyphLayout(GlyphLayout layout) {
+		this.glyphLayout = layout;
+	}
+
+	private boolean isAbbreviating() {
+		return abbreviating;
+	}
+
+	private void setAbbreviating(boolean abbreviating) {
+		this.abbreviating = abbreviating;
+	}
+
 	public static enum TextOverflowMode {
 
 		CLIP,
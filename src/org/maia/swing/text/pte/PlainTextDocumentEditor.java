@@ -38,15 +38,18 @@ import javax.swing.text.BadLocationException;
 import javax.swing.text.Caret;
 import javax.swing.text.DefaultHighlighter;
 import javax.swing.text.Document;
+import javax.swing.text.Element;
 import javax.swing.text.Highlighter;
 import javax.swing.text.PlainDocument;
 import javax.swing.text.Position;
+import javax.swing.text.Segment;
 import javax.swing.undo.AbstractUndoableEdit;
 import javax.swing.undo.CannotRedoException;
 import javax.swing.undo.CannotUndoException;
 import javax.swing.undo.UndoManager;
 import javax.swing.undo.UndoableEdit;
 
+import org.maia.swing.text.pte.model.PlainTextContentDocument;
 import org.maia.swing.text.pte.model.PlainTextDocument;
 import org.maia.swing.text.pte.model.PlainTextDocumentListener;
 import org.maia.swing.text.pte.search.StyledTextSearchResult;
@@ -63,6 +66,8 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 
 	private UndoManager undoManager;
 
+	private UndoableEditListener undoableEditObserver;
+
 	private List<PlainTextDocumentEditorListener> listeners;
 
 	private PlainTextDocumentEditorActions actions;
@@ -90,9 +95,10 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 		this.document = document;
 		this.documentPane = new DocumentEditorPane(preferredSize);
 		this.undoManager = new UndoManager();
+		this.undoableEditObserver = new DocumentUndoableEditObserver();
 		this.listeners = new Vector<PlainTextDocumentEditorListener>();
 		getInternalDocument().addUndoableEditListener(getUndoManager());
-		getInternalDocument().addUndoableEditListener(new DocumentUndoableEditObserver());
+		getInternalDocument().addUndoableEditListener(getUndoableEditObserver());
 		initLookAndFeel();
 	}
 
@@ -141,7 +147,12 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 
 	public synchronized void save() throws PlainTextDocumentException, PlainTextDocumentCancellation {
 		if (isTextChangedSinceLastSave()) {
-			getDocument().writeText(getText());
+			if (getDocument() instanceof PlainTextContentDocument) {
+				((PlainTextContentDocument) getDocument()).writeContent(
+						((PlainDocumentImpl) getInternalDocument()).getTextContent());
+			} else {
+				getDocument().writeText(getText());
+			}
 			markClean();
 		}
 	}
@@ -193,12 +204,27 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 	}
 
 	protected void doRevert() throws PlainTextDocumentException {
-		getTextArea().setText(getDocument().readText());
+		if (getDocument() instanceof PlainTextContentDocument) {
+			replaceInternalDocument(new PlainDocumentImpl(((PlainTextContentDocument) getDocument()).readContent()));
+		} else {
+			getTextArea().setText(getDocument().readText());
+		}
 		setCaretPosition(0);
 		clearUndoHistory();
 		markClean();
 	}
 
+	private void replaceInternalDocument(PlainDocumentImpl internalDocument) {
+		Document previousDocument = getInternalDocument();
+		previousDocument.removeUndoableEditListener(getUndoManager());
+		previousDocument.removeUndoableEditListener(getUndoableEditObserver());
+		internalDocument.putProperty(PlainDocument.tabSizeAttribute,
+				previousDocument.getProperty(PlainDocument.tabSizeAttribute));
+		internalDocument.addUndoableEditListener(getUndoManager());
+		internalDocument.addUndoableEditListener(getUndoableEditObserver());
+		getDocumentPane().replaceDocument(internalDocument);
+	}
+
 	@Override
 	public void documentEditableChanged(PlainTextDocument document) {
 		getTextArea().setEditable(isEditable());
@@ -728,6 +754,10 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 		return undoManager;
 	}
 
+	private UndoableEditListener getUndoableEditObserver() {
+		return undoableEditObserver;
+	}
+
 	protected List<PlainTextDocumentEditorListener> getListeners() {
 		return listeners;
 	}
@@ -747,24 +777,37 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 
 		private JScrollPane scrollPane;
 
+		private DocumentChangeObserver documentChangeObserver;
+
 		public DocumentEditorPane(Dimension preferredSize) throws PlainTextDocumentException {
 			super(new BorderLayout());
+			this.documentChangeObserver = new DocumentChangeObserver();
 			this.textArea = buildTextArea();
 			this.scrollPane = buildScrollPane(preferredSize);
 			add(getScrollPane(), BorderLayout.CENTER);
 		}
 
 		private JTextArea buildTextArea() throws PlainTextDocumentException {
-			JTextArea area = new JTextArea(new PlainDocumentImpl(), getDocument().readText(), 0, 0);
+			JTextArea area = null;
+			if (getDocument() instanceof PlainTextContentDocument) {
+				area = new JTextArea(new PlainDocumentImpl(((PlainTextContentDocument) getDocument()).readContent()));
+			} else {
+				area = new JTextArea(new PlainDocumentImpl(), getDocument().readText(), 0, 0);
+			}
 			area.setEditable(getDocument().isEditable());
 			area.setLineWrap(false);
 			area.setWrapStyleWord(true);
-			DocumentChangeObserver observer = new DocumentChangeObserver();
-			area.getDocument().addDocumentListener(observer);
-			area.addCaretListener(observer);
+			area.getDocument().addDocumentListener(getDocumentChangeObserver());
+			area.addCaretListener(getDocumentChangeObserver());
 			return area;
 		}
 
+		public void replaceDocument(Document document) {
+			getTextArea().getDocument().removeDocumentListener(getDocumentChangeObserver());
+			document.addDocumentListener(getDocumentChangeObserver());
+			getTextArea().setDocument(document);
+		}
+
 		private JScrollPane buildScrollPane(Dimension preferredSize) {
 			JScrollPane pane = new JScrollPane(getTextArea());
 			pane.setHorizontalScrollBarPolicy(ScrollPaneConstants.HORIZONTAL_SCROLLBAR_ALWAYS);
@@ -793,6 +836,10 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 			return scrollPane;
 		}
 
+		private DocumentChangeObserver getDocumentChangeObserver() {
+			return documentChangeObserver;
+		}
+
 	}
 
 	private class DocumentChangeObserver implements DocumentListener, CaretListener {
@@ -858,6 +905,47 @@ public class PlainTextDocumentEditor implements PlainTextDocumentListener {
 		public PlainDocumentImpl() {
 		}
 
+		/**
+		 * Creates a document over existing content, indexing its lines in a single pass rather than inserting the text
+		 */
+		public PlainDocumentImpl(Content content) {
+			super(content);
+			indexLines();
+		}
+
+		private void indexLines() {
+			writeLock();
+			try {
+				Content content = getContent();
+				Element root = getDefaultRootElement();
+				List<Element> lines = new Vector<Element>();
+				Segment segment = new Segment();
+				segment.setPartialReturn(true);
+				int length = content.length();
+				int offset = 0, lineStart = 0;
+				while (offset < length) {
+					content.getChars(offset, length - offset, segment);
+					for (int i = 0; i < segment.count; i++) {
+						if (segment.array[segment.offset + i] == '\n') {
+							int lineEnd = offset + i + 1;
+							lines.add(createLeafElement(root, null, lineStart, lineEnd));
+							lineStart = lineEnd;
+						}
+					}
+					offset += segment.count;
+				}
+				((BranchElement) root).replace(0, root.getElementCount(), lines.toArray(new Element[lines.size()]));
+			} catch (BadLocationException e) {
+				throw new IllegalStateException(e); // should not happen, reading within bounds
+			} finally {
+				writeUnlock();
+			}
+		}
+
+		public Content getTextContent() {
+			return getContent();
+		}
+
 		@Override
 		protected void fireUndoableEditUpdate(UndoableEditEvent event) {
 			UndoableEdit edit = event.getEdit();
@@ -13,11 +13,17 @@ import org.maia.swing.text.pte.menu.PlainTextEditorMenuMaker;
 import org.maia.swing.text.pte.menu.PlainTextEditorMenuManager;
 import org.maia.swing.text.pte.model.PlainTextDocument;
 import org.maia.swing.text.pte.model.PlainTextFileDocument;
+import org.maia.swing.text.pte.model.PlainTextMappedFileDocument;
 
 public class PlainTextEditorKit {
 
 	private static PlainTextEditorKit defaultKit;
 
+	/**
+	 * Files of at least this many bytes are opened as a {@link PlainTextMappedFileDocument}
+	 */
+	public static long mappedFileDocumentThreshold = 16L << 20;
+
 	protected PlainTextEditorKit() {
 	}
 
@@ -55,7 +61,11 @@ public class PlainTextEditorKit {
 	}
 
 	public PlainTextDocument createFileDocument(File file) {
-		return new PlainTextFileDocument(file);
+		if (file != null && file.length() >= mappedFileDocumentThreshold) {
+			return new PlainTextMappedFileDocument(file);
+		} else {
+			return new PlainTextFileDocument(file);
+		}
 	}
 
 	public PlainTextDocumentEditor createDocumentEditor(PlainTextDocument document, PlainTextEditor editor)
@@ -0,0 +1,664 @@
+package org.maia.swing.text.pte.model;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Vector;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.GapContent;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.AbstractUndoableEdit;
+import javax.swing.undo.CannotRedoException;
+import javax.swing.undo.CannotUndoException;
+import javax.swing.undo.UndoableEdit;
+
+/**
+ * Document content as a piece table over an original text, which is never copied nor modified.
+ * <p>
+ * The content is a sequence of pieces, each referring to a span of either the original text or an append-only buffer
+ * of added text. Inserting and removing text merely splits, adds and drops pieces, so edits only store the added text
+ * while the original text, typically a memory-mapped file, stays untouched. Removed pieces are kept by the undoable
+ * edits, rather than the removed text itself.
+ * </p>
+ * <p>
+ * Positions behave as those of {@link GapContent}. Marks before the most recent edit hold absolute offsets and marks
+ * after it hold offsets relative to the end, so an edit only updates the marks in between it and the previous edit.
+ * </p>
+ */
+public class PieceTableContent implements AbstractDocument.Content {
+
+	private CharSequence original;
+
+	private char[] originalArray; // nullable, when the original text is backed by an accessible array
+
+	private int originalArrayOffset;
+
+	private char[] added;
+
+	private int addedLength;
+
+	private List<Piece> pieces;
+
+	private int length; // including the trailing newline
+
+	private volatile PieceHint pieceHint; // the most recently located piece, as reads tend to be local
+
+	private MarkRef[] marks; // ordered by offset
+
+	private int markCount;
+
+	private int markSplit; // marks before the split hold absolute offsets, the others offsets relative to the end
+
+	private ReferenceQueue<MarkPosition> markQueue;
+
+	private int clearedMarkCount;
+
+	private static final int MINIMUM_CLEARED_MARKS_TO_PURGE = 64;
+
+	private static final int PARTIAL_RETURN_COPY_LIMIT = 1 << 16;
+
+	private static final Comparator<MarkRef> MARK_VALUE_ORDER = new Comparator<MarkRef>() {
+
+		@Override
+		public int compare(MarkRef m1, MarkRef m2) {
+			return Integer.compare(m1.value, m2.value);
+		}
+	};
+
+	/**
+	 * Creates an empty content
+	 */
+	public PieceTableContent() {
+		this("");
+	}
+
+	/**
+	 * Creates a content with an original text
+	 *
+	 * @param original
+	 *            The original text, which must not change as long as the content is in use. Arrays backing a
+	 *            {@link CharBuffer} are accessed directly
+	 */
+	public PieceTableContent(CharSequence original) {
+		if (original == null)
+			throw new NullPointerException("original is null");
+		if (original.length() >= Integer.MAX_VALUE)
+			throw new IllegalArgumentException("original is too long (" + original.length() + ")");
+		this.original = original;
+		if (original instanceof CharBuffer && ((CharBuffer) original).hasArray()) {
+			CharBuffer buffer = (CharBuffer) original;
+			this.originalArray = buffer.array();
+			this.originalArrayOffset = buffer.arrayOffset() + buffer.position();
+		}
+		this.added = new char[256];
+		this.pieces = new Vector<Piece>();
+		if (original.length() > 0) {
+			pieces.add(new Piece(false, 0, original.length()));
+		}
+		pieces.add(new Piece(true, appendAdded("\n"), 1));
+		this.length = original.length() + 1;
+		this.pieceHint = new PieceHint(0, 0);
+		this.marks = new MarkRef[16];
+		this.markQueue = new ReferenceQueue<MarkPosition>();
+	}
+
+	@Override
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public UndoableEdit insertString(int where, String str) throws BadLocationException {
+		if (where > length() || where < 0)
+			throw new BadLocationException("Invalid insert", length());
+		List<Piece> inserted = new Vector<Piece>(1);
+		inserted.add(new Piece(true, appendAdded(str), str.length()));
+		doInsert(where, inserted);
+		return new InsertUndo(where, str.length());
+	}
+
+	@Override
+	public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+		if (where + nitems >= length() || where < 0 || nitems < 0)
+			throw new BadLocationException("Invalid remove", length());
+		List<UndoPosRef> positions = getPositionsInRange(where, nitems);
+		List<Piece> removed = doRemove(where, nitems);
+		return new RemoveUndo(where, nitems, removed, positions);
+	}
+
+	@Override
+	public String getString(int where, int len) throws BadLocationException {
+		checkRange(where, len);
+		char[] chars = new char[len];
+		copyChars(where, len, chars, 0);
+		return new String(chars);
+	}
+
+	@Override
+	public void getChars(int where, int len, Segment txt) throws BadLocationException {
+		checkRange(where, len);
+		if (len == 0) {
+			txt.array = added;
+			txt.offset = 0;
+			txt.count = 0;
+			return;
+		}
+		PieceHint hint = findPiece(where);
+		Piece piece = getPieces().get(hint.getIndex());
+		int offsetInPiece = where - hint.getOffset();
+		int n = Math.min(len, piece.getLength() - offsetInPiece);
+		if (n == len || txt.isPartialReturn()) {
+			if (piece.isAdded()) {
+				txt.array = added;
+				txt.offset = piece.getStart() + offsetInPiece;
+				txt.count = n;
+				return;
+			} else if (originalArray != null) {
+				txt.array = originalArray;
+				txt.offset = originalArrayOffset + piece.getStart() + offsetInPiece;
+				txt.count = n;
+				return;
+			}
+			len = Math.min(n, PARTIAL_RETURN_COPY_LIMIT);
+		}
+		char[] chars = new char[len];
+		copyChars(where, len, chars, 0);
+		txt.array = chars;
+		txt.offset = 0;
+		txt.count = len;
+	}
+
+	@Override
+	public Position createPosition(int offset) throws BadLocationException {
+		purgeClearedMarks();
+		int index = findFirstMark(offset);
+		if (offset > 0 && index < markCount && getMarkOffset(marks[index]) == offset) {
+			MarkPosition existing = marks[index].get(); // share positions, as lines share their boundaries
+			if (existing != null)
+				return existing;
+		}
+		boolean relative = index >= markSplit;
+		MarkPosition position = new MarkPosition();
+		MarkRef mark = new MarkRef(position, markQueue, relative ? length - offset : offset, relative);
+		position.setMark(mark);
+		if (markCount == marks.length) {
+			marks = Arrays.copyOf(marks, markCount * 2);
+		}
+		System.arraycopy(marks, index, marks, index + 1, markCount - index);
+		marks[index] = mark;
+		markCount++;
+		if (!relative) {
+			markSplit++;
+		}
+		return position;
+	}
+
+	/**
+	 * Returns the number of pieces, which grows with the number of edits rather than the length of the content
+	 */
+	public int getPieceCount() {
+		return getPieces().size();
+	}
+
+	/**
+	 * Returns the number of characters added by edits, including those since removed
+	 */
+	public int getAddedLength() {
+		return addedLength;
+	}
+
+	public CharSequence getOriginal() {
+		return original;
+	}
+
+	private void checkRange(int where, int len) throws BadLocationException {
+		if (where < 0 || len < 0 || where + len > length())
+			throw new BadLocationException("Invalid location", length());
+	}
+
+	private int appendAdded(String str) {
+		int start = addedLength;
+		int n = str.length();
+		if (start + n > added.length) {
+			// never shrink nor modify in place, segments may still point into the previous array
+			added = Arrays.copyOf(added, Math.max(added.length * 2, start + n));
+		}
+		str.getChars(0, n, added, start);
+		addedLength += n;
+		return start;
+	}
+
+	private void copyChars(int where, int len, char[] dst, int dstBegin) {
+		PieceHint hint = findPiece(where);
+		int index = hint.getIndex();
+		int offsetInPiece = where - hint.getOffset();
+		while (len > 0) {
+			Piece piece = getPieces().get(index++);
+			int n = Math.min(len, piece.getLength() - offsetInPiece);
+			int start = piece.getStart() + offsetInPiece;
+			if (piece.isAdded()) {
+				System.arraycopy(added, start, dst, dstBegin, n);
+			} else {
+				copyOriginalChars(start, n, dst, dstBegin);
+			}
+			dstBegin += n;
+			len -= n;
+			offsetInPiece = 0;
+		}
+	}
+
+	private void copyOriginalChars(int start, int n, char[] dst, int dstBegin) {
+		if (originalArray != null) {
+			System.arraycopy(originalArray, originalArrayOffset + start, dst, dstBegin, n);
+		} else if (original instanceof String) {
+			((String) original).getChars(start, start + n, dst, dstBegin);
+		} else {
+			for (int i = 0; i < n; i++) {
+				dst[dstBegin + i] = original.charAt(start + i);
+			}
+		}
+	}
+
+	/**
+	 * Locates the piece holding a character, walking from the most recently located piece
+	 *
+	 * @param offset
+	 *            The offset of the character, strictly smaller than the length of the content
+	 * @return The index and offset of the piece
+	 */
+	private PieceHint findPiece(int offset) {
+		List<Piece> pieces = getPieces();
+		PieceHint hint = pieceHint;
+		int index = hint.getIndex();
+		int pieceOffset = hint.getOffset();
+		if (index >= pieces.size()) {
+			index = 0;
+			pieceOffset = 0;
+		}
+		while (offset < pieceOffset) {
+			pieceOffset -= pieces.get(--index).getLength();
+		}
+		int pieceLength;
+		while (offset >= pieceOffset + (pieceLength = pieces.get(index).getLength())) {
+			pieceOffset += pieceLength;
+			index++;
+		}
+		if (index != hint.getIndex() || pieceOffset != hint.getOffset()) {
+			hint = new PieceHint(index, pieceOffset);
+			pieceHint = hint;
+		}
+		return hint;
+	}
+
+	private void doInsert(int where, List<Piece> inserted) {
+		int n = 0;
+		for (Piece piece : inserted) {
+			n += piece.getLength();
+		}
+		if (n == 0)
+			return;
+		updateMarksOnInsert(where);
+		insertPieces(where, inserted);
+		length += n;
+	}
+
+	private void insertPieces(int where, List<Piece> inserted) {
+		List<Piece> pieces = getPieces();
+		int index = pieces.size();
+		if (where < length) {
+			PieceHint hint = findPiece(where);
+			index = hint.getIndex();
+			int offsetInPiece = where - hint.getOffset();
+			if (offsetInPiece > 0) {
+				Piece piece = pieces.get(index);
+				pieces.set(index, piece.getPrefix(offsetInPiece));
+				pieces.add(++index, piece.getSuffix(offsetInPiece));
+			}
+		}
+		if (index > 0 && inserted.size() == 1) {
+			// coalesce with the preceding piece when contiguous in the added text, as when typing
+			Piece previous = pieces.get(index - 1);
+			Piece piece = inserted.get(0);
+			if (previous.isAdded() && piece.isAdded() && previous.getStart() + previous.getLength() == piece.getStart()) {
+				pieces.set(index - 1, new Piece(true, previous.getStart(), previous.getLength() + piece.getLength()));
+				pieceHint = new PieceHint(index - 1, where - previous.getLength());
+				return;
+			}
+		}
+		pieces.addAll(index, inserted);
+		pieceHint = new PieceHint(index, where);
+	}
+
+	private List<Piece> doRemove(int where, int n) {
+		updateMarksOnRemove(where, n);
+		List<Piece> removed = removePieces(where, n);
+		length -= n;
+		return removed;
+	}
+
+	private List<Piece> removePieces(int where, int n) {
+		List<Piece> pieces = getPieces();
+		List<Piece> removed = new Vector<Piece>();
+		if (n == 0)
+			return removed;
+		PieceHint hint = findPiece(where);
+		int index = hint.getIndex();
+		int offsetInPiece = where - hint.getOffset();
+		if (offsetInPiece > 0) {
+			Piece piece = pieces.get(index);
+			pieces.set(index, piece.getPrefix(offsetInPiece));
+			pieces.add(++index, piece.getSuffix(offsetInPiece));
+		}
+		int end = index;
+		int remaining = n;
+		while (remaining > 0) {
+			Piece piece = pieces.get(end);
+			if (piece.getLength() <= remaining) {
+				removed.add(piece);
+				remaining -= piece.getLength();
+				end++;
+			} else {
+				removed.add(piece.getPrefix(remaining));
+				pieces.set(end, piece.getSuffix(remaining));
+				remaining = 0;
+			}
+		}
+		pieces.subList(index, end).clear();
+		pieceHint = new PieceHint(index, where);
+		return removed;
+	}
+
+	private void updateMarksOnInsert(int where) {
+		// marks at the insertion point move along, except at the very start
+		moveMarkSplit(findFirstMark(where == 0 ? 1 : where));
+	}
+
+	private void updateMarksOnRemove(int where, int n) {
+		int from = findFirstMark(where + 1);
+		int to = findFirstMark(where + n);
+		moveMarkSplit(to);
+		for (int i = from; i < to; i++) {
+			marks[i].value = where; // collapse
+		}
+	}
+
+	private List<UndoPosRef> getPositionsInRange(int where, int n) {
+		List<UndoPosRef> positions = new Vector<UndoPosRef>();
+		int from = findFirstMark(where);
+		int to = findFirstMark(where + n + 1);
+		for (int i = from; i < to; i++) {
+			MarkRef mark = marks[i];
+			if (mark.get() != null) {
+				positions.add(new UndoPosRef(mark, getMarkOffset(mark) - where));
+			}
+		}
+		return positions;
+	}
+
+	private void restorePositions(int where, int n, List<UndoPosRef> positions) {
+		if (positions.isEmpty())
+			return;
+		int from = findFirstMark(where);
+		int to = findFirstMark(where + n + 1);
+		moveMarkSplit(to);
+		for (UndoPosRef position : positions) {
+			position.getMark().value = where + position.getRelativeOffset();
+		}
+		Arrays.sort(marks, from, to, MARK_VALUE_ORDER);
+	}
+
+	private void moveMarkSplit(int index) {
+		while (markSplit < index) {
+			MarkRef mark = marks[markSplit++];
+			mark.value = length - mark.value;
+			mark.relative = false;
+		}
+		while (markSplit > index) {
+			MarkRef mark = marks[--markSplit];
+			mark.value = length - mark.value;
+			mark.relative = true;
+		}
+	}
+
+	/**
+	 * Returns the index of the first mark at or after an offset
+	 */
+	private int findFirstMark(int offset) {
+		if (markCount == 0 || getMarkOffset(marks[markCount - 1]) < offset)
+			return markCount; // as when indexing lines
+		int lo = 0, hi = markCount;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (getMarkOffset(marks[mid]) < offset) {
+				lo = mid + 1;
+			} else {
+				hi = mid;
+			}
+		}
+		return lo;
+	}
+
+	private int getMarkOffset(MarkRef mark) {
+		return mark.relative ? length - mark.value : mark.value;
+	}
+
+	private void purgeClearedMarks() {
+		while (markQueue.poll() != null) {
+			clearedMarkCount++;
+		}
+		if (clearedMarkCount >= MINIMUM_CLEARED_MARKS_TO_PURGE && clearedMarkCount >= markCount / 4) {
+			int j = 0, split = 0;
+			for (int i = 0; i < markCount; i++) {
+				MarkRef mark = marks[i];
+				if (mark.get() != null) {
+					marks[j++] = mark;
+					if (i < markSplit)
+						split++;
+				}
+			}
+			Arrays.fill(marks, j, markCount, null);
+			markCount = j;
+			markSplit = split;
+			clearedMarkCount = 0;
+		}
+	}
+
+	private List<Piece> getPieces() {
+		return pieces;
+	}
+
+	private static class Piece {
+
+		private boolean added; // from the added text, or else from the original text
+
+		private int start;
+
+		private int length;
+
+		public Piece(boolean added, int start, int length) {
+			this.added = added;
+			this.start = start;
+			this.length = length;
+		}
+
+		public Piece getPrefix(int n) {
+			return new Piece(isAdded(), getStart(), n);
+		}
+
+		public Piece getSuffix(int n) {
+			return new Piece(isAdded(), getStart() + n, getLength() - n);
+		}
+
+		public boolean isAdded() {
+			return added;
+		}
+
+		public int getStart() {
+			return start;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+	}
+
+	private static class PieceHint {
+
+		private int index;
+
+		private int offset;
+
+		public PieceHint(int index, int offset) {
+			this.index = index;
+			this.offset = offset;
+		}
+
+		public int getIndex() {
+			return index;
+		}
+
+		public int getOffset() {
+			return offset;
+		}
+
+	}
+
+	private static class MarkRef extends WeakReference<MarkPosition> {
+
+		private int value;
+
+		private boolean relative;
+
+		public MarkRef(MarkPosition position, ReferenceQueue<MarkPosition> queue, int value, boolean relative) {
+			super(position, queue);
+			this.value = value;
+			this.relative = relative;
+		}
+
+	}
+
+	private class MarkPosition implements Position {
+
+		private MarkRef mark;
+
+		public MarkPosition() {
+		}
+
+		@Override
+		public int getOffset() {
+			return getMarkOffset(getMark());
+		}
+
+		@Override
+		public String toString() {
+			return Integer.toString(getOffset());
+		}
+
+		private MarkRef getMark() {
+			return mark;
+		}
+
+		private void setMark(MarkRef mark) {
+			this.mark = mark;
+		}
+
+	}
+
+	private static class UndoPosRef {
+
+		private MarkRef mark;
+
+		private int relativeOffset;
+
+		public UndoPosRef(MarkRef mark, int relativeOffset) {
+			this.mark = mark;
+			this.relativeOffset = relativeOffset;
+		}
+
+		public MarkRef getMark() {
+			return mark;
+		}
+
+		public int getRelativeOffset() {
+			return relativeOffset;
+		}
+
+	}
+
+	@SuppressWarnings("serial")
+	private class InsertUndo extends AbstractUndoableEdit {
+
+		private int offset;
+
+		private int length;
+
+		private List<Piece> pieces; // while undone
+
+		private List<UndoPosRef> positions; // while undone
+
+		public InsertUndo(int offset, int length) {
+			this.offset = offset;
+			this.length = length;
+		}
+
+		@Override
+		public void undo() throws CannotUndoException {
+			super.undo();
+			positions = getPositionsInRange(offset, length);
+			pieces = doRemove(offset, length);
+		}
+
+		@Override
+		public void redo() throws CannotRedoException {
+			super.redo();
+			doInsert(offset, pieces);
+			restorePositions(offset, length, positions);
+			pieces = null;
+			positions = null;
+		}
+
+	}
+
+	@SuppressWarnings("serial")
+	private class RemoveUndo extends AbstractUndoableEdit {
+
+		private int offset;
+
+		private int length;
+
+		private List<Piece> pieces;
+
+		private List<UndoPosRef> positions; // while removed
+
+		public RemoveUndo(int offset, int length, List<Piece> pieces, List<UndoPosRef> positions) {
+			this.offset = offset;
+			this.length = length;
+			this.pieces = pieces;
+			this.positions = positions;
+		}
+
+		@Override
+		public void undo() throws CannotUndoException {
+			super.undo();
+			doInsert(offset, pieces);
+			restorePositions(offset, length, positions);
+			positions = null;
+		}
+
+		@Override
+		public void redo() throws CannotRedoException {
+			super.redo();
+			positions = getPositionsInRange(offset, length);
+			doRemove(offset, length);
+		}
+
+	}
+
+}
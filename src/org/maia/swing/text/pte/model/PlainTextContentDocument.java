@@ -0,0 +1,25 @@
+package org.maia.swing.text.pte.model;
+
+import javax.swing.text.AbstractDocument;
+
+import org.maia.swing.text.pte.PlainTextDocumentCancellation;
+import org.maia.swing.text.pte.PlainTextDocumentException;
+
+/**
+ * A document that exchanges its text as document content rather than as a <code>String</code>, so the text never has
+ * to be materialized as a whole.
+ */
+public interface PlainTextContentDocument extends PlainTextDocument {
+
+	/**
+	 * Reads the text as document content, ending with the trailing newline that every document content holds
+	 */
+	AbstractDocument.Content readContent() throws PlainTextDocumentException;
+
+	/**
+	 * Writes the text of a document content, without its trailing newline
+	 */
+	void writeContent(AbstractDocument.Content content)
+			throws PlainTextDocumentException, PlainTextDocumentCancellation;
+
+}
@@ -114,7 +114,7 @@ public class PlainTextFileDocument extends PlainTextAbstractDocument {
 		return file;
 	}
 
-	private void setFile(File file) {
+	protected void setFile(File file) {
 		if (file != null) {
 			setCurrentDirectory(file.getParentFile());
 			fireNameChanged();
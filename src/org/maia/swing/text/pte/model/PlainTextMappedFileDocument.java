@@ -0,0 +1,370 @@
+package org.maia.swing.text.pte.model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import javax.swing.text.AbstractDocument;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Segment;
+
+import org.maia.swing.text.pte.PlainTextDocumentCancellation;
+import org.maia.swing.text.pte.PlainTextDocumentException;
+
+/**
+ * A file document for large files, whose content is a {@link PieceTableContent} over a memory-mapped copy of the file.
+ * <p>
+ * Opening an ASCII file copies it on disk but neither reads nor copies its text into memory, and edits only store the
+ * added text. The editor still indexes the lines, so memory grows with the number of lines rather than characters.
+ * Files in other encodings are decoded in memory. Mapping a private copy rather than the file itself keeps the file
+ * free to be replaced when saving, which is not possible for a mapped file on every platform, and shields the document
+ * from other processes modifying the file.
+ * </p>
+ * <p>
+ * Line separators are presented as <code>'\n'</code>, as the text model expects. When the file separates lines by
+ * <code>"\r\n"</code>, lines are saved that way again.
+ * </p>
+ */
+public class PlainTextMappedFileDocument extends PlainTextFileDocument implements PlainTextContentDocument {
+
+	private String lineSeparator = "\n"; // of the file, when saving
+
+	private static final String TEMPORARY_FILE_EXTENSION = ".tmp";
+
+	private static final int WRITE_CHUNK_SIZE = 1 << 16;
+
+	private static final long ALL_HIGH_BITS = 0x8080808080808080L;
+
+	public PlainTextMappedFileDocument() {
+		this(null);
+	}
+
+	public PlainTextMappedFileDocument(File file) {
+		super(file);
+	}
+
+	@Override
+	public AbstractDocument.Content readContent() throws PlainTextDocumentException {
+		if (!fileExists())
+			return new PieceTableContent();
+		try {
+			File copy = createPrivateCopy(getFile());
+			try {
+				return new PieceTableContent(mapFile(copy));
+			} finally {
+				if (!copy.delete()) {
+					copy.deleteOnExit(); // still mapped, on some platforms
+				}
+			}
+		} catch (IOException e) {
+			throw new PlainTextDocumentException(this,
+					"Failed to load document from file '" + getFile().getName() + "'", e);
+		}
+	}
+
+	private static File createPrivateCopy(File file) throws IOException {
+		File copy = File.createTempFile("document", TEMPORARY_FILE_EXTENSION);
+		try {
+			Files.copy(file.toPath(), copy.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			copy.delete();
+			throw e;
+		}
+		return copy;
+	}
+
+	private CharSequence mapFile(File file) throws IOException {
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			if (size >= Integer.MAX_VALUE)
+				throw new IOException("File is too large (" + size + " bytes)");
+			ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size); // remains valid after closing
+			CharSequence text = null;
+			LineBreakCarriageReturns carriageReturns = findAsciiLineBreakCarriageReturns(buffer);
+			if (carriageReturns != null) {
+				text = new AsciiCharSequence(buffer, carriageReturns);
+				setLineSeparator(carriageReturns.getCount() > 0 ? "\r\n" : "\n");
+			} else {
+				CharBuffer chars = Charset.defaultCharset().decode(buffer);
+				int length = removeLineBreakCarriageReturns(chars.array(), chars.arrayOffset() + chars.position(),
+						chars.remaining());
+				setLineSeparator(length < chars.remaining() ? "\r\n" : "\n");
+				text = CharBuffer.wrap(chars.array(), chars.arrayOffset() + chars.position(), length);
+			}
+			return text;
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Locates the carriage returns that precede a newline in an ASCII text
+	 *
+	 * @return The byte offsets of the carriage returns, or <code>null</code> when the text is not ASCII
+	 */
+	private static LineBreakCarriageReturns findAsciiLineBreakCarriageReturns(ByteBuffer buffer) {
+		LineBreakCarriageReturns carriageReturns = new LineBreakCarriageReturns();
+		ByteBuffer bytes = buffer.duplicate().order(ByteOrder.nativeOrder());
+		int n = bytes.limit();
+		while (bytes.remaining() >= 8) {
+			int offset = bytes.position();
+			long word = bytes.getLong();
+			if ((word & ALL_HIGH_BITS) != 0L)
+				return null;
+			long x = word ^ 0x0d0d0d0d0d0d0d0dL; // zero bytes where carriage returns
+			if (((x - 0x0101010101010101L) & ~x & ALL_HIGH_BITS) != 0L) {
+				for (int i = offset; i < offset + 8; i++) {
+					if (bytes.get(i) == '\r' && i + 1 < n && bytes.get(i + 1) == '\n') {
+						carriageReturns.add(i);
+					}
+				}
+			}
+		}
+		while (bytes.hasRemaining()) {
+			int i = bytes.position();
+			byte b = bytes.get();
+			if ((b & 0x80) != 0)
+				return null;
+			if (b == '\r' && i + 1 < n && bytes.get(i + 1) == '\n') {
+				carriageReturns.add(i);
+			}
+		}
+		return carriageReturns;
+	}
+
+	/**
+	 * Removes the carriage returns that precede a newline, in place
+	 *
+	 * @return The remaining number of characters
+	 */
+	private static int removeLineBreakCarriageReturns(char[] chars, int offset, int length) {
+		int j = offset;
+		int end = offset + length;
+		for (int i = offset; i < end; i++) {
+			char c = chars[i];
+			if (c != '\r' || i + 1 >= end || chars[i + 1] != '\n') {
+				chars[j++] = c;
+			}
+		}
+		return j - offset;
+	}
+
+	@Override
+	public void writeContent(AbstractDocument.Content content)
+			throws PlainTextDocumentException, PlainTextDocumentCancellation {
+		if (!isEditable())
+			throw new PlainTextDocumentException(this, "Document is not editable");
+		if (!hasFile()) {
+			setFile(selectFileToSave());
+		}
+		if (hasFile()) {
+			File file = getFile();
+			File temporaryFile = new File(file.getAbsoluteFile().getParentFile(),
+					file.getName() + TEMPORARY_FILE_EXTENSION);
+			try {
+				writeContent(content, temporaryFile, getLineSeparator());
+				moveFile(temporaryFile, file);
+			} catch (IOException | BadLocationException e) {
+				temporaryFile.delete();
+				throw new PlainTextDocumentException(this, "Failed to write document to file '" + file.getName() + "'",
+						e);
+			}
+		} else {
+			throw new PlainTextDocumentCancellation(this);
+		}
+	}
+
+	private static void writeContent(AbstractDocument.Content content, File file, String lineSeparator)
+			throws IOException, BadLocationException {
+		Writer writer = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(file), Charset.defaultCharset()), WRITE_CHUNK_SIZE);
+		try {
+			Segment segment = new Segment();
+			segment.setPartialReturn(true);
+			int offset = 0;
+			int length = content.length() - 1; // without the trailing newline
+			while (offset < length) {
+				content.getChars(offset, Math.min(length - offset, WRITE_CHUNK_SIZE), segment);
+				writeChars(writer, segment.array, segment.offset, segment.count, lineSeparator);
+				offset += segment.count;
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	private static void writeChars(Writer writer, char[] chars, int offset, int count, String lineSeparator)
+			throws IOException {
+		if (lineSeparator.equals("\n")) {
+			writer.write(chars, offset, count);
+		} else {
+			int start = offset;
+			int end = offset + count;
+			for (int i = offset; i < end; i++) {
+				if (chars[i] == '\n') {
+					writer.write(chars, start, i - start);
+					writer.write(lineSeparator);
+					start = i + 1;
+				}
+			}
+			writer.write(chars, start, end - start);
+		}
+	}
+
+	private static void moveFile(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	public String getLineSeparator() {
+		return lineSeparator;
+	}
+
+	private void setLineSeparator(String lineSeparator) {
+		this.lineSeparator = lineSeparator;
+	}
+
+	/**
+	 * The text of an ASCII file, one character per byte, leaving out the carriage returns that precede a newline
+	 */
+	private static class AsciiCharSequence implements CharSequence {
+
+		private ByteBuffer bytes;
+
+		private LineBreakCarriageReturns carriageReturns;
+
+		private volatile int carriageReturnsHint; // those before the most recently accessed character
+
+		public AsciiCharSequence(ByteBuffer bytes, LineBreakCarriageReturns carriageReturns) {
+			this.bytes = bytes;
+			this.carriageReturns = carriageReturns;
+		}
+
+		@Override
+		public int length() {
+			return getBytes().limit() - getCarriageReturns().getCount();
+		}
+
+		@Override
+		public char charAt(int index) {
+			return (char) getBytes().get(index + countCarriageReturnsBefore(index));
+		}
+
+		/**
+		 * Counts the left out carriage returns before a character, in constant time when accessed sequentially
+		 */
+		private int countCarriageReturnsBefore(int index) {
+			LineBreakCarriageReturns carriageReturns = getCarriageReturns();
+			int n = carriageReturns.getCount();
+			if (n == 0)
+				return 0;
+			int k = carriageReturnsHint;
+			if (!carriageReturns.isCountBefore(k, index)) {
+				if (carriageReturns.isCountBefore(k + 1, index)) {
+					k++; // next line
+				} else {
+					int lo = 0, hi = n;
+					while (lo < hi) {
+						int mid = (lo + hi) >>> 1;
+						if (carriageReturns.getCharIndex(mid) <= index) {
+							lo = mid + 1;
+						} else {
+							hi = mid;
+						}
+					}
+					k = lo;
+				}
+				carriageReturnsHint = k;
+			}
+			return k;
+		}
+
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return toString(start, end);
+		}
+
+		@Override
+		public String toString() {
+			return toString(0, length());
+		}
+
+		private String toString(int start, int end) {
+			StringBuilder sb = new StringBuilder(end - start);
+			for (int i = start; i < end; i++) {
+				sb.append(charAt(i));
+			}
+			return sb.toString();
+		}
+
+		private ByteBuffer getBytes() {
+			return bytes;
+		}
+
+		private LineBreakCarriageReturns getCarriageReturns() {
+			return carriageReturns;
+		}
+
+	}
+
+	/**
+	 * The byte offsets of the carriage returns preceding a newline, in ascending order
+	 */
+	private static class LineBreakCarriageReturns {
+
+		private int[] offsets;
+
+		private int count;
+
+		public LineBreakCarriageReturns() {
+			this.offsets = new int[16];
+		}
+
+		public void add(int offset) {
+			if (count == offsets.length) {
+				offsets = Arrays.copyOf(offsets, count * 2);
+			}
+			offsets[count++] = offset;
+		}
+
+		/**
+		 * Returns the index of the character following a carriage return, once the carriage returns are left out
+		 */
+		public int getCharIndex(int k) {
+			return offsets[k] - k;
+		}
+
+		/**
+		 * Tells whether exactly <code>k</code> carriage returns precede the character at an index, once the carriage
+		 * returns are left out
+		 */
+		public boolean isCountBefore(int k, int index) {
+			return k >= 0 && k <= count && (k == 0 || getCharIndex(k - 1) <= index)
+					&& (k == count || getCharIndex(k) > index);
+		}
+
+		public int getCount() {
+			return count;
+		}
+
+	}
+
+}